@@ -3,14 +3,18 @@ package edu.eci.arsw.parallelism.api;
 import java.time.Instant;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import edu.eci.arsw.parallelism.core.exceptions.ComputeSaturatedException;
+import edu.eci.arsw.parallelism.core.exceptions.PiCalculationTimeoutException;
 import jakarta.validation.ConstraintViolationException;
 
 /**
@@ -71,6 +75,35 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    /**
+     * Handles compute saturation.
+     * This method is triggered when the compute scheduler has no room for a request,
+     * and tells the client when to retry.
+     *
+     * @param ex the ComputeSaturatedException with the suggested retry delay
+     * @return ResponseEntity with TOO_MANY_REQUESTS status and a Retry-After header
+     */
+    @ExceptionHandler(ComputeSaturatedException.class)
+    public ResponseEntity<Map<String, Object>> handleSaturated(ComputeSaturatedException ex) {
+        ResponseEntity<Map<String, Object>> response = buildResponse(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage());
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response.getBody());
+    }
+
+    /**
+     * Handles calculations that ran out of time.
+     * This method is triggered when a calculation passes its deadline, or when
+     * the asynchronous request times out before the calculation finishes.
+     *
+     * @param ex the PiCalculationTimeoutException or AsyncRequestTimeoutException
+     * @return ResponseEntity with SERVICE_UNAVAILABLE status
+     */
+    @ExceptionHandler({PiCalculationTimeoutException.class, AsyncRequestTimeoutException.class})
+    public ResponseEntity<Map<String, Object>> handleTimeout(Exception ex) {
+        return buildResponse(HttpStatus.SERVICE_UNAVAILABLE, "Calculation exceeded maximum allowed time");
+    }
+
     /**
      * Handles generic exceptions.
      * This method acts as a fallback handler for any unhandled exceptions,
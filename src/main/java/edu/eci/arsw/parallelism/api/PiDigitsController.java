@@ -1,7 +1,11 @@
 
 package edu.eci.arsw.parallelism.api;
 
+import edu.eci.arsw.parallelism.core.CancellationToken;
+import edu.eci.arsw.parallelism.core.DigitCache;
 import edu.eci.arsw.parallelism.core.PiDigitsService;
+import edu.eci.arsw.parallelism.core.SequentialPrefetcher;
+import edu.eci.arsw.parallelism.core.exceptions.PiCalculationTimeoutException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,8 +13,14 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.constraints.Min;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 @RestController
 @RequestMapping("/api/v1/pi")
@@ -18,9 +28,32 @@ import org.springframework.web.bind.annotation.*;
 public class PiDigitsController {
 
     private final PiDigitsService service;
+    private final SequentialPrefetcher prefetcher;
+    private final AsyncTaskExecutor calculations;
 
     public PiDigitsController(PiDigitsService service) {
+        this(service, new SequentialPrefetcher(), new SimpleAsyncTaskExecutor("pi-request-"));
+    }
+
+    /**
+     * Calculations run on their own thread while the servlet request waits
+     * asynchronously, so the container reports a client that goes away and
+     * the calculation is cancelled instead of running to the end.
+     *
+     * Hexadecimal reads are reported to the prefetcher under the client's
+     * {@code X-Client-Id} header, or its address without one, so clients
+     * that page through Pi find their next page cached.
+     *
+     * @param service the calculation service
+     * @param prefetcher tracks sequential readers and caches their next page
+     * @param calculations executor the calculations run on (see {@link RequestExecutorConfig})
+     */
+    @Autowired
+    public PiDigitsController(PiDigitsService service, SequentialPrefetcher prefetcher,
+                              @Qualifier(RequestExecutorConfig.REQUEST_EXECUTOR) AsyncTaskExecutor calculations) {
         this.service = service;
+        this.prefetcher = prefetcher;
+        this.calculations = calculations;
     }
 
     @Operation(
@@ -43,17 +76,53 @@ public class PiDigitsController {
             )
     })
     @GetMapping("/digits")
-    public PiResponse digits(
+    public WebAsyncTask<PiResponse> digits(
             @Parameter(description = "Starting position for Pi digits (0-indexed)", example = "0", required = true)
             @RequestParam @Min(0) int start,
             @Parameter(description = "Number of digits to calculate", example = "10", required = true)
             @RequestParam @Min(1) int count,
-            @Parameter(description = "Number of threads to use (optional, must be > 0)", example = "4", required = false)
+            @Parameter(description = "Number of threads to use, of segments for 'pool' and 'virtual', the minimum number of pieces for 'forkjoin', or an upper bound for 'auto' (optional, must be > 0)", example = "4", required = false)
             @RequestParam(required = false) @Min(1) Integer threads,
-            @Parameter(description = "Calculation strategy: 'sequential' or 'threads' (optional)", example = "threads", schema = @Schema(allowableValues = {"sequential", "threads"}), required = false)
-            @RequestParam(required = false) String strategy
+            @Parameter(description = "Calculation strategy: 'auto', 'sequential', 'threads', 'pool', 'virtual', 'forkjoin' or 'guided' (optional, defaults to 'auto')", example = "auto", schema = @Schema(allowableValues = {"auto", "sequential", "threads", "pool", "virtual", "forkjoin", "guided"}), required = false)
+            @RequestParam(required = false) String strategy,
+            @Parameter(description = "Digit-extraction kernel: 'bbp', 'bbp-simd' or 'bellard' (optional, defaults to the configured kernel)", example = "bbp", schema = @Schema(allowableValues = {"bbp", "bbp-simd", "bellard"}), required = false)
+            @RequestParam(required = false) String kernel,
+            @Parameter(description = "Output base: 16 for hexadecimal, 10 for decimal digits after the decimal point (optional, defaults to 16)", example = "16", schema = @Schema(allowableValues = {"10", "16"}), required = false)
+            @RequestParam(defaultValue = "16") int base,
+            @Parameter(description = "Whether a calculation that runs out of time returns the digits completed from 'start', with the position to continue from in 'next', instead of failing (optional, defaults to false)", example = "false", required = false)
+            @RequestParam(defaultValue = "false") boolean partial,
+            @Parameter(description = "Identifies the client whose sequential reads are prefetched (optional, defaults to its address)", required = false)
+            @RequestHeader(value = "X-Client-Id", required = false) String clientId,
+            @Parameter(hidden = true) HttpServletRequest request
     ) {
-        String digits = service.calculateWithStrategy(start, count, threads, strategy);
-        return new PiResponse(start, count, digits);
+        CancellationToken cancellation = new CancellationToken();
+        String client = clientId != null && !clientId.isBlank() ? clientId : request.getRemoteAddr();
+        WebAsyncTask<PiResponse> task = new WebAsyncTask<>(null, calculations, () -> {
+            try {
+                String digits = service.calculateWithStrategy(start, count, threads, strategy, kernel, base, cancellation);
+                if (base == 16) {
+                    prefetcher.observe(client, start, count);
+                }
+                return new PiResponse(start, count, base, digits);
+            } catch (PiCalculationTimeoutException e) {
+                String digits = e.getPartialDigits();
+                if (!partial || digits.isEmpty()) {
+                    throw e;
+                }
+                return new PiResponse(start, digits.length(), base, digits, start + digits.length());
+            }
+        });
+        // Also runs after a disconnect or timeout; after a normal completion there is nothing left to stop
+        task.onCompletion(() -> cancellation.cancel("Request completed"));
+        return task;
+    }
+
+    @Operation(
+            summary = "Get digit cache statistics",
+            description = "Returns the hits, misses and evictions of the cache of hexadecimal digit blocks, and its size"
+    )
+    @GetMapping("/cache")
+    public DigitCache.Stats cache() {
+        return service.getCacheStats();
     }
 }
@@ -1,6 +1,6 @@
-
 package edu.eci.arsw.parallelism.api;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 @Schema(description = "Response containing calculated digits of Pi")
@@ -9,7 +9,19 @@ public record PiResponse(
         int start,
         @Schema(description = "Number of digits calculated", example = "10")
         int count,
-        @Schema(description = "The calculated digits of Pi", example = "3141592653")
-        String digits
+        @Schema(description = "Base of the digits: 16 or 10", example = "16")
+        int base,
+        @Schema(description = "The calculated digits of Pi after the radix point (\"1415926535\" in base 10)", example = "243F6A8885")
+        String digits,
+        @Schema(description = "Start position to request the rest of the range from, present only when the calculation ran out of time and returned the digits it had", example = "4096", nullable = true)
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Integer next
 ) {
+
+    /**
+     * Creates the response of a complete calculation.
+     */
+    public PiResponse(int start, int count, int base, String digits) {
+        this(start, count, base, digits, null);
+    }
 }
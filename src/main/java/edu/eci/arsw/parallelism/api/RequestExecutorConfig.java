@@ -0,0 +1,36 @@
+package edu.eci.arsw.parallelism.api;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ * The executor that runs the calculations of {@link PiDigitsController}
+ * while the servlet request waits asynchronously.
+ *
+ * The executor is a bean, so the context closes it on shutdown, which
+ * stops it taking new calculations, and tests can replace it. Its limit,
+ * {@code pi.requests.max-concurrent}, only bounds the threads parked on
+ * calculations. How much CPU runs at once is decided by the
+ * {@link edu.eci.arsw.parallelism.core.ComputeScheduler}, which takes
+ * requests on these threads in turn and rejects them once its budget is
+ * full. So the limit should stay above the number of requests the
+ * scheduler admits.
+ */
+@Configuration
+public class RequestExecutorConfig {
+
+    /** Name of the bean the controller runs calculations on. */
+    public static final String REQUEST_EXECUTOR = "piRequestExecutor";
+
+    /**
+     * @param maxConcurrent calculations that may hold a thread at once; further requests wait to start
+     */
+    @Bean(name = REQUEST_EXECUTOR)
+    public SimpleAsyncTaskExecutor piRequestExecutor(@Value("${pi.requests.max-concurrent:200}") int maxConcurrent) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("pi-request-");
+        executor.setConcurrencyLimit(maxConcurrent);
+        return executor;
+    }
+}
@@ -0,0 +1,127 @@
+package edu.eci.arsw.parallelism.concurrency;
+
+import edu.eci.arsw.parallelism.core.PiDigits;
+
+/**
+ * Splits a digit range into segments of about equal cost, on chunk boundaries.
+ *
+ * The digit kernels evaluate chunks of {@link PiDigits#DIGITS_PER_CHUNK}
+ * digits, and a chunk at position n sums about n terms, so equal digit counts
+ * are far from equal work when the range is wide compared to its start. The
+ * model charges each chunk its position plus {@link #CHUNK_BASE_COST}, and
+ * each segment another {@link #SEGMENT_COST_CHUNKS} chunks at its last
+ * position for the modular powers that the chunks of one segment share.
+ *
+ * Segment lengths are whole chunks counted from the start (only the last
+ * segment may end inside a chunk), so no segment evaluates a partial chunk
+ * that the next one evaluates again.
+ */
+public final class CostPartitioner {
+
+    /** Position-independent cost of a chunk, in units of one position. */
+    static final long CHUNK_BASE_COST = 64;
+
+    /** Per-segment overhead, in chunks at the segment's last position. */
+    static final long SEGMENT_COST_CHUNKS = 2;
+
+    private CostPartitioner() {
+    }
+
+    /**
+     * Returns the boundaries of at most {@code segments} equal-cost segments of
+     * [start, start + count), as offsets from start: segment i covers offsets
+     * bounds[i] to bounds[i + 1], bounds[0] = 0 and the last bound is count.
+     * Fewer segments come back when the range has fewer chunks, or when more
+     * segments would not lower the cost of the largest one.
+     *
+     * @param start the starting position (0-indexed)
+     * @param count the number of digits; an empty range has no segments
+     * @param segments the maximum number of segments, at least 1
+     * @return segment boundaries
+     * @throws IllegalArgumentException if start or count is negative or segments is not positive
+     */
+    public static int[] partition(int start, int count, int segments) {
+        if (start < 0 || count < 0 || segments <= 0) {
+            throw new IllegalArgumentException("Invalid partition: start and count must be non-negative, segments positive");
+        }
+        if (count == 0) {
+            return new int[]{0};
+        }
+        int chunk = PiDigits.DIGITS_PER_CHUNK;
+        int chunks = (count + chunk - 1) / chunk;
+
+        // prefix[j] = cost of chunks 0..j-1 without segment overhead
+        long[] prefix = new long[chunks + 1];
+        long largestChunk = 0;
+        for (int j = 0; j < chunks; j++) {
+            long cost = chunkCost(start, j);
+            prefix[j + 1] = prefix[j] + cost;
+            largestChunk = Math.max(largestChunk, cost + SEGMENT_COST_CHUNKS * cost);
+        }
+
+        // Smallest bound on the cost of a segment that still fits in the allowed segments
+        long low = largestChunk;
+        long high = segmentCost(start, prefix, 0, chunks);
+        while (low < high) {
+            long mid = low + (high - low) / 2;
+            if (cut(start, prefix, mid, null) <= segments) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+
+        int[] ends = new int[chunks];
+        int used = cut(start, prefix, low, ends);
+        int[] bounds = new int[used + 1];
+        for (int i = 0; i < used; i++) {
+            bounds[i + 1] = Math.min(ends[i] * chunk, count);
+        }
+        return bounds;
+    }
+
+    /**
+     * Returns the modelled cost of calculating [start, start + count) as one segment.
+     */
+    public static long cost(int start, int count) {
+        int chunks = (count + PiDigits.DIGITS_PER_CHUNK - 1) / PiDigits.DIGITS_PER_CHUNK;
+        long sum = 0;
+        for (int j = 0; j < chunks; j++) {
+            sum += chunkCost(start, j);
+        }
+        return chunks == 0 ? 0 : sum + SEGMENT_COST_CHUNKS * chunkCost(start, chunks - 1);
+    }
+
+    private static long chunkCost(int start, int j) {
+        return (long) start + (long) j * PiDigits.DIGITS_PER_CHUNK + CHUNK_BASE_COST;
+    }
+
+    private static long segmentCost(int start, long[] prefix, int from, int to) {
+        return prefix[to] - prefix[from] + SEGMENT_COST_CHUNKS * chunkCost(start, to - 1);
+    }
+
+    /**
+     * Greedily cuts the chunks into segments costing at most limit each.
+     *
+     * @param ends receives the end chunk of each segment, may be null
+     * @return number of segments needed
+     */
+    private static int cut(int start, long[] prefix, long limit, int[] ends) {
+        int chunks = prefix.length - 1;
+        int used = 0;
+        int from = 0;
+        int to = 1;
+        while (from < chunks) {
+            while (to < chunks && segmentCost(start, prefix, from, to + 1) <= limit) {
+                to++;
+            }
+            if (ends != null) {
+                ends[used] = to;
+            }
+            used++;
+            from = to;
+            to = from + 1;
+        }
+        return used;
+    }
+}
@@ -0,0 +1,85 @@
+package edu.eci.arsw.parallelism.concurrency;
+
+import edu.eci.arsw.parallelism.core.CancellationToken;
+import edu.eci.arsw.parallelism.core.PiDigits;
+import edu.eci.arsw.parallelism.core.PiKernel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Splits a request into contiguous segments of about equal cost (see
+ * {@link CostPartitioner}), runs them on an executor and waits for all of them. Segments write their hex characters into one
+ * shared buffer, as in {@link ThreadJoinStrategy}. A failed segment is
+ * retried by the task that ran it (see {@link SegmentRetry}); the first
+ * segment to run out of attempts cancels the others, queued or running.
+ * A request that times out reports the digits of the segments completed
+ * from its start.
+ */
+final class ExecutorSegments {
+
+    private ExecutorSegments() {
+    }
+
+    /**
+     * @param executor executor the segments are submitted to
+     * @param start the starting position (0-indexed)
+     * @param count the total number of hexadecimal digits to compute
+     * @param segments the maximum number of segments to split the range into
+     * @param kernel the digit-extraction kernel each segment runs
+     * @param token cancellation of the request
+     * @return a string containing the hexadecimal digits of Pi in order
+     * @throws IllegalStateException if a segment fails in every attempt
+     */
+    static String calculate(ExecutorService executor, int start, int count, int segments, PiKernel kernel,
+                            CancellationToken token) {
+        int[] bounds = CostPartitioner.partition(start, count, segments);
+
+        byte[] digits = new byte[count];
+        List<Future<?>> futures = new ArrayList<>(bounds.length - 1);
+        CancellationToken siblings = token.child();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        SegmentProgress progress = new SegmentProgress();
+
+        for (int i = 0; i < bounds.length - 1; i++) {
+            final int segmentOffset = bounds[i];
+            final int segmentCount = bounds[i + 1] - bounds[i];
+            futures.add(executor.submit(() -> {
+                try {
+                    SegmentRetry.run(siblings,
+                            () -> kernel.getDigits(start + segmentOffset, segmentCount, digits, segmentOffset, siblings));
+                } catch (RuntimeException e) {
+                    if (failure.compareAndSet(null, e)) {
+                        siblings.cancel("Sibling segment failed");
+                    }
+                    throw e;
+                }
+                PiDigits.toHexChars(digits, segmentOffset, segmentCount);
+                progress.done(segmentOffset, segmentCount);
+            }));
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Thread interrupted", e);
+        } catch (ExecutionException e) {
+            siblings.cancel("Sibling segment failed");
+            futures.forEach(future -> future.cancel(true));
+            // A cancelled request reports why, rather than the segments it stopped
+            progress.throwIfCancelled(token, digits);
+            throw new IllegalStateException("Segment calculation failed",
+                    failure.get() != null ? failure.get() : e.getCause());
+        }
+
+        return PiDigits.toHexString(digits);
+    }
+}
@@ -0,0 +1,172 @@
+package edu.eci.arsw.parallelism.concurrency;
+
+import edu.eci.arsw.parallelism.core.CancellationToken;
+import edu.eci.arsw.parallelism.core.PiDigits;
+import edu.eci.arsw.parallelism.core.PiKernel;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A work-stealing strategy: the range is split in halves recursively on a
+ * shared {@link ForkJoinPool}, and idle workers steal the halves that busy
+ * ones have not started yet, so a slow piece no longer holds up a fixed
+ * share of the request.
+ *
+ * Pieces are sized by their modelled cost (see {@link CostPartitioner})
+ * rather than by digit count: a piece is split at its cost midpoint until
+ * it costs at most the request's cost divided by
+ * {@code pi.forkjoin.pieces-per-worker} times the number of workers, or by
+ * the threads parameter if the request asks for more pieces. Every piece
+ * pays for the modular powers at its offset once and sweeps its chunks
+ * incrementally from there, so the number of pieces, and of those passes,
+ * follows the workers rather than the digit count, and a piece whose larger
+ * half would cost as much as itself is not split at all. Split
+ * points fall on multiples of {@link PiDigits#DIGITS_PER_CHUNK} from the
+ * start, so only the last piece evaluates a partial chunk. The pool has
+ * {@code pi.forkjoin.parallelism} workers (one per processor when 0).
+ * A piece that fails is retried by the worker running it (see
+ * {@link SegmentRetry}); one that runs out of attempts cancels the others
+ * of its request, including the ones still waiting to be stolen. A request
+ * that times out reports the pieces completed from its start.
+ */
+@Component
+public class ForkJoinStrategy implements ParallelStrategy {
+
+    private final ForkJoinPool pool;
+    private final int piecesPerWorker;
+
+    /**
+     * Creates a pool with one worker per processor and 4 pieces per worker.
+     */
+    public ForkJoinStrategy() {
+        this(0, 4);
+    }
+
+    /**
+     * @param parallelism number of workers, or 0 for one per available processor
+     * @param piecesPerWorker pieces of about equal cost a request is split into per worker
+     * @throws IllegalArgumentException if parallelism is negative or piecesPerWorker is not positive
+     */
+    @Autowired
+    public ForkJoinStrategy(@Value("${pi.forkjoin.parallelism:0}") int parallelism,
+                            @Value("${pi.forkjoin.pieces-per-worker:4}") int piecesPerWorker) {
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("Parallelism must be non-negative");
+        }
+        if (piecesPerWorker <= 0) {
+            throw new IllegalArgumentException("Pieces per worker must be positive");
+        }
+        this.pool = new ForkJoinPool(parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism);
+        this.piecesPerWorker = piecesPerWorker;
+    }
+
+    /**
+     * Calculates hexadecimal digits of Pi by recursive splitting.
+     *
+     * @param start the starting position (0-indexed)
+     * @param count the total number of hexadecimal digits to compute
+     * @param threads the minimum number of pieces to split the range into
+     * @param kernel the digit-extraction kernel each piece runs
+     * @param token cancellation of the request
+     * @return a string containing the hexadecimal digits of Pi in order
+     */
+    @Override
+    public String calculate(int start, int count, int threads, PiKernel kernel, CancellationToken token) {
+        long pieces = Math.max(threads, (long) piecesPerWorker * pool.getParallelism());
+        long leafCost = Math.max(1, CostPartitioner.cost(start, count) / pieces);
+        byte[] digits = new byte[count];
+        SegmentProgress progress = new SegmentProgress();
+        try {
+            pool.invoke(new Piece(kernel, start, 0, count, leafCost, digits, token.child(), progress));
+        } catch (RuntimeException e) {
+            // A cancelled request reports why, rather than the pieces it stopped
+            progress.throwIfCancelled(token, digits);
+            throw e;
+        }
+        return PiDigits.toHexString(digits);
+    }
+
+    /**
+     * Returns the name of the strategy.
+     * @return the name of the strategy
+     */
+    @Override
+    public String name() {
+        return "forkjoin";
+    }
+
+    /**
+     * Returns the number of pieces a request is split into per worker.
+     */
+    public int getPiecesPerWorker() {
+        return piecesPerWorker;
+    }
+
+    /**
+     * Returns the number of workers in the pool.
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Stops the pool once the pieces in progress have finished.
+     */
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Computes digits[offset, offset + count) of a request starting at start.
+     */
+    private static final class Piece extends RecursiveAction {
+
+        private final PiKernel kernel;
+        private final int start;
+        private final int offset;
+        private final int count;
+        private final long leafCost;
+        private final byte[] digits;
+        private final CancellationToken siblings;
+        private final SegmentProgress progress;
+
+        Piece(PiKernel kernel, int start, int offset, int count, long leafCost, byte[] digits,
+              CancellationToken siblings, SegmentProgress progress) {
+            this.kernel = kernel;
+            this.start = start;
+            this.offset = offset;
+            this.count = count;
+            this.leafCost = leafCost;
+            this.digits = digits;
+            this.siblings = siblings;
+            this.progress = progress;
+        }
+
+        @Override
+        protected void compute() {
+            // Halves of about equal cost, the left one whole chunks; a single bound when halving would not lower the cost
+            int[] bounds = CostPartitioner.cost(start + offset, count) <= leafCost
+                    ? new int[]{0, count} : CostPartitioner.partition(start + offset, count, 2);
+            int half = bounds[1];
+            if (half >= count) {
+                try {
+                    SegmentRetry.run(siblings, () -> kernel.getDigits(start + offset, count, digits, offset, siblings));
+                } catch (RuntimeException e) {
+                    siblings.cancel("Sibling piece failed");
+                    throw e;
+                }
+                PiDigits.toHexChars(digits, offset, count);
+                progress.done(offset, count);
+                return;
+            }
+            invokeAll(new Piece(kernel, start, offset, half, leafCost, digits, siblings, progress),
+                    new Piece(kernel, start, offset + half, count - half, leafCost, digits, siblings, progress));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package edu.eci.arsw.parallelism.concurrency;
+
+import edu.eci.arsw.parallelism.core.CancellationToken;
+import edu.eci.arsw.parallelism.core.PiDigits;
+import edu.eci.arsw.parallelism.core.PiKernel;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A self-scheduling strategy: a fixed set of threads repeatedly claims the
+ * next block of chunks from a shared atomic cursor until the range is done.
+ *
+ * Blocks are guided: each claim takes half of an equal share of the chunks
+ * still left, so blocks start large (few claims, shared modular powers) and
+ * shrink towards the end, where a thread that finishes early picks up the
+ * small blocks a slower one would otherwise have been left with. Claiming a
+ * block is a single compare-and-set, and every block writes its digits
+ * straight into its slot of the shared buffer.
+ *
+ * Unlike {@link ThreadJoinStrategy} nothing is decided up front, so the
+ * balance does not depend on a cost model. A failed block is retried by the
+ * thread that claimed it (see {@link SegmentRetry}); one that runs out of
+ * attempts stops the other threads through a child of the request's
+ * cancellation token, and a request that times out reports the blocks
+ * completed from its start.
+ */
+@Component
+public class GuidedStrategy implements ParallelStrategy {
+
+    /**
+     * Calculates hexadecimal digits of Pi with guided self-scheduling.
+     *
+     * @param start the starting position (0-indexed)
+     * @param count the total number of hexadecimal digits to compute
+     * @param threads the number of threads claiming blocks
+     * @param kernel the digit-extraction kernel each block runs
+     * @param token cancellation of the request
+     * @return a string containing the hexadecimal digits of Pi in order
+     * @throws IllegalStateException if a block fails in every attempt
+     */
+    @Override
+    public String calculate(int start, int count, int threads, PiKernel kernel, CancellationToken token) {
+        int chunk = PiDigits.DIGITS_PER_CHUNK;
+        int chunks = (count + chunk - 1) / chunk;
+        int workerCount = Math.min(threads, chunks);
+
+        byte[] digits = new byte[count];
+        AtomicInteger cursor = new AtomicInteger();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        CancellationToken siblings = token.child();
+        SegmentProgress progress = new SegmentProgress();
+
+        Runnable worker = () -> {
+            try {
+                int first;
+                while (failure.get() == null && (first = claim(cursor, chunks, workerCount)) < chunks) {
+                    int offset = first * chunk;
+                    int end = Math.min((first + blockSize(chunks - first, workerCount)) * chunk, count);
+                    SegmentRetry.run(siblings, () -> kernel.getDigits(start + offset, end - offset, digits, offset, siblings));
+                    PiDigits.toHexChars(digits, offset, end - offset);
+                    progress.done(offset, end - offset);
+                }
+            } catch (RuntimeException e) {
+                if (failure.compareAndSet(null, e)) {
+                    siblings.cancel("Sibling block failed");
+                }
+            }
+        };
+
+        Thread[] workers = new Thread[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new Thread(worker);
+            workers[i].start();
+        }
+
+        for (Thread thread : workers) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Thread interrupted", e);
+            }
+        }
+
+        if (failure.get() != null) {
+            // A cancelled request reports why, rather than the blocks it stopped
+            progress.throwIfCancelled(token, digits);
+            throw new IllegalStateException("Block calculation failed", failure.get());
+        }
+
+        return PiDigits.toHexString(digits);
+    }
+
+    /**
+     * Returns the number of chunks the next claim takes when remaining chunks
+     * are left: half of an equal share, at least one.
+     */
+    static int blockSize(int remaining, int workers) {
+        return Math.max(1, remaining / (2 * workers));
+    }
+
+    /**
+     * Advances the cursor past the next block and returns its first chunk, or
+     * chunks when the range is done.
+     */
+    static int claim(AtomicInteger cursor, int chunks, int workers) {
+        while (true) {
+            int first = cursor.get();
+            if (first >= chunks) {
+                return chunks;
+            }
+            if (cursor.compareAndSet(first, first + blockSize(chunks - first, workers))) {
+                return first;
+            }
+        }
+    }
+
+    /**
+     * Returns the name of the strategy.
+     * @return the name of the strategy
+     */
+    @Override
+    public String name() {
+        return "guided";
+    }
+}
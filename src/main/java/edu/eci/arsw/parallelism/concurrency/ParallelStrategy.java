@@ -1,5 +1,9 @@
 package edu.eci.arsw.parallelism.concurrency;
 
+import edu.eci.arsw.parallelism.core.CancellationToken;
+import edu.eci.arsw.parallelism.core.PiDigits;
+import edu.eci.arsw.parallelism.core.PiKernel;
+
 /**
  * Strategy interface for parallel Pi digit calculation.
  */
@@ -13,7 +17,38 @@ public interface ParallelStrategy {
      * @param threads number of threads to use
      * @return String with the calculated digits
      */
-    String calculate(int start, int count, int threads);
+    default String calculate(int start, int count, int threads) {
+        return calculate(start, count, threads, PiDigits.BBP);
+    }
+
+    /**
+     * Calculates Pi digits using this parallelism strategy and the given kernel.
+     *
+     * @param start starting position (0-indexed)
+     * @param count number of digits to calculate
+     * @param threads number of threads to use
+     * @param kernel digit-extraction kernel each segment runs
+     * @return String with the calculated digits
+     */
+    default String calculate(int start, int count, int threads, PiKernel kernel) {
+        return calculate(start, count, threads, kernel, CancellationToken.NONE);
+    }
+
+    /**
+     * Calculates Pi digits using this parallelism strategy and the given
+     * kernel, stopping every segment once token is cancelled. When one
+     * segment fails, the others stop as well.
+     *
+     * @param start starting position (0-indexed)
+     * @param count number of digits to calculate
+     * @param threads number of threads to use
+     * @param kernel digit-extraction kernel each segment runs
+     * @param token cancellation of the request
+     * @return String with the calculated digits
+     * @throws edu.eci.arsw.parallelism.core.exceptions.CalculationCancelledException if token is cancelled
+     * @throws edu.eci.arsw.parallelism.core.exceptions.PiCalculationTimeoutException if the deadline of token passes
+     */
+    String calculate(int start, int count, int threads, PiKernel kernel, CancellationToken token);
 
     /**
      * Returns the identifying name of the strategy.
@@ -0,0 +1,144 @@
+package edu.eci.arsw.parallelism.concurrency;
+
+import edu.eci.arsw.parallelism.core.CancellationToken;
+import edu.eci.arsw.parallelism.core.PiKernel;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A strategy that calculates the segments of a request on a long-lived
+ * thread pool shared by all requests, instead of starting threads per call.
+ *
+ * The pool has a fixed number of workers ({@code pi.pool.size}, the number of
+ * processors when 0) and a bounded queue ({@code pi.pool.queue-capacity}).
+ * When the queue is full the request thread calculates the segment itself, so
+ * overload slows the callers down rather than growing the queue or the number
+ * of threads. The threads parameter only sets how many segments a request is
+ * split into. On shutdown, queued segments get {@code pi.pool.shutdown-timeout-ms}
+ * to finish before the workers are interrupted.
+ */
+@Component
+public class PoolStrategy implements ParallelStrategy {
+
+    private static final Logger logger = LoggerFactory.getLogger(PoolStrategy.class);
+
+    private final ThreadPoolExecutor executor;
+    private final long shutdownTimeoutMillis;
+
+    /**
+     * Creates a pool with one worker per processor.
+     */
+    public PoolStrategy() {
+        this(0, 1024, 30_000);
+    }
+
+    /**
+     * Creates the shared pool.
+     *
+     * @param size number of workers, or 0 for one per available processor
+     * @param queueCapacity number of segments that may wait for a worker
+     * @param shutdownTimeoutMillis time queued segments get to finish on shutdown
+     * @throws IllegalArgumentException if size is negative or queueCapacity is not positive
+     */
+    @Autowired
+    public PoolStrategy(@Value("${pi.pool.size:0}") int size,
+                        @Value("${pi.pool.queue-capacity:1024}") int queueCapacity,
+                        @Value("${pi.pool.shutdown-timeout-ms:30000}") long shutdownTimeoutMillis) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Pool size must be non-negative");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        int workers = size == 0 ? Runtime.getRuntime().availableProcessors() : size;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "pi-pool-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                PoolStrategy::runOnCaller);
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+
+    /**
+     * Calculates hexadecimal digits of Pi on the shared pool.
+     *
+     * @param start the starting position (0-indexed)
+     * @param count the total number of hexadecimal digits to compute
+     * @param threads the number of segments to split the range into
+     * @param kernel the digit-extraction kernel each segment runs
+     * @param token cancellation of the request
+     * @return a string containing the hexadecimal digits of Pi in order
+     * @throws IllegalStateException if a segment fails
+     * @throws RejectedExecutionException if the pool has been shut down
+     */
+    @Override
+    public String calculate(int start, int count, int threads, PiKernel kernel, CancellationToken token) {
+        return ExecutorSegments.calculate(executor, start, count, threads, kernel, token);
+    }
+
+    /**
+     * Returns the name of the strategy.
+     * @return the name of the strategy
+     */
+    @Override
+    public String name() {
+        return "pool";
+    }
+
+    /**
+     * Returns the number of workers in the pool.
+     */
+    public int getPoolSize() {
+        return executor.getCorePoolSize();
+    }
+
+    /**
+     * Returns the number of segments that may wait for a worker.
+     */
+    public int getQueueCapacity() {
+        return executor.getQueue().remainingCapacity() + executor.getQueue().size();
+    }
+
+    /**
+     * Stops accepting segments, lets queued ones finish within the shutdown
+     * timeout and then interrupts the workers.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                logger.warn("Pool did not drain within {} ms, interrupting workers", shutdownTimeoutMillis);
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Rejection handler: a full queue pushes the segment back onto the
+     * submitting thread; a pool that is shutting down rejects it.
+     */
+    private static void runOnCaller(Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("Pool is shut down");
+        }
+        task.run();
+    }
+}
@@ -0,0 +1,58 @@
+package edu.eci.arsw.parallelism.concurrency;
+
+import edu.eci.arsw.parallelism.core.CancellationToken;
+import edu.eci.arsw.parallelism.core.PiDigits;
+import edu.eci.arsw.parallelism.core.exceptions.PiCalculationTimeoutException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tracks which segments of a request are complete, in whatever order they
+ * finish, and the contiguous prefix of the range they cover, so a request
+ * that runs out of time can still hand back the digits it has in order.
+ */
+final class SegmentProgress {
+
+    private final Map<Integer, Integer> pending = new HashMap<>();
+    private int prefix;
+
+    /**
+     * Records that digits[offset, offset + count) hold their final hex characters.
+     */
+    synchronized void done(int offset, int count) {
+        if (offset != prefix) {
+            pending.put(offset, offset + count);
+            return;
+        }
+        prefix = offset + count;
+        Integer end;
+        while ((end = pending.remove(prefix)) != null) {
+            prefix = end;
+        }
+    }
+
+    /**
+     * Returns the number of digits from the start of the range that are complete.
+     */
+    synchronized int prefix() {
+        return prefix;
+    }
+
+    /**
+     * Throws the cancellation of token, if any; a timeout carries the
+     * complete prefix of digits.
+     *
+     * @param token cancellation of the request
+     * @param digits the shared buffer of hex characters
+     */
+    void throwIfCancelled(CancellationToken token, byte[] digits) {
+        try {
+            token.throwIfCancelled();
+        } catch (PiCalculationTimeoutException e) {
+            throw new PiCalculationTimeoutException(e.getMessage(), e.getElapsedMillis(),
+                    PiDigits.toHexString(Arrays.copyOf(digits, prefix())));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package edu.eci.arsw.parallelism.concurrency;
+
+import edu.eci.arsw.parallelism.core.CancellationToken;
+import edu.eci.arsw.parallelism.core.exceptions.CalculationCancelledException;
+import edu.eci.arsw.parallelism.core.exceptions.PiCalculationTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs one segment of a parallel request again when it fails, in place, so a
+ * transient failure costs the request that segment rather than the whole
+ * range. A segment only writes its own slice of the shared buffer, so a
+ * second attempt overwrites whatever the first left there, and the segments
+ * already completed are kept as they are.
+ *
+ * Attempts are bounded by {@link #MAX_ATTEMPTS}. Cancellations, timeouts and
+ * {@link IllegalArgumentException}s, which the kernels throw for positions
+ * they cannot compute, are not retried: another attempt would end the same way.
+ */
+final class SegmentRetry {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentRetry.class);
+
+    /** Attempts a segment gets, the first one included. */
+    static final int MAX_ATTEMPTS = 3;
+
+    private SegmentRetry() {
+    }
+
+    /**
+     * Runs a segment until it completes, fails for good or runs out of attempts.
+     *
+     * @param token cancellation shared by the segments of the request
+     * @param segment computes the segment
+     * @throws RuntimeException the failure of the last attempt
+     */
+    static void run(CancellationToken token, Runnable segment) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                segment.run();
+                return;
+            } catch (CalculationCancelledException | PiCalculationTimeoutException | IllegalArgumentException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_ATTEMPTS || token.isCancelled()) {
+                    throw e;
+                }
+                logger.warn("Segment attempt {} of {} failed: {}. Retrying.", attempt, MAX_ATTEMPTS, e.getMessage());
+            }
+        }
+    }
+}
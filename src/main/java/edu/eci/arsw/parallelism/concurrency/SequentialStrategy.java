@@ -1,6 +1,8 @@
 package edu.eci.arsw.parallelism.concurrency;
 
+import edu.eci.arsw.parallelism.core.CancellationToken;
 import edu.eci.arsw.parallelism.core.PiDigits;
+import edu.eci.arsw.parallelism.core.PiKernel;
 import org.springframework.stereotype.Component;
 
 /**
@@ -18,12 +20,14 @@ public class SequentialStrategy implements ParallelStrategy {
      * @param start starting position (0-indexed)
      * @param count number of digits to calculate
      * @param threads this parameter is ignored (sequential = 1 thread)
+     * @param kernel digit-extraction kernel to use
+     * @param token cancellation of the request, checked between chunks
      * @return hexadecimal string of Pi digits
      */
     @Override
-    public String calculate(int start, int count, int threads) {
+    public String calculate(int start, int count, int threads, PiKernel kernel, CancellationToken token) {
         
-        String result = PiDigits.getDigitsHex(start, count);
+        String result = PiDigits.getDigitsHex(kernel, start, count, token);
         
         return result;
     }
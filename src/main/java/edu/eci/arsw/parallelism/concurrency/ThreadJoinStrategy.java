@@ -1,8 +1,29 @@
 package edu.eci.arsw.parallelism.concurrency;
+import edu.eci.arsw.parallelism.core.CancellationToken;
+import edu.eci.arsw.parallelism.core.PiDigits;
+import edu.eci.arsw.parallelism.core.PiKernel;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  * A strategy for calculating hexadecimal digits of Pi using multiple threads.
+ *
+ * The range is split by {@link CostPartitioner} into segments of about equal
+ * cost on chunk boundaries, so deeper segments get fewer digits; threads that
+ * would get no whole chunk are not started.
+ *
+ * All threads write into one shared buffer, each at the offset of its own
+ * segment: the kernel fills in the digit values and the thread turns them
+ * into hex characters in place, so the response string is built from the
+ * buffer with a single copy and no per-segment strings.
+ *
+ * A segment that fails is retried on its own thread (see {@link SegmentRetry})
+ * while the others carry on. Segments share a child of the request's
+ * cancellation token: the first segment to run out of attempts cancels it,
+ * so the others stop at their next check instead of finishing work whose
+ * result is thrown away. A request that times out reports the digits of the
+ * segments completed from its start.
  */
 @Component
 public class ThreadJoinStrategy implements ParallelStrategy {
@@ -11,32 +32,42 @@ public class ThreadJoinStrategy implements ParallelStrategy {
      * Calculates hexadecimal digits of Pi using multiple threads.
      * @param start the starting position (0-indexed) from which to begin calculating Pi digits
      * @param count the total number of hexadecimal digits to compute across all threads
-     * @param threads the number of threads to use for dividing the work
+     * @param threads the maximum number of threads to use for dividing the work
+     * @param kernel the digit-extraction kernel each thread runs
+     * @param token cancellation of the request
      * @return a string containing the concatenated hexadecimal digits of Pi in order
+     * @throws IllegalStateException if a thread fails to compute its segment in every attempt
      */
     @Override
-    public String calculate(int start, int count, int threads) {
+    public String calculate(int start, int count, int threads, PiKernel kernel, CancellationToken token) {
 
-        int segmentSize = count / threads;
-        int remainder = count % threads;
+        int[] bounds = CostPartitioner.partition(start, count, threads);
+        int segments = bounds.length - 1;
 
-        Thread[] workers = new Thread[threads];
+        Thread[] workers = new Thread[segments];
 
-        String[] results = new String[threads];
+        byte[] digits = new byte[count];
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        CancellationToken siblings = token.child();
+        SegmentProgress progress = new SegmentProgress();
 
-        int currentStart = start;
-        for (int i = 0; i < threads; i++) {
-            int segmentCount = segmentSize + (i < remainder ? 1 : 0);
-            final int segmentStart = currentStart;
-            final int finalSegmentCount = segmentCount;
-            final int index = i;
+        for (int i = 0; i < segments; i++) {
+            final int segmentOffset = bounds[i];
+            final int segmentCount = bounds[i + 1] - bounds[i];
 
             workers[i] = new Thread(() -> {
-                results[index] = calculateSegment(segmentStart, finalSegmentCount);
+                try {
+                    SegmentRetry.run(siblings,
+                            () -> calculateSegment(kernel, start, segmentOffset, segmentCount, digits, siblings));
+                    progress.done(segmentOffset, segmentCount);
+                } catch (RuntimeException e) {
+                    if (failure.compareAndSet(null, e)) {
+                        siblings.cancel("Sibling segment failed");
+                    }
+                }
             });
 
             workers[i].start();
-            currentStart += segmentCount;
         }
 
         for (Thread worker : workers) {
@@ -48,12 +79,13 @@ public class ThreadJoinStrategy implements ParallelStrategy {
             }
         }
 
-        StringBuilder result = new StringBuilder();
-        for (String segment : results) {
-            result.append(segment);
+        if (failure.get() != null) {
+            // A cancelled request reports why, rather than the segments it stopped
+            progress.throwIfCancelled(token, digits);
+            throw new IllegalStateException("Segment calculation failed", failure.get());
         }
 
-        return result.toString();
+        return PiDigits.toHexString(digits);
     }
 
     /**
@@ -66,13 +98,19 @@ public class ThreadJoinStrategy implements ParallelStrategy {
     }
 
     /**
-     * Calculates a segment of hexadecimal Pi digits using the BBP algorithm.
+     * Calculates a segment of hexadecimal Pi digits with the given kernel,
+     * writing its hex characters into the shared buffer.
      *
-     * @param start the starting position (0-indexed) for Pi digit calculation
+     * @param kernel the digit-extraction kernel
+     * @param start the starting position (0-indexed) of the whole request
+     * @param offset the offset of this segment within the request
      * @param count the number of digits to calculate in this segment
-     * @return hexadecimal string representation of the calculated Pi digits
+     * @param digits the shared buffer holding the whole request
+     * @param token cancellation shared by the segments of the request
      */
-    private String calculateSegment(int start, int count) {
-        return edu.eci.arsw.parallelism.core.PiDigits.getDigitsHex(start, count);
+    private void calculateSegment(PiKernel kernel, int start, int offset, int count, byte[] digits,
+                                  CancellationToken token) {
+        kernel.getDigits(start + offset, count, digits, offset, token);
+        PiDigits.toHexChars(digits, offset, count);
     }
 }
@@ -0,0 +1,54 @@
+package edu.eci.arsw.parallelism.concurrency;
+
+import edu.eci.arsw.parallelism.core.CancellationToken;
+import edu.eci.arsw.parallelism.core.PiKernel;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A strategy that calculates each segment of a request on its own virtual
+ * thread.
+ *
+ * Virtual threads are cheap to create and to block, so a request waiting on
+ * its segments does not hold an OS thread of its own. The kernels never block,
+ * so each segment keeps its carrier until it finishes: the digits are still
+ * computed by the virtual thread scheduler's carrier pool, which has one
+ * thread per core unless {@code jdk.virtualThreadScheduler.parallelism} says
+ * otherwise. Request handling itself moves to virtual threads with
+ * {@code spring.threads.virtual.enabled=true}.
+ */
+@Component
+public class VirtualThreadStrategy implements ParallelStrategy {
+
+    private static final ThreadFactory SEGMENT_THREADS = Thread.ofVirtual().name("pi-virtual-", 0).factory();
+
+    /**
+     * Calculates hexadecimal digits of Pi on one virtual thread per segment.
+     *
+     * @param start the starting position (0-indexed)
+     * @param count the total number of hexadecimal digits to compute
+     * @param threads the number of segments, each on its own virtual thread
+     * @param kernel the digit-extraction kernel each segment runs
+     * @param token cancellation of the request
+     * @return a string containing the hexadecimal digits of Pi in order
+     * @throws IllegalStateException if a segment fails
+     */
+    @Override
+    public String calculate(int start, int count, int threads, PiKernel kernel, CancellationToken token) {
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(SEGMENT_THREADS)) {
+            return ExecutorSegments.calculate(executor, start, count, threads, kernel, token);
+        }
+    }
+
+    /**
+     * Returns the name of the strategy.
+     * @return the name of the strategy
+     */
+    @Override
+    public String name() {
+        return "virtual";
+    }
+}
@@ -0,0 +1,122 @@
+package edu.eci.arsw.parallelism.core;
+
+/**
+ * Bailey–Borwein–Plouffe (BBP) kernel:
+ *
+ * <pre>
+ *   Pi = sum over k of 16^-k * (4/(8k+1) - 2/(8k+4) - 1/(8k+5) - 1/(8k+6))
+ * </pre>
+ *
+ * so the fractional part of 16^n * Pi is 4*S(1) - 2*S(4) - S(5) - S(6) where
+ * S(m) is the sum of 16^(n-k)/(8k+m).
+ */
+final class BbpKernel extends BinarySeriesKernel {
+
+    /**
+     * The four series as {a, b, e, sign} rows (see {@link BinarySeriesKernel}),
+     * shared with {@link SimdBbpKernel}, which sums the same series.
+     */
+    static final int[][] SERIES = {
+            {8, 1, 2, +1},
+            {8, 4, 1, -1},
+            {8, 5, 0, -1},
+            {8, 6, 0, -1}
+    };
+
+    BbpKernel() {
+        super("bbp", 4, 0, false, SERIES);
+    }
+
+    /**
+     * The four series are evaluated in a single pass over k: the four modular
+     * chains share the exponent window scan and the loop overhead, and since
+     * they are independent the CPU can overlap their multiplies.
+     *
+     * Consecutive chunks are swept incrementally: 16^(n+16) mod d is
+     * (16^n mod d) * (16^16 mod d), so each residue is computed once with a full
+     * modpow and then carried across the remaining chunks of the segment with
+     * one modular multiply per chunk.
+     */
+    @Override
+    void sweep(int n0, int chunks, long[] acc, CancellationToken token) {
+        long kEnd = firstTailTerm(chunkPosition(n0, chunks - 1));
+
+        for (long k = 1; k < kEnd; k++) {
+            if (k % CANCEL_CHECK_TERMS == 0) {
+                token.throwIfCancelled();
+            }
+            sweepTerm(k, n0, chunks, acc);
+        }
+    }
+
+    /**
+     * Adds term k of the four series to every chunk from {@link #firstChunk(long, int)} on.
+     */
+    void sweepTerm(long k, int n0, int chunks, long[] acc) {
+        int j = firstChunk(k, n0);
+        long e = exponent(chunkPosition(n0, j), k);
+
+        long d1 = 8 * k + 1;
+        long d4 = d1 + 3;
+        long d5 = d1 + 4;
+        long d6 = d1 + 5;
+        long mu1 = Long.divideUnsigned(-1L, d1);
+        long mu4 = Long.divideUnsigned(-1L, d4);
+        long mu5 = Long.divideUnsigned(-1L, d5);
+        long mu6 = Long.divideUnsigned(-1L, d6);
+
+        int shift = windowShift(e);
+        long w = 1L << (e >>> shift);
+        long r1 = ModPow.reduce(w, d1, mu1);
+        long r4 = ModPow.reduce(w, d4, mu4);
+        long r5 = ModPow.reduce(w, d5, mu5);
+        long r6 = ModPow.reduce(w, d6, mu6);
+
+        while (shift > 0) {
+            shift -= 4;
+            for (int i = 0; i < 4; i++) {
+                r1 = ModPow.reduce(r1 * r1, d1, mu1);
+                r4 = ModPow.reduce(r4 * r4, d4, mu4);
+                r5 = ModPow.reduce(r5 * r5, d5, mu5);
+                r6 = ModPow.reduce(r6 * r6, d6, mu6);
+            }
+            int bits = (int) (e >>> shift) & 15;
+            r1 = ModPow.reduce(r1 << bits, d1, mu1);
+            r4 = ModPow.reduce(r4 << bits, d4, mu4);
+            r5 = ModPow.reduce(r5 << bits, d5, mu5);
+            r6 = ModPow.reduce(r6 << bits, d6, mu6);
+        }
+
+        // Fold coefficients and signs into the residues so every term is an addition
+        r1 = ModPow.reduce(r1 << 2, d1, mu1);
+        r4 = negate(ModPow.reduce(r4 << 1, d4, mu4), d4);
+        r5 = negate(r5, d5);
+        r6 = negate(r6, d6);
+
+        long c1 = 0;
+        long c4 = 0;
+        long c5 = 0;
+        long c6 = 0;
+        if (j + 1 < chunks) {
+            c1 = ModPow.pow2(CHUNK_BITS, d1, mu1);
+            c4 = ModPow.pow2(CHUNK_BITS, d4, mu4);
+            c5 = ModPow.pow2(CHUNK_BITS, d5, mu5);
+            c6 = ModPow.pow2(CHUNK_BITS, d6, mu6);
+        }
+
+        while (true) {
+            add(acc, j, r1, d1, mu1);
+            add(acc, j, r4, d4, mu4);
+            add(acc, j, r5, d5, mu5);
+            add(acc, j, r6, d6, mu6);
+
+            if (++j == chunks) {
+                break;
+            }
+            r1 = ModPow.mulMod(r1, c1, d1, mu1);
+            r4 = ModPow.mulMod(r4, c4, d4, mu4);
+            r5 = ModPow.mulMod(r5, c5, d5, mu5);
+            r6 = ModPow.mulMod(r6, c6, d6, mu6);
+        }
+    }
+}
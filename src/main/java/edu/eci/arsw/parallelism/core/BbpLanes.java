@@ -0,0 +1,215 @@
+package edu.eci.arsw.parallelism.core;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector form of {@link BbpKernel#sweep(int, int, long[], CancellationToken)}: lane i holds term
+ * k + i, and each of the four series runs as its own vector chain, so one
+ * pass evaluates a whole group of terms (8 on AVX-512, 4 on AVX2) with four
+ * independent chains to hide the multiply latency.
+ *
+ * The exponents of a group differ by 4 per lane, so windows are read per lane
+ * and applied with a variable shift; the leading window shift is taken from
+ * the largest exponent, which only makes the other leading windows smaller.
+ * Groups whose terms would start in different chunks go through the scalar
+ * {@link BbpKernel#sweepTerm(long, int, int, long[])}.
+ *
+ * There is no high multiply on long lanes, so products are reduced with a
+ * quotient estimated in double lanes: while a * b / d stays below 2^32 the
+ * rounded value of a * b * (1.0 / d) is within one of floor(a * b / d), and
+ * the exact 64-bit a * b - q * d is brought back into [0, d) with two masked
+ * corrections. Lanes move between long and double through the 2^52 bias
+ * trick (exact below 2^52) rather than lane conversions, which not every JIT
+ * compiles to vector instructions.
+ *
+ * Only compiled with the Maven profile {@code simd}, and only loaded by
+ * {@link SimdBbpKernel} once the vector module is known to be present.
+ */
+final class BbpLanes implements SimdBbpKernel.Lanes {
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLES = VectorSpecies.of(double.class, LONGS.vectorShape());
+    private static final int LANES = LONGS.length();
+
+    private static final LongVector ONE = LongVector.broadcast(LONGS, 1);
+    private static final LongVector INDEX = LongVector.zero(LONGS).addIndex(1);
+
+    /** 2^52, whose unit in the last place is 1. */
+    private static final double BIAS = 0x1p52;
+    private static final long BIAS_BITS = Double.doubleToRawLongBits(BIAS);
+    private static final long MANTISSA = (1L << 52) - 1;
+
+    /** Created by name in {@link SimdBbpKernel}. */
+    BbpLanes() {
+    }
+
+    @Override
+    public void sweep(BbpKernel scalar, int n0, int chunks, long[] acc, CancellationToken token) {
+        long kEnd = scalar.firstTailTerm(BinarySeriesKernel.chunkPosition(n0, chunks - 1));
+        long[][] d = new long[4][LANES];
+        long[][] mu = new long[4][LANES];
+        long[] r = new long[LANES];
+
+        long k = 1;
+        long nextCheck = BinarySeriesKernel.CANCEL_CHECK_TERMS;
+        while (k < kEnd) {
+            if (k >= nextCheck) {
+                token.throwIfCancelled();
+                nextCheck = k + BinarySeriesKernel.CANCEL_CHECK_TERMS;
+            }
+            int j = scalar.firstChunk(k, n0);
+            if (k + LANES > kEnd || scalar.firstChunk(k + LANES - 1, n0) != j) {
+                scalar.sweepTerm(k, n0, chunks, acc);
+                k++;
+                continue;
+            }
+
+            long e = scalar.exponent(BinarySeriesKernel.chunkPosition(n0, j), k);
+            sweepGroup(k, e, j, chunks, acc, d, mu, r);
+            k += LANES;
+        }
+    }
+
+    /**
+     * Adds terms k .. k + LANES - 1, all starting at chunk j with exponents
+     * e, e - 4, ..., to every chunk from j on. Kept out of the group loop so
+     * the JIT compiles it as a whole method, where vectors stay in registers.
+     *
+     * @param d scratch for the denominators of each series
+     * @param mu scratch for their Barrett factors
+     * @param r scratch for the residues of one series
+     */
+    private static void sweepGroup(long k, long e, int j, int chunks, long[] acc,
+                                   long[][] d, long[][] mu, long[] r) {
+        LongVector ev = LongVector.broadcast(LONGS, e).sub(INDEX.lanewise(VectorOperators.LSHL, 2));
+
+        LongVector d1 = INDEX.add(k).lanewise(VectorOperators.LSHL, 3).add(1);
+        LongVector d4 = d1.add(3);
+        LongVector d5 = d1.add(4);
+        LongVector d6 = d1.add(5);
+        DoubleVector i1 = reciprocal(d1);
+        DoubleVector i4 = reciprocal(d4);
+        DoubleVector i5 = reciprocal(d5);
+        DoubleVector i6 = reciprocal(d6);
+        barrettFactors(d1, d[0], mu[0]);
+        barrettFactors(d4, d[1], mu[1]);
+        barrettFactors(d5, d[2], mu[2]);
+        barrettFactors(d6, d[3], mu[3]);
+
+        int shift = BinarySeriesKernel.windowShift(e);
+        LongVector w = ONE.lanewise(VectorOperators.LSHL, ev.lanewise(VectorOperators.LSHR, shift));
+        LongVector r1 = mulMod(w, ONE, d1, i1);
+        LongVector r4 = mulMod(w, ONE, d4, i4);
+        LongVector r5 = mulMod(w, ONE, d5, i5);
+        LongVector r6 = mulMod(w, ONE, d6, i6);
+
+        while (shift > 0) {
+            shift -= 4;
+            for (int i = 0; i < 4; i++) {
+                r1 = mulMod(r1, r1, d1, i1);
+                r4 = mulMod(r4, r4, d4, i4);
+                r5 = mulMod(r5, r5, d5, i5);
+                r6 = mulMod(r6, r6, d6, i6);
+            }
+            w = ONE.lanewise(VectorOperators.LSHL,
+                    ev.lanewise(VectorOperators.LSHR, shift).lanewise(VectorOperators.AND, 15));
+            r1 = mulMod(r1, w, d1, i1);
+            r4 = mulMod(r4, w, d4, i4);
+            r5 = mulMod(r5, w, d5, i5);
+            r6 = mulMod(r6, w, d6, i6);
+        }
+
+        // Fold coefficients and signs into the residues so every term is an addition
+        r1 = mulMod(r1, LongVector.broadcast(LONGS, 4), d1, i1);
+        r4 = negate(mulMod(r4, LongVector.broadcast(LONGS, 2), d4, i4), d4);
+        r5 = negate(r5, d5);
+        r6 = negate(r6, d6);
+
+        LongVector c1 = ONE;
+        LongVector c4 = ONE;
+        LongVector c5 = ONE;
+        LongVector c6 = ONE;
+        if (j + 1 < chunks) {
+            LongVector half = LongVector.broadcast(LONGS, 1L << (BinarySeriesKernel.CHUNK_BITS / 2));
+            c1 = square(mulMod(half, ONE, d1, i1), d1, i1);
+            c4 = square(mulMod(half, ONE, d4, i4), d4, i4);
+            c5 = square(mulMod(half, ONE, d5, i5), d5, i5);
+            c6 = square(mulMod(half, ONE, d6, i6), d6, i6);
+        }
+
+        while (true) {
+            addLanes(acc, j, r1, d[0], mu[0], r);
+            addLanes(acc, j, r4, d[1], mu[1], r);
+            addLanes(acc, j, r5, d[2], mu[2], r);
+            addLanes(acc, j, r6, d[3], mu[3], r);
+
+            if (++j == chunks) {
+                break;
+            }
+            r1 = mulMod(r1, c1, d1, i1);
+            r4 = mulMod(r4, c4, d4, i4);
+            r5 = mulMod(r5, c5, d5, i5);
+            r6 = mulMod(r6, c6, d6, i6);
+        }
+    }
+
+    private static void barrettFactors(LongVector dv, long[] d, long[] mu) {
+        dv.intoArray(d, 0);
+        for (int i = 0; i < LANES; i++) {
+            mu[i] = Long.divideUnsigned(-1L, d[i]);
+        }
+    }
+
+    /**
+     * Adds every lane's r/d to the 128-bit fraction of chunk j.
+     */
+    private static void addLanes(long[] acc, int j, LongVector rv, long[] d, long[] mu, long[] r) {
+        rv.intoArray(r, 0);
+        for (int i = 0; i < LANES; i++) {
+            BinarySeriesKernel.add(acc, j, r[i], d[i], mu[i]);
+        }
+    }
+
+    /**
+     * Returns a * b mod d lane-wise for 0 <= a, b < 2^32, 1 < d < 2^31 and
+     * a * b < 2^32 * d, given inv = 1.0 / d.
+     */
+    static LongVector mulMod(LongVector a, LongVector b, LongVector d, DoubleVector inv) {
+        LongVector q = toLongs(toDoubles(a).mul(toDoubles(b)).mul(inv));
+        LongVector r = a.mul(b).sub(q.mul(d));
+        r = r.add(d, r.compare(VectorOperators.LT, 0));
+        return r.sub(d, r.compare(VectorOperators.GE, d));
+    }
+
+    private static LongVector square(LongVector a, LongVector d, DoubleVector inv) {
+        return mulMod(a, a, d, inv);
+    }
+
+    /**
+     * Returns -r mod d lane-wise, like {@link BinarySeriesKernel#negate(long, long)}.
+     */
+    private static LongVector negate(LongVector r, LongVector d) {
+        return d.sub(r).blend(0, r.compare(VectorOperators.EQ, 0));
+    }
+
+    static DoubleVector reciprocal(LongVector d) {
+        return DoubleVector.broadcast(DOUBLES, 1.0).div(toDoubles(d));
+    }
+
+    /**
+     * Exact for lanes in [0, 2^52): the lane becomes the mantissa of 2^52 + v.
+     */
+    private static DoubleVector toDoubles(LongVector v) {
+        return v.or(BIAS_BITS).viewAsFloatingLanes().sub(BIAS);
+    }
+
+    /**
+     * Rounds lanes in [0, 2^52) to the nearest integer.
+     */
+    private static LongVector toLongs(DoubleVector v) {
+        return v.add(BIAS).viewAsIntegralLanes().and(MANTISSA);
+    }
+}
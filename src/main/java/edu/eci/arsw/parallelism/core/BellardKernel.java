@@ -0,0 +1,146 @@
+package edu.eci.arsw.parallelism.core;
+
+/**
+ * Bellard's formula kernel:
+ *
+ * <pre>
+ *   Pi = 2^-6 * sum over k of (-1)^k / 2^(10k) * (-2^5/(4k+1) - 1/(4k+3) + 2^8/(10k+1)
+ *        - 2^6/(10k+3) - 2^2/(10k+5) - 2^2/(10k+7) + 1/(10k+9))
+ * </pre>
+ *
+ * Each term gains 10 bits instead of BBP's 4, so digit n needs about 0.4n
+ * terms of seven series instead of n terms of four: roughly 30% fewer modular
+ * exponentiations at deep positions.
+ */
+final class BellardKernel extends BinarySeriesKernel {
+
+    BellardKernel() {
+        super("bellard", 10, -6, true, new int[][]{
+                {4, 1, 5, -1},
+                {4, 3, 0, -1},
+                {10, 1, 8, +1},
+                {10, 3, 6, -1},
+                {10, 5, 2, -1},
+                {10, 7, 2, -1},
+                {10, 9, 0, +1}
+        });
+    }
+
+    /**
+     * The seven series share one exponent window scan per term and are swept
+     * across chunks exactly like {@link BbpKernel#sweep(int, int, long[], CancellationToken)}.
+     */
+    @Override
+    void sweep(int n0, int chunks, long[] acc, CancellationToken token) {
+        long kEnd = firstTailTerm(chunkPosition(n0, chunks - 1));
+
+        for (long k = 1; k < kEnd; k++) {
+            if (k % CANCEL_CHECK_TERMS == 0) {
+                token.throwIfCancelled();
+            }
+            int j = firstChunk(k, n0);
+            long e = exponent(chunkPosition(n0, j), k);
+
+            long p1 = 4 * k + 1;
+            long p3 = p1 + 2;
+            long q1 = 10 * k + 1;
+            long q3 = q1 + 2;
+            long q5 = q1 + 4;
+            long q7 = q1 + 6;
+            long q9 = q1 + 8;
+            long mp1 = Long.divideUnsigned(-1L, p1);
+            long mp3 = Long.divideUnsigned(-1L, p3);
+            long mq1 = Long.divideUnsigned(-1L, q1);
+            long mq3 = Long.divideUnsigned(-1L, q3);
+            long mq5 = Long.divideUnsigned(-1L, q5);
+            long mq7 = Long.divideUnsigned(-1L, q7);
+            long mq9 = Long.divideUnsigned(-1L, q9);
+
+            int shift = windowShift(e);
+            long w = 1L << (e >>> shift);
+            long rp1 = ModPow.reduce(w, p1, mp1);
+            long rp3 = ModPow.reduce(w, p3, mp3);
+            long rq1 = ModPow.reduce(w, q1, mq1);
+            long rq3 = ModPow.reduce(w, q3, mq3);
+            long rq5 = ModPow.reduce(w, q5, mq5);
+            long rq7 = ModPow.reduce(w, q7, mq7);
+            long rq9 = ModPow.reduce(w, q9, mq9);
+
+            while (shift > 0) {
+                shift -= 4;
+                for (int i = 0; i < 4; i++) {
+                    rp1 = ModPow.reduce(rp1 * rp1, p1, mp1);
+                    rp3 = ModPow.reduce(rp3 * rp3, p3, mp3);
+                    rq1 = ModPow.reduce(rq1 * rq1, q1, mq1);
+                    rq3 = ModPow.reduce(rq3 * rq3, q3, mq3);
+                    rq5 = ModPow.reduce(rq5 * rq5, q5, mq5);
+                    rq7 = ModPow.reduce(rq7 * rq7, q7, mq7);
+                    rq9 = ModPow.reduce(rq9 * rq9, q9, mq9);
+                }
+                int bits = (int) (e >>> shift) & 15;
+                rp1 = ModPow.reduce(rp1 << bits, p1, mp1);
+                rp3 = ModPow.reduce(rp3 << bits, p3, mp3);
+                rq1 = ModPow.reduce(rq1 << bits, q1, mq1);
+                rq3 = ModPow.reduce(rq3 << bits, q3, mq3);
+                rq5 = ModPow.reduce(rq5 << bits, q5, mq5);
+                rq7 = ModPow.reduce(rq7 << bits, q7, mq7);
+                rq9 = ModPow.reduce(rq9 << bits, q9, mq9);
+            }
+
+            // Fold coefficients and signs into the residues so every term is an addition
+            rp1 = ModPow.reduce(rp1 << 5, p1, mp1);
+            rq1 = ModPow.reduce(rq1 << 8, q1, mq1);
+            rq3 = ModPow.reduce(rq3 << 6, q3, mq3);
+            rq5 = ModPow.reduce(rq5 << 2, q5, mq5);
+            rq7 = ModPow.reduce(rq7 << 2, q7, mq7);
+            if ((k & 1) == 0) {
+                rp1 = negate(rp1, p1);
+                rp3 = negate(rp3, p3);
+                rq3 = negate(rq3, q3);
+                rq5 = negate(rq5, q5);
+                rq7 = negate(rq7, q7);
+            } else {
+                rq1 = negate(rq1, q1);
+                rq9 = negate(rq9, q9);
+            }
+
+            long cp1 = 0;
+            long cp3 = 0;
+            long cq1 = 0;
+            long cq3 = 0;
+            long cq5 = 0;
+            long cq7 = 0;
+            long cq9 = 0;
+            if (j + 1 < chunks) {
+                cp1 = ModPow.pow2(CHUNK_BITS, p1, mp1);
+                cp3 = ModPow.pow2(CHUNK_BITS, p3, mp3);
+                cq1 = ModPow.pow2(CHUNK_BITS, q1, mq1);
+                cq3 = ModPow.pow2(CHUNK_BITS, q3, mq3);
+                cq5 = ModPow.pow2(CHUNK_BITS, q5, mq5);
+                cq7 = ModPow.pow2(CHUNK_BITS, q7, mq7);
+                cq9 = ModPow.pow2(CHUNK_BITS, q9, mq9);
+            }
+
+            while (true) {
+                add(acc, j, rp1, p1, mp1);
+                add(acc, j, rp3, p3, mp3);
+                add(acc, j, rq1, q1, mq1);
+                add(acc, j, rq3, q3, mq3);
+                add(acc, j, rq5, q5, mq5);
+                add(acc, j, rq7, q7, mq7);
+                add(acc, j, rq9, q9, mq9);
+
+                if (++j == chunks) {
+                    break;
+                }
+                rp1 = ModPow.mulMod(rp1, cp1, p1, mp1);
+                rp3 = ModPow.mulMod(rp3, cp3, p3, mp3);
+                rq1 = ModPow.mulMod(rq1, cq1, q1, mq1);
+                rq3 = ModPow.mulMod(rq3, cq3, q3, mq3);
+                rq5 = ModPow.mulMod(rq5, cq5, q5, mq5);
+                rq7 = ModPow.mulMod(rq7, cq7, q7, mq7);
+                rq9 = ModPow.mulMod(rq9, cq9, q9, mq9);
+            }
+        }
+    }
+}
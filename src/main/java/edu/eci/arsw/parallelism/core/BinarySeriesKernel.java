@@ -0,0 +1,392 @@
+package edu.eci.arsw.parallelism.core;
+
+import java.math.BigInteger;
+import java.util.Objects;
+
+/**
+ * Common machinery for BBP-type digit-extraction formulas, i.e. formulas where
+ * the fractional part of 16^n * Pi is
+ *
+ * <pre>
+ *   sum over k >= 0, over series i of  sign_i(k) * 2^(4n + offset - shift*k + e_i) / (a_i*k + b_i)
+ * </pre>
+ *
+ * Subclasses supply the hand-fused hot loop ({@link #sweep(int, int, long[], CancellationToken)})
+ * over the terms with a positive power of two; this class handles the k = 0
+ * term, the vanishing tail, the 128-bit fixed-point accumulation, the
+ * precision guard and the high-precision fallback.
+ *
+ * Digits are produced in chunks of {@link #DIGITS_PER_CHUNK}. Each chunk is
+ * accumulated as a 128-bit fraction in two longs, which wraps modulo 1 for
+ * free. Every term is truncated by a few units of 2^-128 in a known direction,
+ * so the low word tells whether the emitted digits could be off; those chunks
+ * alone are recomputed with {@link BigInteger} fixed point.
+ *
+ * A {@link CancellationToken} is checked every {@link #CANCEL_CHECK_TERMS}
+ * terms of the sweep and before each chunk is finished, so a cancelled
+ * calculation stops within a fraction of a millisecond even deep in the
+ * expansion, where a single chunk sums millions of terms.
+ */
+abstract class BinarySeriesKernel implements PiKernel {
+
+    static final int DIGITS_PER_CHUNK = 16;
+    static final int CHUNK_BITS = 4 * DIGITS_PER_CHUNK;
+
+    /** Terms the sweep adds between two checks of the cancellation token. */
+    static final int CANCEL_CHECK_TERMS = 256;
+
+    /**
+     * Precision, in bits, of the first fallback evaluation for chunks whose
+     * 128-bit fraction lands too close to a digit boundary.
+     */
+    private static final int FALLBACK_BITS = 192;
+
+    /** Bound, in units of 2^-128, on the tail terms that are never added. */
+    private static final long OMITTED_TAIL_UNITS = 16;
+
+    private final String name;
+    private final int termShift;
+    private final int exponentOffset;
+    private final boolean alternating;
+    private final long[] a;
+    private final long[] b;
+    private final int[] e;
+    private final boolean[] negative;
+    private final int maxCoefficientExponent;
+    private final int maxPosition;
+
+    /**
+     * @param name kernel name
+     * @param termShift bits of convergence per term (4 for base 16)
+     * @param exponentOffset constant added to 4n in every exponent
+     * @param alternating whether odd terms change sign
+     * @param series one row {a, b, e, sign} per series, sign being +1 or -1
+     */
+    BinarySeriesKernel(String name, int termShift, int exponentOffset, boolean alternating, int[][] series) {
+        this.name = name;
+        this.termShift = termShift;
+        this.exponentOffset = exponentOffset;
+        this.alternating = alternating;
+        this.a = new long[series.length];
+        this.b = new long[series.length];
+        this.e = new int[series.length];
+        this.negative = new boolean[series.length];
+
+        long maxA = 0;
+        long maxB = 0;
+        int maxE = 0;
+        for (int i = 0; i < series.length; i++) {
+            a[i] = series[i][0];
+            b[i] = series[i][1];
+            e[i] = series[i][2];
+            negative[i] = series[i][3] < 0;
+            maxA = Math.max(maxA, a[i]);
+            maxB = Math.max(maxB, b[i]);
+            maxE = Math.max(maxE, e[i]);
+        }
+        this.maxCoefficientExponent = maxE;
+
+        // Every denominator, tail included, must stay below ModPow.MAX_MODULUS
+        long maxK = (ModPow.MAX_MODULUS - 1 - maxB) / maxA - 1;
+        long limit = (maxK * termShift - exponentOffset - maxE - 128) / 4 - DIGITS_PER_CHUNK;
+        this.maxPosition = (int) Math.min(Integer.MAX_VALUE, limit);
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public int maxPosition() {
+        return maxPosition;
+    }
+
+    @Override
+    public byte[] getDigits(int start, int count) {
+        byte[] digits = new byte[Math.max(count, 0)];
+        getDigits(start, count, digits, 0);
+        return digits;
+    }
+
+    @Override
+    public void getDigits(int start, int count, byte[] out, int offset) {
+        getDigits(start, count, out, offset, CancellationToken.NONE);
+    }
+
+    @Override
+    public void getDigits(int start, int count, byte[] out, int offset, CancellationToken token) {
+        if (start < 0 || count < 0) {
+            throw new IllegalArgumentException("Invalid interval: start and count must be non-negative");
+        }
+        if ((long) start + count > maxPosition) {
+            throw new IllegalArgumentException("Invalid interval: start + count must not exceed " + maxPosition);
+        }
+        Objects.checkFromIndexSize(offset, count, out.length);
+        token.throwIfCancelled();
+        if (count == 0) {
+            return;
+        }
+
+        int chunks = (count + DIGITS_PER_CHUNK - 1) / DIGITS_PER_CHUNK;
+        long[] fractions = evaluate(start, chunks, token);
+
+        for (int i = 0; i < count; i++) {
+            long bits = fractions[i / DIGITS_PER_CHUNK];
+            out[offset + i] = (byte) ((bits >>> (60 - 4 * (i % DIGITS_PER_CHUNK))) & 15); // 0..15
+        }
+    }
+
+    /**
+     * Adds the terms k >= 1 whose power of two is positive for chunks
+     * n0, n0 + 16, ... into acc, starting each term at {@link #firstChunk(long, int)}.
+     *
+     * @param n0 position of the first chunk
+     * @param chunks number of chunks
+     * @param acc (high, low) fraction words per chunk
+     * @param token checked every {@link #CANCEL_CHECK_TERMS} terms
+     */
+    abstract void sweep(int n0, int chunks, long[] acc, CancellationToken token);
+
+    /**
+     * Returns the top 64 bits of the fractional part of 16^n * Pi for the chunk
+     * positions n = n0, n0 + 16, ...
+     */
+    long[] evaluate(int n0, int chunks) {
+        return evaluate(n0, chunks, CancellationToken.NONE);
+    }
+
+    /**
+     * Like {@link #evaluate(int, int)}, stopping with an exception once token is cancelled.
+     */
+    long[] evaluate(int n0, int chunks, CancellationToken token) {
+        long[] acc = new long[2 * chunks];
+
+        // k = 0: denominators are tiny (possibly 1), so take the generic path
+        for (int j = 0; j < chunks; j++) {
+            long exponent = exponent(chunkPosition(n0, j), 0);
+            if (exponent > 0) {
+                for (int i = 0; i < a.length; i++) {
+                    long d = b[i];
+                    if (d > 1) {
+                        long mu = ModPow.barrettFactor(d);
+                        long r = ModPow.pow2(exponent + e[i], d, mu);
+                        add(acc, j, negative[i] ? negate(r, d) : r, d, mu);
+                    }
+                }
+            }
+        }
+
+        sweep(n0, chunks, acc, token);
+
+        long[] fractions = new long[chunks];
+        for (int j = 0; j < chunks; j++) {
+            token.throwIfCancelled();
+            fractions[j] = finishChunk(acc, j, chunkPosition(n0, j));
+        }
+        return fractions;
+    }
+
+    /**
+     * Adds the tail terms of chunk j and returns its verified top 64 bits.
+     */
+    private long finishChunk(long[] acc, int j, long n) {
+        long first = firstTailTerm(n);
+
+        // Terms from the sweep are all added and each rounds down by < 4 units
+        long added = a.length * first;
+        long subtracted = 0;
+
+        for (long k = first; ; k++) {
+            long exponent = exponent(n, k);
+            if (exponent + maxCoefficientExponent < -128) {
+                break;
+            }
+            boolean flip = alternating && (k & 1) != 0;
+            for (int i = 0; i < a.length; i++) {
+                long t = exponent + e[i];
+                if (t < -127) {
+                    continue;
+                }
+                long d = a[i] * k + b[i];
+                boolean minus = negative[i] != flip;
+                if (t >= 0) {
+                    addShifted(acc, j, 1L << t, d, 0, minus);
+                } else {
+                    addShifted(acc, j, 1, d, (int) -t, minus);
+                }
+                if (minus) {
+                    subtracted++;
+                } else {
+                    added++;
+                }
+            }
+        }
+
+        long low = acc[2 * j + 1];
+        long below = 4 * subtracted + OMITTED_TAIL_UNITS;
+        long above = 4 * added + OMITTED_TAIL_UNITS;
+        if (Long.compareUnsigned(low, below) >= 0 && Long.compareUnsigned(low, -1L - above) <= 0) {
+            return acc[2 * j];
+        }
+        return recomputeChunk(n);
+    }
+
+    /**
+     * Returns the power of two of term k at position n, before the per-series
+     * coefficient exponent.
+     */
+    final long exponent(long n, long k) {
+        return 4 * n + exponentOffset - termShift * k;
+    }
+
+    /**
+     * Returns the first k whose power of two is no longer positive at position n.
+     */
+    final long firstTailTerm(long n) {
+        long top = 4 * n + exponentOffset;
+        return top <= 0 ? 0 : (top + termShift - 1) / termShift;
+    }
+
+    /**
+     * Returns the first chunk in which term k still has a positive power of two.
+     */
+    final int firstChunk(long k, int n0) {
+        long j = Math.floorDiv(termShift * k - exponentOffset - 4L * n0, CHUNK_BITS) + 1;
+        return (int) Math.max(0, j);
+    }
+
+    static long chunkPosition(int n0, int j) {
+        return n0 + (long) DIGITS_PER_CHUNK * j;
+    }
+
+    /**
+     * Returns the shift of the leading window of up to 5 bits, so that the rest
+     * of the exponent splits into 4-bit windows (see {@link ModPow#pow2(long, long, long)}).
+     */
+    static int windowShift(long exponent) {
+        return Math.max(0, (64 - Long.numberOfLeadingZeros(exponent) - 2) & ~3);
+    }
+
+    /**
+     * Returns -r mod d, so that subtracting r/d becomes adding a fraction.
+     */
+    static long negate(long r, long d) {
+        return r == 0 ? 0 : d - r;
+    }
+
+    /**
+     * Adds r/d (0 <= r < d) to the 128-bit fraction of chunk j.
+     *
+     * The quotient words come from multiplying by the Barrett factor, which
+     * undershoots floor(r * 2^64 / d) by less than d; one high multiply
+     * corrects the first word exactly and leaves the second at most three
+     * units (2^-128) low.
+     */
+    static void add(long[] acc, int j, long r, long d, long mu) {
+        long high = r * mu;
+        long rem = -(high * d);
+        long fix = Math.multiplyHigh(rem, mu);
+        high += fix;
+        rem -= fix * d;
+        while (rem >= d) {
+            rem -= d;
+            high++;
+        }
+        long low = rem * mu;
+        rem = -(low * d);
+        low += Math.multiplyHigh(rem, mu);
+
+        long sumLow = acc[2 * j + 1] + low;
+        acc[2 * j] += high + (Long.compareUnsigned(sumLow, low) < 0 ? 1 : 0);
+        acc[2 * j + 1] = sumLow;
+    }
+
+    /**
+     * Adds or subtracts (c/d) * 2^-drop for a term with a non-positive power
+     * of two. Any integer part is dropped since only the fraction matters.
+     */
+    private static void addShifted(long[] acc, int j, long c, long d, int drop, boolean negative) {
+        long high;
+        long low;
+        if (d == 1) {
+            if (drop == 0) {
+                return;
+            }
+            // c == 1 here, so the value is exactly 2^-drop
+            high = drop <= 64 ? 1L << (64 - drop) : 0;
+            low = drop <= 64 ? 0 : 1L << (128 - drop);
+        } else {
+            long mu = ModPow.barrettFactor(d);
+            long[] word = new long[2];
+            add(word, 0, ModPow.reduce(c, d, mu), d, mu);
+            high = word[0];
+            low = word[1];
+
+            if (drop >= 64) {
+                low = high >>> (drop - 64);
+                high = 0;
+            } else if (drop > 0) {
+                low = (low >>> drop) | (high << (64 - drop));
+                high >>>= drop;
+            }
+        }
+
+        long oldLow = acc[2 * j + 1];
+        if (negative) {
+            acc[2 * j] -= high + (Long.compareUnsigned(oldLow, low) < 0 ? 1 : 0);
+            acc[2 * j + 1] = oldLow - low;
+        } else {
+            long sumLow = oldLow + low;
+            acc[2 * j] += high + (Long.compareUnsigned(sumLow, low) < 0 ? 1 : 0);
+            acc[2 * j + 1] = sumLow;
+        }
+    }
+
+    /**
+     * Recomputes the top 64 bits of the fraction of 16^n * Pi with exact
+     * {@link BigInteger} fixed-point terms, doubling the precision until the
+     * error bound no longer straddles a digit boundary.
+     */
+    long recomputeChunk(long n) {
+        for (int precision = FALLBACK_BITS; ; precision *= 2) {
+            BigInteger one = BigInteger.ONE.shiftLeft(precision);
+            BigInteger sum = BigInteger.ZERO;
+            long terms = 0;
+
+            for (long k = 0; ; k++) {
+                long exponent = exponent(n, k);
+                if (exponent + maxCoefficientExponent + precision < 0) {
+                    break;
+                }
+                boolean flip = alternating && (k & 1) != 0;
+                for (int i = 0; i < a.length; i++) {
+                    long t = exponent + e[i];
+                    if (t + precision < 0) {
+                        continue;
+                    }
+                    long d = a[i] * k + b[i];
+                    BigInteger numerator;
+                    if (t >= 0) {
+                        numerator = BigInteger.valueOf(d == 1 ? 0 : ModPow.pow2(t, d)).shiftLeft(precision);
+                    } else {
+                        numerator = BigInteger.ONE.shiftLeft((int) (precision + t));
+                    }
+                    BigInteger term = numerator.divide(BigInteger.valueOf(d));
+                    sum = negative[i] != flip ? sum.subtract(term) : sum.add(term);
+                    terms++;
+                }
+            }
+
+            // Each term is off by less than one unit; the omitted tail is below two per series
+            BigInteger fraction = sum.mod(one);
+            BigInteger slack = BigInteger.valueOf(terms + 2L * a.length);
+            int dropped = precision - 64;
+            BigInteger lowest = fraction.subtract(slack).shiftRight(dropped);
+            BigInteger highest = fraction.add(slack).shiftRight(dropped);
+            if (lowest.signum() >= 0 && lowest.equals(highest) && highest.bitLength() <= 64) {
+                return highest.longValue();
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package edu.eci.arsw.parallelism.core;
+
+import edu.eci.arsw.parallelism.core.exceptions.CalculationCancelledException;
+import edu.eci.arsw.parallelism.core.exceptions.PiCalculationTimeoutException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cooperative cancellation of a calculation.
+ *
+ * A token is cancelled explicitly, with a reason, or implicitly when its
+ * deadline passes; it is also cancelled whenever its parent is, so a request
+ * token can fan out into one child per strategy call that the strategy
+ * cancels on its own when a sibling segment fails, without touching the
+ * request. Kernels poll {@link #throwIfCancelled()} between chunks and every
+ * few hundred terms, which costs a volatile read and a clock read.
+ */
+public final class CancellationToken {
+
+    /** A token that is never cancelled. */
+    public static final CancellationToken NONE = new CancellationToken(null, Long.MAX_VALUE);
+
+    private final CancellationToken parent;
+    private final long createdNanos;
+    private final long timeoutNanos;
+    private volatile String reason;
+
+    /**
+     * Creates a token without a deadline.
+     */
+    public CancellationToken() {
+        this(null, Long.MAX_VALUE);
+    }
+
+    private CancellationToken(CancellationToken parent, long timeoutNanos) {
+        this.parent = parent;
+        this.createdNanos = System.nanoTime();
+        this.timeoutNanos = timeoutNanos;
+    }
+
+    /**
+     * Creates a token whose deadline passes timeoutMillis from now.
+     *
+     * @param timeoutMillis time the calculation may take
+     * @return the token
+     * @throws IllegalArgumentException if timeoutMillis is not positive
+     */
+    public static CancellationToken withTimeout(long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        return new CancellationToken(null, TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+    }
+
+    /**
+     * Returns a token that is cancelled with this one, and can also be cancelled on its own.
+     */
+    public CancellationToken child() {
+        return new CancellationToken(this, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns a token that is cancelled with this one or when timeoutMillis pass, whichever is first.
+     *
+     * @throws IllegalArgumentException if timeoutMillis is not positive
+     */
+    public CancellationToken child(long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        return new CancellationToken(this, TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+    }
+
+    /**
+     * Cancels this token and its children. The first reason is kept; {@link #NONE} ignores the call.
+     *
+     * @param reason why the calculation is cancelled
+     */
+    public void cancel(String reason) {
+        if (this != NONE && this.reason == null) {
+            this.reason = reason;
+        }
+    }
+
+    /**
+     * Returns whether this token, or one of its parents, is cancelled or past its deadline.
+     */
+    public boolean isCancelled() {
+        for (CancellationToken token = this; token != null; token = token.parent) {
+            if (token.reason != null || token.expired()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Throws if the calculation should stop.
+     *
+     * @throws CalculationCancelledException if this token or a parent was cancelled
+     * @throws PiCalculationTimeoutException if the deadline of this token or a parent passed
+     */
+    public void throwIfCancelled() {
+        for (CancellationToken token = this; token != null; token = token.parent) {
+            if (token.reason != null) {
+                throw new CalculationCancelledException(token.reason);
+            }
+            if (token.expired()) {
+                throw new PiCalculationTimeoutException("Calculation exceeded maximum allowed time",
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - token.createdNanos));
+            }
+        }
+    }
+
+    private boolean expired() {
+        return timeoutNanos != Long.MAX_VALUE && System.nanoTime() - createdNanos > timeoutNanos;
+    }
+}
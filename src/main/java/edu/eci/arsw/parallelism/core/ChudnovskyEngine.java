@@ -0,0 +1,329 @@
+package edu.eci.arsw.parallelism.core;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Prefix engine: computes all hexadecimal digits 0..N-1 of Pi at once with the
+ * Chudnovsky series,
+ *
+ * <pre>
+ *   1/Pi = 12 * sum over k of (-1)^k (6k)! (13591409 + 545140134k) / ((3k)! (k!)^3 640320^(3k + 3/2))
+ * </pre>
+ *
+ * evaluated by binary splitting on {@link BigInteger}. Each term adds about
+ * 47 bits, so N digits take about N/12 terms and O(M(N) log N) time, where
+ * M(N) is the cost of one N-digit multiplication. Digit-extraction kernels
+ * pay roughly N chunk evaluations of N terms each for the same prefix, so this
+ * engine wins by orders of magnitude for long ranges that start near 0; for
+ * ranges far from 0 it is the wrong tool since it always computes the whole
+ * prefix.
+ *
+ * The splitting tree is evaluated with fork/join: independent halves above
+ * {@link #FORK_THRESHOLD} terms run in parallel on the given pool. Decimal
+ * digits come from the same binary prefix through a parallel radix
+ * conversion (see {@link #getDecimalDigits(int, int)}).
+ *
+ * A million digits take several seconds, so the calculation checks its
+ * {@link CancellationToken} at every level of the splitting tree and at
+ * every leaf, at every precision doubling of the square root, between the
+ * full-size products and divisions, and throughout the radix conversion.
+ */
+public final class ChudnovskyEngine implements PiKernel {
+
+    /** Largest supported start + count, in either base. */
+    public static final int MAX_DIGITS = 4_000_000;
+
+    /** Binary digits gained per term: log2(640320^3 / 1728). */
+    private static final double BITS_PER_TERM = 47.11;
+
+    private static final double LOG2_10 = Math.log(10) / Math.log(2);
+
+    /** Guard bits kept below the last returned digit. */
+    private static final int GUARD_BITS = 64;
+
+    /** Ranges with fewer terms are split sequentially. */
+    private static final int FORK_THRESHOLD = 256;
+
+    /** Bound, in units of the last guard bit, on the total truncation error. */
+    private static final long ERROR_UNITS = 8;
+
+    private static final BigInteger A = BigInteger.valueOf(13_591_409);
+    private static final BigInteger B = BigInteger.valueOf(545_140_134);
+    /** 640320^3 / 24 */
+    private static final BigInteger C3_OVER_24 = BigInteger.valueOf(10_939_058_860_032_000L);
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates an engine that splits on the common fork/join pool.
+     */
+    public ChudnovskyEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool pool used to evaluate the splitting tree in parallel
+     */
+    public ChudnovskyEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public String name() {
+        return "chudnovsky";
+    }
+
+    @Override
+    public int maxPosition() {
+        return MAX_DIGITS;
+    }
+
+    /**
+     * Computes the prefix of start + count digits and returns its tail.
+     */
+    @Override
+    public byte[] getDigits(int start, int count) {
+        byte[] digits = new byte[Math.max(count, 0)];
+        getDigits(start, count, digits, 0);
+        return digits;
+    }
+
+    /**
+     * Computes the prefix of start + count digits and writes its tail.
+     */
+    @Override
+    public void getDigits(int start, int count, byte[] out, int offset) {
+        getDigits(start, count, out, offset, CancellationToken.NONE);
+    }
+
+    /**
+     * Computes the prefix of start + count digits and writes its tail,
+     * stopping at the next check once token is cancelled.
+     */
+    @Override
+    public void getDigits(int start, int count, byte[] out, int offset, CancellationToken token) {
+        validateInterval(start, count);
+        Objects.checkFromIndexSize(offset, count, out.length);
+
+        int total = start + count;
+        if (count == 0) {
+            return;
+        }
+
+        BigInteger fraction = fraction(4L * total, token);
+        byte[] bytes = fraction.toByteArray();
+        // Digit i is nibble i of the 4 * total bit fraction, most significant first
+        int lead = 2 * bytes.length - total;
+        for (int i = 0; i < count; i++) {
+            int nibble = lead + start + i;
+            if (nibble < 0) {
+                out[offset + i] = 0;
+                continue;
+            }
+            int b = bytes[nibble >> 1];
+            out[offset + i] = (byte) ((nibble & 1) == 0 ? (b >> 4) & 15 : b & 15);
+        }
+    }
+
+    /**
+     * Returns a range of decimal digits of Pi after the decimal point
+     * (Pi = 3.1415...), computed from the binary prefix and converted with
+     * {@link RadixConversion}.
+     *
+     * @param start 0-based position after the decimal point
+     * @param count number of digits to return
+     * @return array of digits, each value 0..9
+     */
+    public byte[] getDecimalDigits(int start, int count) {
+        return getDecimalDigits(start, count, CancellationToken.NONE);
+    }
+
+    /**
+     * Returns a range of decimal digits of Pi after the decimal point, as
+     * {@link #getDecimalDigits(int, int)}, stopping at the next check once
+     * token is cancelled.
+     *
+     * @param start 0-based position after the decimal point
+     * @param count number of digits to return
+     * @param token cancellation of the calculation the range belongs to
+     * @return array of digits, each value 0..9
+     * @throws edu.eci.arsw.parallelism.core.exceptions.CalculationCancelledException if token is cancelled
+     * @throws edu.eci.arsw.parallelism.core.exceptions.PiCalculationTimeoutException if the deadline of token passes
+     */
+    public byte[] getDecimalDigits(int start, int count, CancellationToken token) {
+        validateInterval(start, count);
+
+        int total = start + count;
+        if (count == 0) {
+            return new byte[0];
+        }
+
+        BigInteger scale = BigInteger.TEN.pow(total);
+        for (int guard = GUARD_BITS; ; guard *= 2) {
+            // floor(frac * 10^total) lies in [F * 10^total, (F + 1) * 10^total) / 2^bits
+            long bits = (long) Math.ceil(total * LOG2_10) + guard;
+            BigInteger fraction = fraction(bits, token);
+            BigInteger lowest = fraction.multiply(scale).shiftRight((int) bits);
+            token.throwIfCancelled();
+            BigInteger highest = fraction.add(BigInteger.ONE).multiply(scale).shiftRight((int) bits);
+            token.throwIfCancelled();
+            if (lowest.equals(highest)) {
+                byte[] digits = RadixConversion.toDecimal(lowest, total, pool, token);
+                return start == 0 ? digits : Arrays.copyOfRange(digits, start, total);
+            }
+        }
+    }
+
+    private static void validateInterval(int start, int count) {
+        if (start < 0 || count < 0) {
+            throw new IllegalArgumentException("Invalid interval: start and count must be non-negative");
+        }
+        if ((long) start + count > MAX_DIGITS) {
+            throw new IllegalArgumentException("Invalid interval: start + count must not exceed " + MAX_DIGITS);
+        }
+    }
+
+    /**
+     * Returns floor(frac(Pi) * 2^bits), exact: the guard bits are doubled
+     * until the error bound no longer straddles the last bit.
+     */
+    BigInteger fraction(long bits, CancellationToken token) {
+        BigInteger slack = BigInteger.valueOf(ERROR_UNITS);
+        for (int guard = GUARD_BITS; ; guard *= 2) {
+            long precision = bits + guard;
+            BigInteger fraction = scaledPi(precision, token).mod(BigInteger.ONE.shiftLeft((int) precision));
+            BigInteger lowest = fraction.subtract(slack).shiftRight(guard);
+            BigInteger highest = fraction.add(slack).shiftRight(guard);
+            if (lowest.signum() >= 0 && lowest.equals(highest) && highest.bitLength() <= bits) {
+                return highest;
+            }
+        }
+    }
+
+    /**
+     * Returns Pi * 2^precision, with an error of a few units.
+     */
+    private BigInteger scaledPi(long precision, CancellationToken token) {
+        long terms = (long) (precision / BITS_PER_TERM) + 2;
+        Split split = pool.invoke(new Split(0, terms, false, token));
+
+        // Q and T carry several times the needed precision; the quotient only needs its top bits
+        BigInteger q = split.q;
+        BigInteger t = split.t;
+        int excess = t.bitLength() - (int) precision - 32;
+        if (excess > 0) {
+            q = q.shiftRight(excess);
+            t = t.shiftRight(excess);
+        }
+
+        BigInteger sqrt = sqrt(BigInteger.valueOf(10_005).shiftLeft((int) (2 * precision)), token);
+        BigInteger numerator = q.multiply(BigInteger.valueOf(426_880)).multiply(sqrt);
+        token.throwIfCancelled();
+        return numerator.divide(t);
+    }
+
+    /**
+     * Returns floor(sqrt(n)). {@link BigInteger#sqrt()} refines from a crude
+     * guess with full-size divisions and takes minutes at a million digits;
+     * here the root of the top half of n seeds a single Newton step, so the
+     * cost is about one division and one squaring per precision doubling.
+     */
+    static BigInteger sqrt(BigInteger n) {
+        return sqrt(n, CancellationToken.NONE);
+    }
+
+    /**
+     * Returns floor(sqrt(n)) as {@link #sqrt(BigInteger)}, checking token at every precision doubling.
+     */
+    static BigInteger sqrt(BigInteger n, CancellationToken token) {
+        int bits = n.bitLength();
+        if (bits <= 128) {
+            return n.sqrt();
+        }
+
+        int shift = bits / 4;
+        BigInteger x = sqrt(n.shiftRight(2 * shift), token).shiftLeft(shift);
+        token.throwIfCancelled();
+        x = x.add(n.divide(x)).shiftRight(1);
+
+        // Settle the last units exactly, keeping r = n - x^2
+        BigInteger r = n.subtract(x.multiply(x));
+        while (r.signum() < 0) {
+            r = r.add(x.shiftLeft(1)).subtract(BigInteger.ONE);
+            x = x.subtract(BigInteger.ONE);
+        }
+        while (r.compareTo(x.shiftLeft(1)) > 0) {
+            x = x.add(BigInteger.ONE);
+            r = r.subtract(x.shiftLeft(1)).add(BigInteger.ONE);
+        }
+        return x;
+    }
+
+    /**
+     * Binary splitting of terms [a, b): P, Q and T such that the partial sum
+     * is T / Q, with P carrying the running numerator product. P is only
+     * needed by a range that has another range to its right, so the right
+     * spine of the tree skips its (largest) products.
+     */
+    private static final class Split extends RecursiveTask<Split> {
+
+        private final long a;
+        private final long b;
+        private final boolean needP;
+        private final CancellationToken token;
+        private BigInteger p;
+        private BigInteger q;
+        private BigInteger t;
+
+        Split(long a, long b, boolean needP, CancellationToken token) {
+            this.a = a;
+            this.b = b;
+            this.needP = needP;
+            this.token = token;
+        }
+
+        @Override
+        protected Split compute() {
+            token.throwIfCancelled();
+            if (b - a == 1) {
+                if (a == 0) {
+                    p = BigInteger.ONE;
+                    q = BigInteger.ONE;
+                } else {
+                    p = BigInteger.valueOf(6 * a - 5)
+                            .multiply(BigInteger.valueOf(2 * a - 1))
+                            .multiply(BigInteger.valueOf(6 * a - 1));
+                    q = BigInteger.valueOf(a).pow(3).multiply(C3_OVER_24);
+                }
+                t = p.multiply(A.add(B.multiply(BigInteger.valueOf(a))));
+                if ((a & 1) != 0) {
+                    t = t.negate();
+                }
+                return this;
+            }
+
+            long m = (a + b) >>> 1;
+            Split left = new Split(a, m, true, token);
+            Split right = new Split(m, b, needP, token);
+            if (b - a > FORK_THRESHOLD) {
+                right.fork();
+                left.compute();
+                right.join();
+            } else {
+                left.compute();
+                right.compute();
+            }
+
+            if (needP) {
+                p = left.p.multiply(right.p);
+            }
+            q = left.q.multiply(right.q);
+            t = left.t.multiply(right.q).add(left.p.multiply(right.t));
+            return this;
+        }
+    }
+}
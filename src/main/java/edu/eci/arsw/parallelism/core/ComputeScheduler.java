@@ -0,0 +1,394 @@
+package edu.eci.arsw.parallelism.core;
+
+import edu.eci.arsw.parallelism.core.exceptions.ComputeSaturatedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Service-wide admission control for digit calculations.
+ *
+ * The CPU is modelled as {@code pi.scheduler.slots} slots, one per core by
+ * default. A calculation holds one slot per thread it runs, up to all of
+ * them, so the threads of every request together stay at about the core
+ * count however many requests arrive.
+ *
+ * Calculations that do not fit wait, shortest first: the queue is ordered
+ * by the time a calculation started waiting plus its estimated remaining
+ * work. Among calculations that arrive together the shortest runs first,
+ * and since every newcomer is ordered after the current time, a long one
+ * waits at most about its own estimate before nothing can overtake it.
+ * Long calculations run as slices of about {@code pi.scheduler.slice-ms}
+ * each; between slices they give their slots back and wait again with what
+ * is left, so short requests arriving meanwhile run in between. A waiting
+ * calculation checks its {@link CancellationToken} while it waits, and one
+ * whose client went away or whose deadline passed leaves the queue and gives
+ * back its admitted work at once rather than when it reaches the front.
+ *
+ * Admission is budgeted by estimated work: the single-core time of every
+ * admitted calculation, running or waiting, may add up to at most
+ * {@code pi.scheduler.queue-budget-ms}. A request that would exceed it is
+ * rejected with a {@link ComputeSaturatedException} carrying the time the
+ * admitted work needs to drain. An idle scheduler admits any request, so a
+ * single large one is never rejected forever.
+ *
+ * The per-request limits on count, start and threads are configured here as
+ * well ({@code pi.limits.*}), with the defaults the service always had.
+ *
+ * Background work runs outside the slots, through
+ * {@link #runWhenIdle(int, CancellationToken, Consumer)}: it starts only while
+ * few slots are busy and nothing waits, and its token is cancelled as soon
+ * as a calculation takes it past that, so requests never wait behind it.
+ */
+@Component
+public class ComputeScheduler {
+
+    private final int slots;
+    private final long queueBudgetNanos;
+    private final long sliceNanos;
+    private final int maxCount;
+    private final int maxStart;
+    private final int maxThreads;
+
+    /** How often a waiting calculation checks its token. */
+    private static final long CANCEL_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition turn = lock.newCondition();
+    private final PriorityQueue<Ticket> waiting = new PriorityQueue<>(
+            Comparator.comparingLong((Ticket ticket) -> ticket.deadline).thenComparingLong(ticket -> ticket.sequence));
+    private final List<IdleWork> idleWork = new ArrayList<>();
+    private long sequence;
+    private int freeSlots;
+    private long admittedNanos;
+
+    /**
+     * Creates a scheduler with one slot per processor and the default limits.
+     */
+    public ComputeScheduler() {
+        this(0, 60_000, 50, 10_000, 10_000_000, 200);
+    }
+
+    /**
+     * @param slots calculation threads that may run at once, or 0 for one per processor
+     * @param queueBudgetMillis estimated single-core work, running and waiting, admitted at once
+     * @param sliceMillis estimated running time after which a calculation lets others run
+     * @param maxCount largest count of a request served digit by digit
+     * @param maxStart largest start position of a request
+     * @param maxThreads largest threads parameter of a request
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    @Autowired
+    public ComputeScheduler(@Value("${pi.scheduler.slots:0}") int slots,
+                            @Value("${pi.scheduler.queue-budget-ms:60000}") long queueBudgetMillis,
+                            @Value("${pi.scheduler.slice-ms:50}") long sliceMillis,
+                            @Value("${pi.limits.max-count:10000}") int maxCount,
+                            @Value("${pi.limits.max-start:10000000}") int maxStart,
+                            @Value("${pi.limits.max-threads:200}") int maxThreads) {
+        if (slots < 0 || queueBudgetMillis <= 0 || sliceMillis <= 0 || maxCount <= 0 || maxStart < 0 || maxThreads <= 0) {
+            throw new IllegalArgumentException("Invalid scheduler configuration");
+        }
+        this.slots = slots == 0 ? Runtime.getRuntime().availableProcessors() : slots;
+        this.queueBudgetNanos = TimeUnit.MILLISECONDS.toNanos(queueBudgetMillis);
+        this.sliceNanos = TimeUnit.MILLISECONDS.toNanos(sliceMillis);
+        this.maxCount = maxCount;
+        this.maxStart = maxStart;
+        this.maxThreads = maxThreads;
+        this.freeSlots = this.slots;
+    }
+
+    /**
+     * Runs a calculation in one piece once it is admitted and its slots are free.
+     *
+     * @param estimatedNanos estimated single-core time of the calculation
+     * @param threads threads the calculation runs; it holds as many slots, up to all
+     * @param work the calculation
+     * @return the result of the calculation
+     * @throws ComputeSaturatedException if the admitted work would exceed the budget
+     */
+    public <T> T execute(long estimatedNanos, int threads, Supplier<T> work) {
+        return execute(estimatedNanos, threads, CancellationToken.NONE, work);
+    }
+
+    /**
+     * Runs a calculation in one piece once it is admitted and its slots are
+     * free, unless its token is cancelled while it waits.
+     *
+     * @param estimatedNanos estimated single-core time of the calculation
+     * @param threads threads the calculation runs; it holds as many slots, up to all
+     * @param token cancellation of the calculation, checked while it waits
+     * @param work the calculation
+     * @return the result of the calculation
+     * @throws ComputeSaturatedException if the admitted work would exceed the budget
+     * @throws edu.eci.arsw.parallelism.core.exceptions.CalculationCancelledException if the token is cancelled while waiting
+     * @throws edu.eci.arsw.parallelism.core.exceptions.PiCalculationTimeoutException if its deadline passes while waiting
+     */
+    public <T> T execute(long estimatedNanos, int threads, CancellationToken token, Supplier<T> work) {
+        AtomicReference<T> result = new AtomicReference<>();
+        execute(new long[]{estimatedNanos}, threads, token, slice -> result.set(work.get()));
+        return result.get();
+    }
+
+    /**
+     * Runs a calculation as consecutive slices. The calculation is admitted
+     * once with the sum of the estimates; every slice then waits for its
+     * turn with the work still left, and gives its slots back when done.
+     *
+     * @param sliceNanos estimated single-core time of each slice, in order
+     * @param threads threads each slice runs; it holds as many slots, up to all
+     * @param slice runs the slice with the given index
+     * @throws ComputeSaturatedException if the admitted work would exceed the budget
+     */
+    public void execute(long[] sliceNanos, int threads, IntConsumer slice) {
+        execute(sliceNanos, threads, CancellationToken.NONE, slice);
+    }
+
+    /**
+     * Runs a calculation as consecutive slices, as
+     * {@link #execute(long[], int, IntConsumer)} does, leaving the queue as
+     * soon as its token is cancelled while a slice waits.
+     *
+     * @param sliceNanos estimated single-core time of each slice, in order
+     * @param threads threads each slice runs; it holds as many slots, up to all
+     * @param token cancellation of the calculation, checked while a slice waits
+     * @param slice runs the slice with the given index
+     * @throws ComputeSaturatedException if the admitted work would exceed the budget
+     * @throws edu.eci.arsw.parallelism.core.exceptions.CalculationCancelledException if the token is cancelled while waiting
+     * @throws edu.eci.arsw.parallelism.core.exceptions.PiCalculationTimeoutException if its deadline passes while waiting
+     */
+    public void execute(long[] sliceNanos, int threads, CancellationToken token, IntConsumer slice) {
+        long total = 0;
+        for (long nanos : sliceNanos) {
+            total += Math.max(0, nanos);
+        }
+        Ticket ticket = admit(total, Math.max(1, Math.min(threads, slots)));
+        int next = 0;
+        try {
+            for (; next < sliceNanos.length; next++) {
+                acquire(ticket, token);
+                try {
+                    slice.accept(next);
+                } finally {
+                    release(ticket, Math.max(0, sliceNanos[next]));
+                }
+            }
+        } finally {
+            if (next < sliceNanos.length) {
+                abandon(ticket);
+            }
+        }
+    }
+
+    private Ticket admit(long estimatedNanos, int weight) {
+        lock.lock();
+        try {
+            if (admittedNanos > 0 && admittedNanos + estimatedNanos > queueBudgetNanos) {
+                throw new ComputeSaturatedException("Server is at capacity, retry later", retryAfterSeconds());
+            }
+            admittedNanos += estimatedNanos;
+            return new Ticket(estimatedNanos, weight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void acquire(Ticket ticket, CancellationToken token) {
+        lock.lock();
+        try {
+            // Estimates beyond a day order the same and cannot overflow the key
+            ticket.deadline = System.nanoTime() + Math.min(ticket.remainingNanos, TimeUnit.DAYS.toNanos(1));
+            ticket.sequence = sequence++;
+            waiting.add(ticket);
+            try {
+                while (waiting.peek() != ticket || freeSlots < ticket.weight) {
+                    yieldIdleWork();
+                    if (token.isCancelled()) {
+                        // The caller abandons the ticket, giving back its admitted work
+                        waiting.remove(ticket);
+                        turn.signalAll();
+                        token.throwIfCancelled();
+                    }
+                    if (token == CancellationToken.NONE) {
+                        turn.await();
+                    } else {
+                        turn.awaitNanos(CANCEL_CHECK_NANOS);
+                    }
+                }
+            } catch (InterruptedException e) {
+                waiting.remove(ticket);
+                turn.signalAll();
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Thread interrupted", e);
+            }
+            waiting.poll();
+            freeSlots -= ticket.weight;
+            yieldIdleWork();
+            // The next in line may fit in the slots left
+            turn.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(Ticket ticket, long sliceNanos) {
+        lock.lock();
+        try {
+            freeSlots += ticket.weight;
+            long done = Math.min(sliceNanos, ticket.remainingNanos);
+            ticket.remainingNanos -= done;
+            admittedNanos -= done;
+            turn.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs background work on the calling thread if at most maxBusySlots
+     * slots are busy and no calculation waits. The work gets a child of
+     * parent that is cancelled as soon as a calculation waits or busies more
+     * slots, and should stop at its next check.
+     *
+     * @param maxBusySlots busy slots the work tolerates
+     * @param parent cancellation of the background work itself
+     * @param work the work, given its token
+     * @return whether the work ran
+     */
+    public boolean runWhenIdle(int maxBusySlots, CancellationToken parent, Consumer<CancellationToken> work) {
+        IdleWork idle = new IdleWork(maxBusySlots, parent.child());
+        lock.lock();
+        try {
+            if (!idle.tolerates(slots - freeSlots, waiting.size())) {
+                return false;
+            }
+            idleWork.add(idle);
+        } finally {
+            lock.unlock();
+        }
+        try {
+            work.accept(idle.token);
+            return true;
+        } finally {
+            lock.lock();
+            try {
+                idleWork.remove(idle);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Cancels the background work that no longer tolerates the load. Called with the lock held.
+     */
+    private void yieldIdleWork() {
+        for (IdleWork idle : idleWork) {
+            if (!idle.tolerates(slots - freeSlots, waiting.size())) {
+                idle.token.cancel("Requests need the cores");
+            }
+        }
+    }
+
+    /**
+     * Gives back the admitted work of slices that will not run.
+     */
+    private void abandon(Ticket ticket) {
+        lock.lock();
+        try {
+            admittedNanos -= ticket.remainingNanos;
+            ticket.remainingNanos = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the time the admitted work needs to drain on all slots, in whole seconds, at least 1.
+     */
+    private long retryAfterSeconds() {
+        long drainNanos = admittedNanos / slots;
+        return Math.max(1, (drainNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Returns the number of slots.
+     */
+    public int getSlots() {
+        return slots;
+    }
+
+    /**
+     * Returns the estimated running time after which a calculation should let others run.
+     */
+    public long getSliceNanos() {
+        return sliceNanos;
+    }
+
+    /**
+     * Returns the number of slots held by running calculations.
+     */
+    public int getBusySlots() {
+        lock.lock();
+        try {
+            return slots - freeSlots;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of calculations waiting for slots.
+     */
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiting.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxCount() {
+        return maxCount;
+    }
+
+    public int getMaxStart() {
+        return maxStart;
+    }
+
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    private record IdleWork(int maxBusySlots, CancellationToken token) {
+
+        boolean tolerates(int busySlots, int waiting) {
+            return busySlots <= maxBusySlots && waiting == 0;
+        }
+    }
+
+    private static final class Ticket {
+
+        private final int weight;
+        private long remainingNanos;
+        private long deadline;
+        private long sequence;
+
+        Ticket(long estimatedNanos, int weight) {
+            this.remainingNanos = estimatedNanos;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package edu.eci.arsw.parallelism.core;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory cache of hexadecimal digits of Pi, in blocks of
+ * {@code pi.cache.block-digits} digits aligned on multiples of the block
+ * size from position 0.
+ *
+ * The digits never change and every kernel produces the same ones, so a
+ * block is keyed by its index alone and shared by all strategies and
+ * kernels. Blocks are kept nibble-packed, two digits per byte, and the least
+ * recently used ones are evicted once the blocks and their bookkeeping
+ * exceed {@code pi.cache.max-bytes}; a budget of 0 turns the memory off.
+ * Beneath the memory sits the {@link DigitStore}, when one is configured:
+ * blocks missing from memory are read from it, and every block written
+ * here is written there too, so they outlive the process. Hits, store hits
+ * and misses are counted once per block a read asks for, evictions per
+ * block; a request that reads a block again, once it waited for it, does
+ * not count it twice.
+ *
+ * The cache also registers the blocks being calculated, so that requests
+ * and background work never calculate the same block at once: whoever
+ * claims a missing block first calculates it, and the others wait on the
+ * claim and then take the digits from its {@link Flight} or from the cache.
+ * {@link #fill(int, int, PiKernel, CancellationToken)}, which background
+ * work uses, claims its blocks the same way.
+ */
+@Component
+public class DigitCache {
+
+    /** Estimated memory of a block besides its digits: map entry, key and array header. */
+    static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final long maxBytes;
+    private final int blockDigits;
+    private final DigitStore store;
+    private final LinkedHashMap<Integer, byte[]> blocks = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Integer, CompletableFuture<Flight>> flights = new ConcurrentHashMap<>();
+    private long bytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder storeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * A snapshot of the cache counters.
+     *
+     * @param hits block reads served from memory
+     * @param storeHits block reads served from the store
+     * @param misses block reads that found nothing
+     * @param evictions blocks evicted to stay within the budget
+     * @param blocks blocks held in memory
+     * @param bytes estimated memory of the blocks held
+     * @param maxBytes the budget
+     * @param storedBlocks blocks in the store
+     */
+    public record Stats(long hits, long storeHits, long misses, long evictions, int blocks, long bytes,
+                        long maxBytes, int storedBlocks) {
+    }
+
+    /**
+     * Hex digits calculated from a position, handed to those waiting on the
+     * blocks they cover.
+     *
+     * @param start position of the first digit
+     * @param digits hex characters
+     */
+    public record Flight(int start, String digits) {
+    }
+
+    /**
+     * Creates a cache of 64 MiB in blocks of 64 digits, without a store.
+     */
+    public DigitCache() {
+        this(64L << 20, 64);
+    }
+
+    /**
+     * @param maxBytes memory the blocks may take, or 0 to keep none in memory
+     * @param blockDigits digits per block, a positive multiple of {@link PiDigits#DIGITS_PER_CHUNK}
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    public DigitCache(long maxBytes, int blockDigits) {
+        this(maxBytes, blockDigits, new DigitStore());
+    }
+
+    /**
+     * @param maxBytes memory the blocks may take, or 0 to keep none in memory
+     * @param blockDigits digits per block, a positive multiple of {@link PiDigits#DIGITS_PER_CHUNK}
+     * @param store persistent blocks beneath the memory, possibly disabled
+     * @throws IllegalArgumentException if a value is out of range or the store has other blocks
+     */
+    @Autowired
+    public DigitCache(@Value("${pi.cache.max-bytes:67108864}") long maxBytes,
+                      @Value("${pi.cache.block-digits:64}") int blockDigits, DigitStore store) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Cache budget must be non-negative");
+        }
+        if (blockDigits <= 0 || blockDigits % PiDigits.DIGITS_PER_CHUNK != 0) {
+            throw new IllegalArgumentException(
+                    "Block size must be a positive multiple of " + PiDigits.DIGITS_PER_CHUNK);
+        }
+        if (store.isEnabled() && store.getBlockDigits() != blockDigits) {
+            throw new IllegalArgumentException("Store blocks must have the size of the cache blocks");
+        }
+        this.maxBytes = maxBytes;
+        this.blockDigits = blockDigits;
+        this.store = store;
+    }
+
+    /**
+     * Returns whether blocks are cached at all, in memory or in the store.
+     */
+    public boolean isEnabled() {
+        return maxBytes > 0 || store.isEnabled();
+    }
+
+    /**
+     * Returns the number of digits per block.
+     */
+    public int getBlockDigits() {
+        return blockDigits;
+    }
+
+    /**
+     * Returns whether a block is in memory or in the store, without counting
+     * a read or refreshing its place in the eviction order.
+     */
+    public boolean contains(int block) {
+        synchronized (this) {
+            if (blocks.containsKey(block)) {
+                return true;
+            }
+        }
+        return store.contains(block);
+    }
+
+    /**
+     * Copies digits [from, from + count) of a block, relative to the block,
+     * into out[offset, offset + count) as hex characters.
+     *
+     * @param block index of the block
+     * @param from first digit of the block to copy
+     * @param count number of digits to copy
+     * @param out buffer of hex characters
+     * @param offset position in out of the first digit
+     * @return whether the block was cached or stored; out is untouched otherwise
+     */
+    public boolean read(int block, int from, int count, byte[] out, int offset) {
+        return read(block, from, count, out, offset, true);
+    }
+
+    /**
+     * Copies digits of a block as {@link #read(int, int, int, byte[], int)}
+     * does, counting the read only if asked to: a request that already
+     * counted a block reads it again uncounted.
+     *
+     * @param counted whether to count a hit, store hit or miss
+     */
+    boolean read(int block, int from, int count, byte[] out, int offset, boolean counted) {
+        byte[] packed;
+        synchronized (this) {
+            packed = blocks.get(block);
+        }
+        if (packed == null) {
+            if (store.read(block, from, count, out, offset)) {
+                if (counted) {
+                    storeHits.increment();
+                }
+                return true;
+            }
+            if (counted) {
+                misses.increment();
+            }
+            return false;
+        }
+        if (counted) {
+            hits.increment();
+        }
+        for (int i = 0; i < count; i++) {
+            int digit = from + i;
+            int pair = packed[digit >> 1];
+            out[offset + i] = (byte) ((digit & 1) == 0 ? (pair >> 4) & 0xF : pair & 0xF);
+        }
+        PiDigits.toHexChars(out, offset, count);
+        return true;
+    }
+
+    /**
+     * Counts blocks a request needed but did not read, because it calculated
+     * them without looking them up.
+     */
+    void recordMisses(int count) {
+        misses.add(count);
+    }
+
+    /**
+     * Stores a block from hex[offset, offset + block size), in memory,
+     * evicting the least recently used blocks beyond the budget, and in the store.
+     *
+     * @param block index of the block
+     * @param hex hex characters holding the block
+     * @param offset position in hex of the first digit of the block
+     * @throws IllegalArgumentException if a character is not a hex digit
+     */
+    public void write(int block, CharSequence hex, int offset) {
+        if (!isEnabled()) {
+            return;
+        }
+        byte[] packed = new byte[blockDigits / 2];
+        for (int i = 0; i < blockDigits; i++) {
+            int value = Character.digit(hex.charAt(offset + i), 16);
+            if (value < 0) {
+                throw new IllegalArgumentException("Not a hex digit: " + hex.charAt(offset + i));
+            }
+            packed[i >> 1] |= (byte) ((i & 1) == 0 ? value << 4 : value);
+        }
+        put(block, packed);
+    }
+
+    /**
+     * Calculates the blocks of [first, last] that are neither cached nor
+     * claimed by someone else with a kernel, and stores them as
+     * {@link #write(int, CharSequence, int)} does. The blocks are claimed
+     * while they are calculated, so requests that need them wait instead of
+     * calculating them again. Each run of consecutive claimed blocks is
+     * calculated in one piece, and with the {@link ChudnovskyEngine}, which
+     * pays for the whole prefix whatever the run, all of them are calculated
+     * in one span and only the claimed ones stored. A block cut short by the
+     * kernel's range is not stored.
+     *
+     * @param first index of the first block
+     * @param last index of the last block
+     * @param kernel kernel that calculates the digits
+     * @param token checked by the kernel between chunks
+     * @return the number of blocks stored
+     * @throws edu.eci.arsw.parallelism.core.exceptions.CalculationCancelledException if the token is cancelled
+     */
+    public int fill(int first, int last, PiKernel kernel, CancellationToken token) {
+        if (!isEnabled()) {
+            return 0;
+        }
+        List<CompletableFuture<Flight>> claims = new ArrayList<>(Collections.nCopies(last - first + 1, null));
+        int filled = 0;
+        try {
+            for (int b = first; b <= last; b++) {
+                CompletableFuture<Flight> claim = new CompletableFuture<>();
+                if (contains(b) || claim(b, claim) != null) {
+                    continue;
+                }
+                if (contains(b)) {
+                    // Stored by a run that landed between the check and the claim
+                    land(b, claim, null);
+                    continue;
+                }
+                claims.set(b - first, claim);
+            }
+            // A prefix engine calculates everything before a run anyway, so one span covers all claimed blocks
+            int lastClaimed = last;
+            while (lastClaimed >= first && claims.get(lastClaimed - first) == null) {
+                lastClaimed--;
+            }
+            boolean prefix = kernel instanceof ChudnovskyEngine;
+            for (int b = first; b <= lastClaimed; b++) {
+                if (claims.get(b - first) == null) {
+                    continue;
+                }
+                int runLast = prefix ? lastClaimed : b;
+                while (runLast < last && claims.get(runLast + 1 - first) != null) {
+                    runLast++;
+                }
+                byte[] digits = calculate(b, runLast, kernel, token);
+                for (int r = b; r <= runLast; r++) {
+                    CompletableFuture<Flight> claim = claims.set(r - first, null);
+                    if (claim == null) {
+                        continue;
+                    }
+                    int base = (r - b) * blockDigits;
+                    if (base + blockDigits <= digits.length) {
+                        put(r, pack(digits, base));
+                        filled++;
+                    }
+                    // Those waiting read the block from the cache
+                    land(r, claim, null);
+                }
+                b = runLast;
+            }
+        } finally {
+            for (int b = first; b <= last; b++) {
+                if (claims.get(b - first) != null) {
+                    land(b, claims.get(b - first), null);
+                }
+            }
+        }
+        return filled;
+    }
+
+    /**
+     * Calculates the digits of blocks [first, last] with a kernel, as far as its range goes.
+     */
+    private byte[] calculate(int first, int last, PiKernel kernel, CancellationToken token) {
+        int start = first * blockDigits;
+        int count = (int) Math.max(0,
+                Math.min((long) (last - first + 1) * blockDigits, (long) kernel.maxPosition() - start));
+        byte[] digits = new byte[count];
+        if (count > 0) {
+            kernel.getDigits(start, count, digits, 0, token);
+        }
+        return digits;
+    }
+
+    /**
+     * Packs a block of digit values from digits[base, base + block size), two per byte.
+     */
+    private byte[] pack(byte[] digits, int base) {
+        byte[] packed = new byte[blockDigits / 2];
+        for (int i = 0; i < blockDigits; i++) {
+            packed[i >> 1] |= (byte) ((i & 1) == 0 ? digits[base + i] << 4 : digits[base + i]);
+        }
+        return packed;
+    }
+
+    private void put(int block, byte[] packed) {
+        store.write(block, packed);
+        if (maxBytes == 0) {
+            return;
+        }
+        long size = entryBytes();
+        synchronized (this) {
+            if (blocks.put(block, packed) == null) {
+                bytes += size;
+            }
+            Iterator<byte[]> eldest = blocks.values().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                bytes -= size;
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Claims a block for calculation unless someone else already has.
+     *
+     * @param block index of the block
+     * @param claim completed through {@link #land(int, CompletableFuture, Flight)} once the block is done
+     * @return null if the claim is now held, or the claim of whoever calculates the block
+     */
+    public CompletableFuture<Flight> claim(int block, CompletableFuture<Flight> claim) {
+        return flights.putIfAbsent(block, claim);
+    }
+
+    /**
+     * Releases a claim and wakes those waiting on it. The block should be
+     * written first, so a caller that misses it afterwards finds it here.
+     *
+     * @param block index of the block
+     * @param claim the claim held
+     * @param flight digits covering the block, or null to let the waiters
+     *               read the cache and calculate what it lacks
+     */
+    public void land(int block, CompletableFuture<Flight> claim, Flight flight) {
+        flights.remove(block, claim);
+        claim.complete(flight);
+    }
+
+    /**
+     * Returns a snapshot of the counters.
+     */
+    public Stats stats() {
+        synchronized (this) {
+            return new Stats(hits.sum(), storeHits.sum(), misses.sum(), evictions.sum(), blocks.size(), bytes,
+                    maxBytes, store.getStoredBlocks());
+        }
+    }
+
+    private long entryBytes() {
+        return blockDigits / 2 + ENTRY_OVERHEAD_BYTES;
+    }
+}
@@ -0,0 +1,217 @@
+package edu.eci.arsw.parallelism.core;
+
+import edu.eci.arsw.parallelism.core.exceptions.CalculationCancelledException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills the {@link DigitCache} with the ranges in {@code pi.precompute.ranges}
+ * in the background, so the first request for them is a cache lookup.
+ *
+ * Ranges are given as comma-separated half-open intervals such as
+ * {@code 0-1000000}; without any the precomputer does nothing. One thread
+ * of minimum priority walks the ranges block by block and calculates the
+ * missing ones in batches, each through
+ * {@link ComputeScheduler#runWhenIdle(int, CancellationToken, java.util.function.Consumer)}:
+ * a batch starts only while at most {@code pi.precompute.max-busy-slots}
+ * scheduler slots are busy and no request waits, and stops at the kernel's
+ * next check once that changes. A batch that backs off is retried after
+ * {@code pi.precompute.pause-ms}.
+ *
+ * Ranges far from 0 are calculated by the configured digit-extraction kernel
+ * in batches of {@link #BATCH_BLOCKS} blocks. Each of those batches pays for
+ * the modular powers up to its offset, so a long range near 0 would cost
+ * quadratic time that way; ranges the service treats as prefix ranges (see
+ * {@link PiDigitsService#isPrefixRange(int, int)}) go to the
+ * {@link ChudnovskyEngine} instead. Its cost is that of the whole prefix
+ * whatever the batch, so a prefix range is calculated in steps that end at
+ * least at twice their start, from {@link #PREFIX_STEP_DIGITS} digits on:
+ * the steps together cost about two prefixes of the range, and a step that
+ * backs off loses no more than the steps before it took.
+ *
+ * Blocks already cached or stored are skipped, so with a {@link DigitStore}
+ * the precomputation resumes after a restart where it stopped.
+ */
+@Component
+public class DigitPrecomputer {
+
+    private static final Logger logger = LoggerFactory.getLogger(DigitPrecomputer.class);
+
+    /** Blocks calculated at once; they share their modular powers. */
+    static final int BATCH_BLOCKS = 8;
+
+    /** Digits of the first step of a prefix range; each later step at least doubles the prefix. */
+    static final int PREFIX_STEP_DIGITS = 65_536;
+
+    private final DigitCache cache;
+    private final ComputeScheduler scheduler;
+    private final PiKernel kernel;
+    private final ChudnovskyEngine prefixEngine = new ChudnovskyEngine();
+    private final List<int[]> ranges;
+    private final int maxBusySlots;
+    private final long pauseMillis;
+    private final CancellationToken stop = new CancellationToken();
+    private final AtomicLong computedBlocks = new AtomicLong();
+    private volatile Thread worker;
+    private volatile boolean done;
+
+    /**
+     * @param cache cache the blocks are written to
+     * @param scheduler scheduler whose load the precomputation yields to
+     * @param ranges comma-separated half-open ranges, such as {@code 0-1000000}, or blank for none
+     * @param maxBusySlots busy slots the precomputation tolerates
+     * @param pauseMillis time to wait before trying again while the service is busy
+     * @param kernel name of the kernel that calculates the blocks
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    @Autowired
+    public DigitPrecomputer(DigitCache cache, ComputeScheduler scheduler,
+                            @Value("${pi.precompute.ranges:}") String ranges,
+                            @Value("${pi.precompute.max-busy-slots:0}") int maxBusySlots,
+                            @Value("${pi.precompute.pause-ms:1000}") long pauseMillis,
+                            @Value("${pi.kernel:bbp}") String kernel) {
+        if (maxBusySlots < 0 || pauseMillis <= 0) {
+            throw new IllegalArgumentException("Invalid precompute configuration");
+        }
+        this.cache = cache;
+        this.scheduler = scheduler;
+        this.kernel = PiDigits.kernel(kernel);
+        this.ranges = parse(ranges, this.kernel.maxPosition());
+        this.maxBusySlots = maxBusySlots;
+        this.pauseMillis = pauseMillis;
+    }
+
+    /**
+     * Parses comma-separated half-open ranges such as {@code 0-1000000}.
+     *
+     * @throws IllegalArgumentException if a range is malformed, empty or beyond maxPosition
+     */
+    static List<int[]> parse(String ranges, int maxPosition) {
+        List<int[]> parsed = new ArrayList<>();
+        if (ranges == null || ranges.isBlank()) {
+            return parsed;
+        }
+        for (String range : ranges.split(",")) {
+            String[] bounds = range.trim().split("-");
+            try {
+                int start = Integer.parseInt(bounds[0].trim());
+                int end = Integer.parseInt(bounds[bounds.length - 1].trim());
+                if (bounds.length != 2 || start < 0 || end <= start || end > maxPosition) {
+                    throw new IllegalArgumentException("Invalid precompute range: " + range.trim());
+                }
+                parsed.add(new int[]{start, end});
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid precompute range: " + range.trim(), e);
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Starts the background thread, if there is anything to precompute.
+     */
+    @PostConstruct
+    public synchronized void start() {
+        if (worker != null || ranges.isEmpty()) {
+            done = ranges.isEmpty();
+            return;
+        }
+        if (!cache.isEnabled()) {
+            logger.warn("Digit cache is disabled; nothing to precompute into");
+            done = true;
+            return;
+        }
+        Thread thread = new Thread(this::run, "pi-precompute");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        worker = thread;
+        thread.start();
+    }
+
+    /**
+     * Stops the background thread at its next check.
+     */
+    @PreDestroy
+    public void shutdown() {
+        stop.cancel("Service stopping");
+        Thread thread = worker;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Returns whether every range is cached, or the precomputation stopped.
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * Returns the number of blocks calculated so far.
+     */
+    public long getComputedBlocks() {
+        return computedBlocks.get();
+    }
+
+    private void run() {
+        int block = cache.getBlockDigits();
+        try {
+            for (int[] range : ranges) {
+                boolean prefix = PiDigitsService.isPrefixRange(range[0], range[1] - range[0]);
+                int last = (range[1] - 1) / block;
+                for (int first = range[0] / block; first <= last && !stop.isCancelled(); ) {
+                    if (cache.contains(first)) {
+                        first++;
+                        continue;
+                    }
+                    int end = first;
+                    if (prefix) {
+                        long step = Math.max((long) first * block, PREFIX_STEP_DIGITS);
+                        end = (int) Math.min(last, ((long) first * block + step - 1) / block);
+                    } else {
+                        while (end < last && end - first + 1 < BATCH_BLOCKS && !cache.contains(end + 1)) {
+                            end++;
+                        }
+                    }
+                    if (calculateWhenIdle(first, end, prefix ? prefixEngine : kernel)) {
+                        first = end + 1;
+                    } else {
+                        Thread.sleep(pauseMillis);
+                    }
+                }
+            }
+            logger.info("Precomputation finished after {} blocks", computedBlocks.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.error("Precomputation stopped", e);
+        } finally {
+            done = true;
+        }
+    }
+
+    /**
+     * Calculates blocks [first, last] with a kernel and caches them if the service is idle enough.
+     *
+     * @return whether the blocks were calculated
+     */
+    private boolean calculateWhenIdle(int first, int last, PiKernel kernel) {
+        try {
+            return scheduler.runWhenIdle(maxBusySlots, stop,
+                    token -> computedBlocks.addAndGet(cache.fill(first, last, kernel, token)));
+        } catch (CalculationCancelledException e) {
+            logger.debug("Precomputation of blocks {} to {} backed off: {}", first, last, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package edu.eci.arsw.parallelism.core;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.zip.CRC32C;
+
+/**
+ * Persistent store of hexadecimal digits of Pi, in the blocks of the
+ * {@link DigitCache}, memory-mapped from the file at {@code pi.store.path}
+ * so the digits calculated before a restart are still there after it.
+ * Without a path the store is disabled.
+ *
+ * The file is laid out for direct indexing: a header with the block size
+ * and the number of blocks, a bitmap with one bit per block that is
+ * present, a CRC32C per block, and the blocks themselves, nibble-packed,
+ * each at the position of its index. It is created sparse, with room for
+ * {@code pi.store.max-digits} digits, so blocks that were never calculated
+ * take no disk space. Reads unpack digits straight from the mapping into
+ * the response buffer.
+ *
+ * A block is written data first, then its checksum, then its bit, and the
+ * first read checks all three, so a reader never returns a block that is
+ * torn or damaged on disk; such a block counts as missing and is calculated
+ * again. A block that passes is recorded in a bitset of verified blocks and
+ * not checked again, and reads copy it through their own view of the
+ * mapping without taking a lock; only writes are serialized.
+ *
+ * One JVM writes: it holds an exclusive lock on the file, and other JVMs
+ * on the host that open the same file, or every JVM with
+ * {@code pi.store.read-only}, map it read-only and see the blocks the
+ * writer adds through the shared page cache.
+ *
+ * The header is written last when a file is created. A file whose header
+ * is all zeros, left by a start that stopped before writing it, is started
+ * again empty, and a file that does not begin with the store's magic number
+ * is moved aside to {@code <path>.invalid}, both with a warning, so a broken
+ * store never keeps the service from starting. A JVM that would only read
+ * such a file runs without the store.
+ */
+@Component
+public class DigitStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(DigitStore.class);
+
+    private static final long MAGIC = 0x5049_4449_4749_5453L; // "PIDIGITS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+
+    private final int blockDigits;
+    private final int blocks;
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final MappedByteBuffer map;
+    private final int checksumOffset;
+    private final int dataOffset;
+    private final AtomicLongArray verified;
+
+    /**
+     * Creates a disabled store.
+     */
+    public DigitStore() {
+        this("", 16 << 20, 64, false);
+    }
+
+    /**
+     * Opens the store file, creating it if needed and allowed.
+     *
+     * @param path store file, or blank to disable the store
+     * @param maxDigits digits a new file has room for, from position 0
+     * @param blockDigits digits per block, as in the {@link DigitCache}
+     * @param readOnly whether to map the file read-only even if no other JVM writes it
+     * @throws IllegalArgumentException if a value is out of range
+     * @throws IllegalStateException if the file is a store with another layout
+     * @throws UncheckedIOException if the file cannot be opened or mapped
+     */
+    @Autowired
+    public DigitStore(@Value("${pi.store.path:}") String path,
+                      @Value("${pi.store.max-digits:16777216}") int maxDigits,
+                      @Value("${pi.cache.block-digits:64}") int blockDigits,
+                      @Value("${pi.store.read-only:false}") boolean readOnly) {
+        if (maxDigits <= 0) {
+            throw new IllegalArgumentException("Store capacity must be positive");
+        }
+        if (blockDigits <= 0 || blockDigits % PiDigits.DIGITS_PER_CHUNK != 0) {
+            throw new IllegalArgumentException(
+                    "Block size must be a positive multiple of " + PiDigits.DIGITS_PER_CHUNK);
+        }
+        // At most about 12 bytes per block of 16 digits, so the file always fits a single mapping
+        this.blockDigits = blockDigits;
+        this.blocks = (int) (((long) maxDigits + blockDigits - 1) / blockDigits);
+        this.checksumOffset = HEADER_BYTES + ((blocks + 63) / 64) * 8;
+        this.dataOffset = checksumOffset + 4 * blocks;
+        this.verified = new AtomicLongArray((blocks + 63) / 64);
+        long size = (long) dataOffset + (long) blocks * (blockDigits / 2);
+
+        Path file = path == null || path.isBlank() ? null : Path.of(path);
+        if (file == null || (readOnly && !Files.exists(file))) {
+            if (file != null) {
+                logger.warn("Digit store {} does not exist; running without it", file);
+            }
+            this.channel = null;
+            this.lock = null;
+            this.map = null;
+            return;
+        }
+
+        FileChannel opened = null;
+        FileLock held = null;
+        MappedByteBuffer mapped = null;
+        try {
+            if (!readOnly) {
+                opened = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                        StandardOpenOption.CREATE);
+                held = tryLock(opened);
+                if (held != null && opened.size() > 0 && magic(opened) != MAGIC) {
+                    opened = reset(file, opened, held);
+                    held = tryLock(opened);
+                }
+                if (held == null) {
+                    logger.info("Digit store {} is written by another process; mapping it read-only", file);
+                    opened.close();
+                }
+            }
+            if (held == null) {
+                opened = FileChannel.open(file, StandardOpenOption.READ);
+            }
+            boolean writable = held != null;
+            boolean created = writable && opened.size() == 0;
+            if (created) {
+                // Sparse: only the pages that are written take space
+                opened.write(ByteBuffer.allocate(1), size - 1);
+            }
+            if (writable || magic(opened) == MAGIC) {
+                mapped = opened.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                        0, Math.min(size, opened.size()));
+            } else {
+                logger.warn("Digit store {} has no valid header yet; running without it", file);
+                opened.close();
+                opened = null;
+            }
+            if (created) {
+                mapped.putInt(8, VERSION);
+                mapped.putInt(12, blockDigits);
+                mapped.putInt(16, blocks);
+                mapped.putLong(0, MAGIC);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open digit store " + file, e);
+        }
+        this.channel = opened;
+        this.lock = held;
+        this.map = mapped;
+        if (map == null) {
+            return;
+        }
+        if (map.capacity() != size || map.getLong(0) != MAGIC || map.getInt(8) != VERSION
+                || map.getInt(12) != blockDigits || map.getInt(16) != blocks) {
+            close();
+            throw new IllegalStateException(String.format(
+                    "Digit store %s does not hold %d-digit blocks for %d digits; move it away to start a new one",
+                    file, blockDigits, maxDigits));
+        }
+        logger.info("Digit store {} opened {} with {} of {} blocks",
+                file, lock != null ? "read-write" : "read-only", getStoredBlocks(), blocks);
+    }
+
+    /**
+     * Returns the magic number at the start of a file, or 0 if it is too short to hold one.
+     */
+    private static long magic(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(8);
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+            // Read the rest
+        }
+        return header.hasRemaining() ? 0 : header.getLong(0);
+    }
+
+    /**
+     * Starts an empty store in place of a file without a valid header. A
+     * header of zeros is left by a start that stopped before writing it, so
+     * the file is emptied; anything else is not a store and is moved aside.
+     *
+     * @return the channel of the emptied or new file, not locked
+     */
+    private static FileChannel reset(Path file, FileChannel channel, FileLock lock) throws IOException {
+        if (magic(channel) == 0) {
+            logger.warn("Digit store {} has no header, as left by an interrupted start; starting it empty", file);
+            channel.truncate(0);
+            lock.release();
+            return channel;
+        }
+        Path aside = file.resolveSibling(file.getFileName() + ".invalid");
+        logger.warn("Digit store {} is not a digit store; moving it to {} and starting a new one", file, aside);
+        lock.release();
+        channel.close();
+        Files.move(file, aside, StandardCopyOption.REPLACE_EXISTING);
+        return FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Another store in this JVM writes the file
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether a file backs the store.
+     */
+    public boolean isEnabled() {
+        return map != null;
+    }
+
+    /**
+     * Returns whether this process writes the store.
+     */
+    public boolean isWritable() {
+        return lock != null;
+    }
+
+    /**
+     * Returns the number of digits per block.
+     */
+    public int getBlockDigits() {
+        return blockDigits;
+    }
+
+    /**
+     * Returns whether a block is stored intact.
+     */
+    public boolean contains(int block) {
+        return isVerified(block) || verify(block);
+    }
+
+    /**
+     * Copies digits [from, from + count) of a block, relative to the block,
+     * into out[offset, offset + count) as hex characters, straight from the
+     * mapping.
+     *
+     * @return whether the block is stored and intact; out is untouched otherwise
+     */
+    public boolean read(int block, int from, int count, byte[] out, int offset) {
+        if (!contains(block)) {
+            return false;
+        }
+        ByteBuffer packed = map.slice(dataOffset + block * (blockDigits / 2), blockDigits / 2);
+        for (int i = 0; i < count; i++) {
+            int digit = from + i;
+            int pair = packed.get(digit >> 1);
+            out[offset + i] = (byte) ((digit & 1) == 0 ? (pair >> 4) & 0xF : pair & 0xF);
+        }
+        PiDigits.toHexChars(out, offset, count);
+        return true;
+    }
+
+    /**
+     * Stores a nibble-packed block unless it is already stored intact, or
+     * it lies beyond the capacity, or this process does not write the store.
+     *
+     * @param block index of the block
+     * @param packed the block, two digits per byte, high nibble first
+     */
+    public synchronized void write(int block, byte[] packed) {
+        if (!isWritable() || block < 0 || block >= blocks) {
+            return;
+        }
+        if (contains(block)) {
+            return;
+        }
+        map.put(dataOffset + block * (blockDigits / 2), packed, 0, blockDigits / 2);
+        CRC32C crc = new CRC32C();
+        crc.update(packed, 0, blockDigits / 2);
+        map.putInt(checksumOffset + 4 * block, (int) crc.getValue());
+        int bitmapAt = HEADER_BYTES + block / 8;
+        map.put(bitmapAt, (byte) (map.get(bitmapAt) | (1 << (block % 8))));
+        // Publishes the block to the readers in this process
+        markVerified(block);
+    }
+
+    /**
+     * Returns the number of blocks present in the file.
+     */
+    public synchronized int getStoredBlocks() {
+        if (!isEnabled()) {
+            return 0;
+        }
+        int stored = 0;
+        for (int at = HEADER_BYTES; at < checksumOffset; at += 8) {
+            stored += Long.bitCount(map.getLong(at));
+        }
+        return stored;
+    }
+
+    /**
+     * Flushes the blocks written to disk and releases the file.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        if (channel == null || !channel.isOpen()) {
+            return;
+        }
+        try {
+            if (lock != null) {
+                map.force();
+                lock.release();
+            }
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Cannot close digit store cleanly: {}", e.getMessage());
+        }
+    }
+
+    private boolean present(int block) {
+        return isEnabled() && block >= 0 && block < blocks
+                && (map.get(HEADER_BYTES + block / 8) & (1 << (block % 8))) != 0;
+    }
+
+    private boolean isVerified(int block) {
+        return block >= 0 && block < blocks && (verified.get(block >> 6) & (1L << block)) != 0;
+    }
+
+    private void markVerified(int block) {
+        verified.getAndAccumulate(block >> 6, 1L << block, (word, bit) -> word | bit);
+    }
+
+    /**
+     * Checks a block that is not verified yet against its bit and checksum,
+     * and records it as verified if it passes.
+     */
+    private boolean verify(int block) {
+        if (!present(block)) {
+            return false;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(map.slice(dataOffset + block * (blockDigits / 2), blockDigits / 2));
+        if ((int) crc.getValue() != map.getInt(checksumOffset + 4 * block)) {
+            logger.warn("Digit store block {} fails its checksum; calculating it again", block);
+            return false;
+        }
+        markVerified(block);
+        return true;
+    }
+}
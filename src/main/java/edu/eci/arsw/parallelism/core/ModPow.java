@@ -0,0 +1,116 @@
+package edu.eci.arsw.parallelism.core;
+
+/**
+ * Modular exponentiation kernel used by the digit-extraction formulas.
+ *
+ * Products are computed in 64-bit {@code long} arithmetic and reduced with
+ * Barrett reduction: a per-modulus factor mu = floor((2^64 - 1) / m) is
+ * computed once, and every reduction afterwards is a high multiply, a low
+ * multiply and at most two subtractions. The inner loops never execute a
+ * hardware {@code %} or {@code /}.
+ *
+ * All moduli must be in the range [1, {@link #MAX_MODULUS}); within that range
+ * every intermediate product fits in a signed 64-bit value.
+ */
+public final class ModPow {
+
+    /** Exclusive upper bound for supported moduli (2^31). */
+    public static final long MAX_MODULUS = 1L << 31;
+
+    private ModPow() {
+    }
+
+    /**
+     * Returns the Barrett factor floor((2^64 - 1) / m) for the given modulus.
+     *
+     * @param modulus modulus in [2, MAX_MODULUS)
+     * @return the precomputed reduction factor
+     */
+    public static long barrettFactor(long modulus) {
+        if (modulus < 2 || modulus >= MAX_MODULUS) {
+            throw new IllegalArgumentException("Modulus out of range: " + modulus);
+        }
+        return Long.divideUnsigned(-1L, modulus);
+    }
+
+    /**
+     * Returns x mod m for 0 <= x < 2^63.
+     *
+     * The quotient estimate undershoots by at most two, so two conditional
+     * subtractions always land in [0, m).
+     *
+     * @param x value to reduce
+     * @param m modulus
+     * @param mu precomputed {@link #barrettFactor(long)} of m
+     * @return x mod m
+     */
+    public static long reduce(long x, long m, long mu) {
+        long r = x - Math.multiplyHigh(x, mu) * m;
+        if (r >= m) {
+            r -= m;
+            if (r >= m) {
+                r -= m;
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Returns (a * b) mod m for a, b in [0, m).
+     */
+    public static long mulMod(long a, long b, long m, long mu) {
+        return reduce(a * b, m, mu);
+    }
+
+    /**
+     * Returns 2^e mod m.
+     *
+     * @param exponent non-negative exponent
+     * @param modulus modulus in [1, MAX_MODULUS)
+     * @return 2^exponent mod modulus
+     */
+    public static long pow2(long exponent, long modulus) {
+        if (modulus == 1) {
+            return 0;
+        }
+        return pow2(exponent, modulus, barrettFactor(modulus));
+    }
+
+    /**
+     * Returns 2^e mod m using a precomputed Barrett factor (m >= 2).
+     *
+     * The exponent is scanned left to right in 4-bit windows: each window costs
+     * four modular squarings plus one shift by the window value, so there are no
+     * data-dependent branches on the exponent bits.
+     */
+    public static long pow2(long exponent, long m, long mu) {
+        if (exponent < 0) {
+            throw new IllegalArgumentException("Exponent must be non-negative: " + exponent);
+        }
+        if (exponent < 62) {
+            return reduce(1L << exponent, m, mu);
+        }
+
+        // Leading window of up to 5 bits, so that the rest splits into 4-bit windows
+        int shift = (64 - Long.numberOfLeadingZeros(exponent) - 2) & ~3;
+        long r = reduce(1L << (exponent >>> shift), m, mu);
+
+        while (shift > 0) {
+            shift -= 4;
+            r = reduce(r * r, m, mu);
+            r = reduce(r * r, m, mu);
+            r = reduce(r * r, m, mu);
+            r = reduce(r * r, m, mu);
+            r = reduce(r << ((exponent >>> shift) & 15), m, mu);
+        }
+
+        return r;
+    }
+
+    /**
+     * Returns 16^p mod m.
+     */
+    public static long pow16(long p, long modulus) {
+        return pow2(4 * p, modulus);
+    }
+}
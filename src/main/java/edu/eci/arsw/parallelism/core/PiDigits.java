@@ -1,20 +1,44 @@
-
 package edu.eci.arsw.parallelism.core;
 
+import java.nio.charset.StandardCharsets;
+
 /**
- * Bailey–Borwein–Plouffe (BBP) formula implementation to compute hexadecimal
- * digits of Pi.
+ * Entry point to compute hexadecimal digits of Pi.
  *
  * Digits returned are the hexadecimal digits of Pi after the radix point (Pi =
  * 3.<digits...> in base 16).
  *
- * This is the same algorithm family used in the classic ARSW exercise, adapted
- * to this project structure.
+ * The default kernel is the Bailey–Borwein–Plouffe (BBP) formula, the same
+ * algorithm family used in the classic ARSW exercise, adapted to this project
+ * structure. Bellard's formula is available as an alternative kernel.
  */
 public class PiDigits {
 
-    private static final int DIGITS_PER_SUM = 8;
-    private static final double EPSILON = 1e-17;
+    /** Bailey–Borwein–Plouffe kernel (default). */
+    public static final PiKernel BBP = new BbpKernel();
+
+    /**
+     * BBP kernel evaluated in SIMD lanes when the JVM runs with
+     * {@code --add-modules jdk.incubator.vector}, scalar otherwise.
+     */
+    public static final PiKernel BBP_SIMD = new SimdBbpKernel();
+
+    /** Bellard's 7-term kernel, faster at deep positions. */
+    public static final PiKernel BELLARD = new BellardKernel();
+
+    /**
+     * Largest supported start + count for the default kernel. Beyond this the
+     * series denominators no longer fit the {@link ModPow} kernel.
+     */
+    public static final int MAX_POSITION = BBP.maxPosition();
+
+    /**
+     * Digits the kernels evaluate together; ranges split on multiples of this
+     * from their start waste no partial chunks.
+     */
+    public static final int DIGITS_PER_CHUNK = BinarySeriesKernel.DIGITS_PER_CHUNK;
+
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.ISO_8859_1);
 
     /**
      * Returns a range of hexadecimal digits of Pi (after the radix point).
@@ -24,100 +48,74 @@ public class PiDigits {
      * @return array of digits, each value 0..15.
      */
     public static byte[] getDigits(int start, int count) {
-        if (start < 0 || count < 0) {
-            throw new IllegalArgumentException("Invalid interval: start and count must be non-negative");
-        }
-
-        byte[] digits = new byte[count];
-        double sum = 0.0;
-
-        for (int i = 0; i < count; i++) {
-            if (i % DIGITS_PER_SUM == 0) {
-                sum = 4 * sum(1, start)
-                        - 2 * sum(4, start)
-                        - sum(5, start)
-                        - sum(6, start);
-                start += DIGITS_PER_SUM;
-            }
-
-            sum = 16 * (sum - Math.floor(sum));
-            digits[i] = (byte) sum; // 0..15
-        }
-
-        return digits;
+        return BBP.getDigits(start, count);
     }
 
     /**
      * Convenience method: returns the digits as an uppercase hex string (0-9A-F).
      */
     public static String getDigitsHex(int start, int count) {
-        byte[] digits = getDigits(start, count);
-        StringBuilder sb = new StringBuilder(digits.length);
-        for (byte d : digits) {
-            int v = d & 0xFF;
-            if (v < 0 || v > 15) {
-                throw new IllegalStateException("Unexpected digit value: " + v);
-            }
-            sb.append(Character.toUpperCase(Character.forDigit(v, 16)));
-        }
-        return sb.toString();
+        return getDigitsHex(BBP, start, count);
     }
 
     /**
-     * Returns the sum of 16^(n-k)/(8k+m) from k=0 to infinity (until terms are
-     * below EPSILON).
+     * Returns the digits computed by the given kernel as an uppercase hex string.
      */
-    private static double sum(int m, int n) {
-        double sum = 0.0;
-        int d = m;
-        int power = n;
+    public static String getDigitsHex(PiKernel kernel, int start, int count) {
+        return getDigitsHex(kernel, start, count, CancellationToken.NONE);
+    }
 
-        while (true) {
-            double term;
+    /**
+     * Returns the digits computed by the given kernel as an uppercase hex
+     * string, stopping early once token is cancelled.
+     */
+    public static String getDigitsHex(PiKernel kernel, int start, int count, CancellationToken token) {
+        byte[] digits = new byte[Math.max(count, 0)];
+        kernel.getDigits(start, count, digits, 0, token);
+        toHexChars(digits, 0, count);
+        return toHexString(digits);
+    }
 
-            if (power > 0) {
-                term = (double) hexExponentModulo(power, d) / d;
-            } else {
-                term = Math.pow(16, power) / d;
-                if (term < EPSILON) {
-                    break;
-                }
+    /**
+     * Replaces the digits in digits[offset, offset + count) by their uppercase
+     * hex characters (0-9A-F), so a buffer filled by
+     * {@link PiKernel#getDigits(int, int, byte[], int)} becomes the response
+     * text without another array.
+     *
+     * @throws IllegalStateException if a value is outside 0..15
+     */
+    public static void toHexChars(byte[] digits, int offset, int count) {
+        for (int i = offset; i < offset + count; i++) {
+            int v = digits[i] & 0xFF;
+            if (v > 15) {
+                throw new IllegalStateException("Unexpected digit value: " + v);
             }
-
-            sum += term;
-            power--;
-            d += 8;
+            digits[i] = HEX[v];
         }
-
-        return sum;
     }
 
     /**
-     * Return 16^p mod m.
+     * Returns the text of a buffer of hex characters, with a single copy.
      */
-    private static int hexExponentModulo(int p, int m) {
-        int power = 1;
-        while (power * 2 <= p) {
-            power *= 2;
-        }
-
-        int result = 1;
-
-        while (power > 0) {
-            if (p >= power) {
-                result *= 16;
-                result %= m;
-                p -= power;
-            }
-
-            power /= 2;
+    public static String toHexString(byte[] chars) {
+        return new String(chars, StandardCharsets.ISO_8859_1);
+    }
 
-            if (power > 0) {
-                result *= result;
-                result %= m;
-            }
+    /**
+     * Resolves a kernel by name.
+     *
+     * @param name "bbp", "bbp-simd" or "bellard"; null selects the default kernel
+     * @return the kernel
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static PiKernel kernel(String name) {
+        if (name == null || name.equals(BBP.name())) {
+            return BBP;
+        } else if (name.equals(BBP_SIMD.name())) {
+            return BBP_SIMD;
+        } else if (name.equals(BELLARD.name())) {
+            return BELLARD;
         }
-
-        return result;
+        throw new IllegalArgumentException("Unknown kernel: " + name);
     }
 }
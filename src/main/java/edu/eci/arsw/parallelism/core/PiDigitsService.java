@@ -1,34 +1,95 @@
 package edu.eci.arsw.parallelism.core;
 
+import edu.eci.arsw.parallelism.concurrency.CostPartitioner;
+import edu.eci.arsw.parallelism.concurrency.ParallelStrategy;
 import edu.eci.arsw.parallelism.concurrency.SequentialStrategy;
-import edu.eci.arsw.parallelism.concurrency.ThreadJoinStrategy;
+import edu.eci.arsw.parallelism.core.exceptions.CalculationCancelledException;
+import edu.eci.arsw.parallelism.core.exceptions.ComputeSaturatedException;
 import edu.eci.arsw.parallelism.core.exceptions.InvalidPiCalculationException;
 import edu.eci.arsw.parallelism.core.exceptions.PiCalculationTimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Service
 public class PiDigitsService {
 
     private static final Logger logger = LoggerFactory.getLogger(PiDigitsService.class);
-    private static final int MAX_COUNT = 10_000; // 10 thousand digits max
-    private static final int MAX_START = 100_000; // 100 thousand position max
     private static final long TIMEOUT_MILLIS = 30_000; // Seconds timeout
-    private static final int MAX_THREADS = 200; 
+    private static final int MAX_PREFIX_COUNT = 1_000_000; // prefix ranges go to the Chudnovsky engine
+    private static final int PREFIX_MIN_DIGITS = 4_096; // below this the digit kernels are as fast
+    private static final long PREFIX_NANOS_PER_DIGIT = 10_000; // upper bound for the Chudnovsky engine up to 1M digits
+    private static final long FLIGHT_POLL_MILLIS = 50; // how often a request waiting on another checks its token
+    private static final String AUTO = "auto";
+    private static final List<String> AUTO_PARALLEL = List.of("pool", "threads"); // preferred first
 
     private final SequentialStrategy sequentialStrategy;
-    private final ThreadJoinStrategy threadJoinStrategy;
+    private final Map<String, ParallelStrategy> parallelStrategies;
+    private final PiKernel defaultKernel;
+    private final ChudnovskyEngine prefixEngine = new ChudnovskyEngine();
+    private final StrategySelector selector;
+    private final ComputeScheduler scheduler;
+    private final DigitCache cache;
+    private final AtomicInteger inFlight = new AtomicInteger();
 
     /**
-     * Constructor with dependency injection of strategies.
-     * 
+     * Constructor with dependency injection of every available strategy, the
+     * service-wide scheduler, the digit cache and the global kernel. Requests
+     * select a strategy by its {@link ParallelStrategy#name()}.
+     *
+     * @param sequentialStrategy sequential calculation strategy
+     * @param strategies all strategies that requests may select
+     * @param scheduler admission control and limits shared by all requests
+     * @param cache hexadecimal digits already calculated, shared by all requests
+     * @param defaultKernel kernel used when a request does not choose one ('bbp', 'bbp-simd' or 'bellard')
+     */
+    @Autowired
+    public PiDigitsService(SequentialStrategy sequentialStrategy, List<ParallelStrategy> strategies,
+                           ComputeScheduler scheduler, DigitCache cache,
+                           @Value("${pi.kernel:bbp}") String defaultKernel) {
+        this(sequentialStrategy, strategies, defaultKernel,
+                new StrategySelector(Runtime.getRuntime().availableProcessors()), scheduler, cache);
+    }
+
+    /**
+     * Constructor with an explicit selector, scheduler and cache.
+     *
      * @param sequentialStrategy sequential calculation strategy
-     * @param threadJoinStrategy parallel calculation strategy using threads
+     * @param strategies all strategies that requests may select
+     * @param defaultKernel kernel used when a request does not choose one
+     * @param selector cost model behind the 'auto' strategy and the admission estimates
+     * @param scheduler admission control and limits shared by all requests
+     * @param cache hexadecimal digits already calculated, shared by all requests
      */
-    public PiDigitsService(SequentialStrategy sequentialStrategy, ThreadJoinStrategy threadJoinStrategy ) {
+    PiDigitsService(SequentialStrategy sequentialStrategy, List<ParallelStrategy> strategies,
+                    String defaultKernel, StrategySelector selector, ComputeScheduler scheduler,
+                    DigitCache cache) {
         this.sequentialStrategy = sequentialStrategy;
-        this.threadJoinStrategy = threadJoinStrategy;
+        this.selector = selector;
+        this.scheduler = scheduler;
+        this.cache = cache;
+        this.parallelStrategies = new LinkedHashMap<>();
+        for (ParallelStrategy strategy : strategies) {
+            if (strategy != sequentialStrategy) {
+                parallelStrategies.put(strategy.name(), strategy);
+            }
+        }
+        this.defaultKernel = PiDigits.kernel(defaultKernel);
     }
 
     /**
@@ -39,32 +100,41 @@ public class PiDigitsService {
      * @return hexadecimal string of Pi digits
      * @throws InvalidPiCalculationException if parameters are invalid
      * @throws PiCalculationTimeoutException if calculation exceeds timeout
+     * @throws ComputeSaturatedException if the server is at capacity
      */
 
     public String calculateSequential(int start, int count) {
-        logger.debug("Calculating Pi digits: start={}, count={}", start, count);
-        
-        // Validate inputs
         validateInputs(start, count);
+        CancellationToken token = CancellationToken.withTimeout(TIMEOUT_MILLIS);
+        return cached(start, count, defaultKernel, token,
+                (from, length) -> scheduleSequential(from, length, defaultKernel, token));
+    }
+
+    /**
+     * Calculates a range that was validated by the caller; ranges widened to
+     * whole cache blocks may exceed the request limits by up to two blocks.
+     */
+    private String calculateSequential(int start, int count, PiKernel kernel, CancellationToken token) {
+        if (isPrefixRange(start, count)) {
+            kernel = prefixEngine;
+        }
+        logger.debug("Calculating Pi digits: start={}, count={}, kernel={}", start, count, kernel.name());
         
-        // Perform calculation with timeout monitoring
+        // The kernel stops between chunks once the token is cancelled or past its deadline
         long startTime = System.currentTimeMillis();
         
         try {
-            String result = sequentialStrategy.calculate(start, count, 1);
+            String result = sequentialStrategy.calculate(start, count, 1, kernel, token);
             
             long elapsedTime = System.currentTimeMillis() - startTime;
             logger.info("Pi calculation completed: start={}, count={}, time={}ms", 
                        start, count, elapsedTime);
             
-            // Check if operation took too long (defensive check)
-            if (elapsedTime > TIMEOUT_MILLIS) {
-                throw new PiCalculationTimeoutException(
-                    "Calculation exceeded maximum allowed time", elapsedTime);
-            }
-            
             return result;
             
+        } catch (PiCalculationTimeoutException | CalculationCancelledException e) {
+            logger.info("Pi calculation stopped: start={}, count={}: {}", start, count, e.getMessage());
+            throw e;
         } catch (IllegalArgumentException e) {
             logger.error("Invalid argument in PiDigits calculation: {}", e.getMessage());
             throw new InvalidPiCalculationException(
@@ -83,25 +153,19 @@ public class PiDigitsService {
      * @throws InvalidPiCalculationException if validation fails
      */
     private void validateInputs(int start, int count) {
-        if (start < 0) {
-            throw new InvalidPiCalculationException(
-                "Start position must be non-negative", "start", start);
-        }
+        validatePositions(start, count);
         
-        if (count <= 0) {
+        int maxStart = scheduler.getMaxStart();
+        if (start > maxStart) {
             throw new InvalidPiCalculationException(
-                "Count must be positive", "count", count);
-        }
-        
-        if (start > MAX_START) {
-            throw new InvalidPiCalculationException(
-                String.format("Start position exceeds maximum allowed value of %d", MAX_START),
+                String.format("Start position exceeds maximum allowed value of %d", maxStart),
                 "start", start);
         }
         
-        if (count > MAX_COUNT) {
+        int maxCount = isPrefixRange(start, count) ? MAX_PREFIX_COUNT : scheduler.getMaxCount();
+        if (count > maxCount) {
             throw new InvalidPiCalculationException(
-                String.format("Count exceeds maximum allowed value of %d", MAX_COUNT),
+                String.format("Count exceeds maximum allowed value of %d", maxCount),
                 "count", count);
         }
         
@@ -113,18 +177,54 @@ public class PiDigitsService {
         }
     }
 
+    /**
+     * Validates the sign of the requested range.
+     *
+     * @param start starting position
+     * @param count number of digits
+     * @throws InvalidPiCalculationException if validation fails
+     */
+    private void validatePositions(int start, int count) {
+        if (start < 0) {
+            throw new InvalidPiCalculationException(
+                "Start position must be non-negative", "start", start);
+        }
+        
+        if (count <= 0) {
+            throw new InvalidPiCalculationException(
+                "Count must be positive", "count", count);
+        }
+    }
+
+    /**
+     * Whether a range is computed as a whole prefix by the Chudnovsky engine
+     * rather than digit by digit: it must be long, and start close enough to
+     * 0 that the prefix it pays for is at most twice the range.
+     */
+    static boolean isPrefixRange(int start, int count) {
+        return start <= count && (long) start + count >= PREFIX_MIN_DIGITS;
+    }
+
     /**
      * Returns the maximum allowed count for Pi digit calculation.
      */
     public int getMaxCount() {
-        return MAX_COUNT;
+        return scheduler.getMaxCount();
+    }
+
+    /**
+     * Returns the maximum allowed count for ranges served by the prefix engine
+     * (see {@link #isPrefixRange(int, int)}).
+     */
+    public int getMaxPrefixCount() {
+        return MAX_PREFIX_COUNT;
     }
 
     /**
      * Returns the maximum allowed start position for Pi digit calculation.
      */
     public int getMaxStart() {
-        return MAX_START;
+        return scheduler.getMaxStart();
     }
 
     /**
@@ -132,56 +232,562 @@ public class PiDigitsService {
      * 
      * @param start starting position (0-indexed)
      * @param count number of digits to calculate
-     * @param threads number of threads to use (required for 'threads' strategy)
-     * @param strategy calculation strategy: 'sequential' or 'threads'
+     * @param threads number of threads or segments (required for every strategy but 'sequential' and 'auto', where it is an upper bound)
+     * @param strategy calculation strategy: 'auto' (null), 'sequential', 'threads', 'pool', 'virtual', 'forkjoin' or 'guided'
      * @return hexadecimal string of Pi digits
      * @throws InvalidPiCalculationException if parameters are invalid
      */
     public String calculateWithStrategy(int start, int count, Integer threads, String strategy) {
+        return calculateWithStrategy(start, count, threads, strategy, null);
+    }
+
+    /**
+     * Calculates Pi digits using the specified strategy and kernel.
+     *
+     * @param start starting position (0-indexed)
+     * @param count number of digits to calculate
+     * @param threads number of threads or segments (required for every strategy but 'sequential' and 'auto', where it is an upper bound)
+     * @param strategy calculation strategy: 'auto' (null), 'sequential', 'threads', 'pool', 'virtual', 'forkjoin' or 'guided'
+     * @param kernel digit-extraction kernel: 'bbp', 'bbp-simd' or 'bellard' (null uses the configured default)
+     * @return hexadecimal string of Pi digits
+     * @throws InvalidPiCalculationException if parameters are invalid
+     */
+    public String calculateWithStrategy(int start, int count, Integer threads, String strategy, String kernel) {
+        return calculateWithStrategy(start, count, threads, strategy, kernel, 16);
+    }
 
-        logger.debug("Calculating Pi digits with strategy: start={}, count={}, threads={}, strategy={}", 
-                 start, count, threads, strategy);
+    /**
+     * Calculates Pi digits in the requested base.
+     *
+     * Hexadecimal digits follow the strategy and kernel as in
+     * {@link #calculateWithStrategy(int, int, Integer, String, String)}.
+     * Decimal digits (after the decimal point, so "1415926535..." for
+     * start=0) always come from the Chudnovsky prefix engine, which
+     * parallelizes internally, so strategy, threads and kernel do not apply.
+     *
+     * @param start starting position (0-indexed)
+     * @param count number of digits to calculate
+     * @param threads number of threads or segments (required for every strategy but 'sequential' and 'auto', where it is an upper bound)
+     * @param strategy calculation strategy: 'auto' (null), 'sequential', 'threads', 'pool', 'virtual', 'forkjoin' or 'guided'
+     * @param kernel digit-extraction kernel: 'bbp', 'bbp-simd' or 'bellard' (null uses the configured default)
+     * @param base 16 for hexadecimal or 10 for decimal digits
+     * @return Pi digits in the requested base
+     * @throws InvalidPiCalculationException if parameters are invalid
+     */
+    public String calculateWithStrategy(int start, int count, Integer threads, String strategy, String kernel,
+                                        int base) {
+        return calculateWithStrategy(start, count, threads, strategy, kernel, base, CancellationToken.NONE);
+    }
+
+    /**
+     * Calculates Pi digits in the requested base, as
+     * {@link #calculateWithStrategy(int, int, Integer, String, String, int)},
+     * stopping early when the caller cancels the token, for instance because
+     * the client went away. Every calculation also stops once it has run for
+     * the service timeout.
+     *
+     * @param start starting position (0-indexed)
+     * @param count number of digits to calculate
+     * @param threads number of threads or segments (required for every strategy but 'sequential' and 'auto', where it is an upper bound)
+     * @param strategy calculation strategy: 'auto' (null), 'sequential', 'threads', 'pool', 'virtual', 'forkjoin' or 'guided'
+     * @param kernel digit-extraction kernel: 'bbp', 'bbp-simd' or 'bellard' (null uses the configured default)
+     * @param base 16 for hexadecimal or 10 for decimal digits
+     * @param cancellation cancelled by the caller when the result is no longer wanted
+     * @return Pi digits in the requested base
+     * @throws InvalidPiCalculationException if parameters are invalid
+     * @throws PiCalculationTimeoutException if the calculation runs past the timeout
+     * @throws CalculationCancelledException if the caller cancels the calculation
+     * @throws ComputeSaturatedException if the server is at capacity
+     */
+    public String calculateWithStrategy(int start, int count, Integer threads, String strategy, String kernel,
+                                        int base, CancellationToken cancellation) {
+        CancellationToken token = cancellation.child(TIMEOUT_MILLIS);
+        if (base == 10) {
+            return calculateDecimal(start, count, token);
+        } else if (base != 16) {
+            throw new InvalidPiCalculationException(
+                    "Invalid base. Must be 10 or 16", "base", base);
+        }
+
+        logger.debug("Calculating Pi digits with strategy: start={}, count={}, threads={}, strategy={}, kernel={}", 
+                 start, count, threads, strategy, kernel);
 
         validateInputs(start, count);
+        PiKernel piKernel = resolveKernel(kernel);
+
+        if (strategy == null || strategy.equals(AUTO)) {
+            validateThreads(AUTO, threads, false);
+            return cached(start, count, piKernel, token,
+                    (from, length) -> calculateAuto(from, length, threads, piKernel, token));
+        }
 
-        if (strategy == null || strategy.equals("sequential")) {
+        if (strategy.equals("sequential")) {
 
             logger.debug("Using sequential strategy");
-            return calculateSequential(start, count);
+            return cached(start, count, piKernel, token,
+                    (from, length) -> scheduleSequential(from, length, piKernel, token));
+        }
 
-        } else if (strategy.equals("threads")) {
-            if (threads == null) {
+        ParallelStrategy parallelStrategy = parallelStrategies.get(strategy);
+        if (parallelStrategy == null) {
             throw new InvalidPiCalculationException(
-                "Threads parameter is required when using 'threads' strategy",
-                "threads", null);
+                    String.format("Invalid strategy. Must be 'auto', 'sequential' or one of %s", parallelStrategies.keySet()),
+                    "strategy", strategy);
+        }
+
+        validateThreads(strategy, threads, true);
+
+        return cached(start, count, piKernel, token,
+                (from, length) -> scheduleParallel(parallelStrategy, from, length, threads, piKernel, token));
+    }
+
+    /**
+     * Lets the {@link StrategySelector} choose between the sequential
+     * strategy and the preferred parallel one, and feeds sequential timings
+     * back into its cost model.
+     */
+    private String calculateAuto(int start, int count, Integer maxThreads, PiKernel kernel,
+                                 CancellationToken token) {
+        if (isPrefixRange(start, count)) {
+            logger.debug("Prefix range: Chudnovsky engine splits across cores itself");
+            return scheduleSequential(start, count, kernel, token);
+        }
+
+        StrategySelector.Choice choice = selector.choose(kernel, start, count, inFlight.get() + 1, maxThreads);
+        ParallelStrategy parallelStrategy = preferredParallelStrategy();
+        if (choice.sequential() || parallelStrategy == null) {
+            logger.debug("Auto strategy: sequential for start={}, count={}", start, count);
+            return schedule(start, count, 1, kernel, token, (from, length) -> {
+                inFlight.incrementAndGet();
+                try {
+                    long begin = System.nanoTime();
+                    String result = calculateSequential(from, length, kernel, token);
+                    selector.observe(kernel, from, length, System.nanoTime() - begin);
+                    return result;
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+        logger.debug("Auto strategy: {} with {} threads for start={}, count={}",
+                parallelStrategy.name(), choice.threads(), start, count);
+        return scheduleParallel(parallelStrategy, start, count, choice.threads(), kernel, token);
+    }
+
+    /**
+     * Schedules a sequential calculation of a range.
+     */
+    private String scheduleSequential(int start, int count, PiKernel kernel, CancellationToken token) {
+        return schedule(start, count, 1, kernel, token,
+                (from, length) -> calculateSequential(from, length, kernel, token));
+    }
+
+    /**
+     * Schedules a parallel calculation of a range; prefix ranges run
+     * sequentially instead.
+     */
+    private String scheduleParallel(ParallelStrategy parallelStrategy, int start, int count, int threads,
+                                    PiKernel kernel, CancellationToken token) {
+        if (isPrefixRange(start, count)) {
+            logger.debug("Prefix range: Chudnovsky engine splits across cores itself");
+            return scheduleSequential(start, count, kernel, token);
+        }
+        return schedule(start, count, threads, kernel, token, (from, length) -> {
+            inFlight.incrementAndGet();
+            try {
+                return calculateParallel(parallelStrategy, from, length, threads, kernel, token);
+            } finally {
+                inFlight.decrementAndGet();
             }
-        
-            if (threads <= 0) {
-                throw new InvalidPiCalculationException(
-                    "Threads parameter must be greater than 0",
-                    "threads", threads);
+        });
+    }
+
+    /**
+     * Serves a hexadecimal range from the {@link DigitCache}. Cached blocks
+     * are copied, and each run of consecutive missing blocks is calculated in
+     * one piece and its whole blocks stored. A run is widened to whole blocks
+     * when that at most doubles the digits it calculates; narrower requests
+     * are calculated as they are, since the scheduler may cut a deep range
+     * into slices that each pay for their own modular powers. On timeout the
+     * digits before the interrupted run come first in the partial digits, and
+     * the whole blocks it completed are stored. A prefix range is served from
+     * the cache only when all of its blocks are there; otherwise the prefix
+     * engine calculates all of it, faster than the missing blocks one by one,
+     * and its whole blocks are stored.
+     *
+     * Concurrent requests share their calculations block by block: a missing
+     * block is claimed in the cache by the first request that needs it, or by
+     * the {@link SequentialPrefetcher}, and the others wait for its run and
+     * copy their digits from it, or read them from the cache once it is
+     * stored, instead of calculating them again. Blocks are handled in order and a request calculates the
+     * blocks it claimed before it waits on later ones, so waits never form a
+     * cycle. If the run that was waited for fails or does not cover the
+     * digits needed, they are read from the cache or calculated after all.
+     * Each block counts once in the cache statistics, at the first read: a
+     * hit when it is cached or stored, a miss when the request then claims
+     * or waits on it.
+     */
+    private String cached(int start, int count, PiKernel kernel, CancellationToken token, RangeCalculation work) {
+        if (!cache.isEnabled()) {
+            return work.calculate(start, count);
+        }
+        if (isPrefixRange(start, count)) {
+            return cachedPrefix(start, count, work);
+        }
+        int block = cache.getBlockDigits();
+        int end = start + count;
+        int first = start / block;
+        int last = (end - 1) / block;
+        byte[] chars = new byte[count];
+        boolean[] missing = new boolean[last - first + 1];
+        for (int b = first; b <= last; b++) {
+            int from = Math.max(start, b * block);
+            int to = (int) Math.min(end, (long) (b + 1) * block);
+            missing[b - first] = !cache.read(b, from - b * block, to - from, chars, from - start);
+        }
+
+        List<CompletableFuture<DigitCache.Flight>> pending = new ArrayList<>(Collections.nCopies(missing.length, null));
+        boolean[] owned = new boolean[missing.length];
+        try {
+            for (int b = first; b <= last; b++) {
+                if (missing[b - first]) {
+                    CompletableFuture<DigitCache.Flight> claim = new CompletableFuture<>();
+                    CompletableFuture<DigitCache.Flight> other = cache.claim(b, claim);
+                    if (other != null) {
+                        pending.set(b - first, other);
+                        continue;
+                    }
+                    int from = Math.max(start, b * block);
+                    int to = (int) Math.min(end, (long) (b + 1) * block);
+                    // Stored by a run that landed between the read and the claim, already counted as a miss
+                    if (cache.contains(b) && cache.read(b, from - b * block, to - from, chars, from - start, false)) {
+                        missing[b - first] = false;
+                        cache.land(b, claim, null);
+                        continue;
+                    }
+                    owned[b - first] = true;
+                    pending.set(b - first, claim);
+                }
             }
 
-            if (threads > MAX_THREADS) {
-                throw new InvalidPiCalculationException(
-                String.format("Threads parameter exceeds maximum allowed value of %d", MAX_THREADS),
-                "threads", threads);
+            for (int b = first; b <= last; b++) {
+                if (!missing[b - first]) {
+                    continue;
+                }
+                int from = Math.max(start, b * block);
+                int runLast = b;
+                if (owned[b - first]) {
+                    while (runLast < last && missing[runLast + 1 - first] && owned[runLast + 1 - first]) {
+                        runLast++;
+                    }
+                } else {
+                    int to = (int) Math.min(end, (long) (b + 1) * block);
+                    DigitCache.Flight flight;
+                    try {
+                        flight = await(pending.get(b - first), token);
+                    } catch (PiCalculationTimeoutException e) {
+                        throw new PiCalculationTimeoutException(e.getMessage(), e.getElapsedMillis(),
+                                PiDigits.toHexString(Arrays.copyOf(chars, from - start)));
+                    }
+                    if (flight != null && flight.start() <= from
+                            && to <= flight.start() + flight.digits().length()) {
+                        logger.debug("Shared calculation: block {} for start={}, count={}", b, start, count);
+                        for (int i = from; i < to; i++) {
+                            chars[i - start] = (byte) flight.digits().charAt(i - flight.start());
+                        }
+                        continue;
+                    }
+                    if (cache.read(b, from - b * block, to - from, chars, from - start, false)) {
+                        continue;
+                    }
+                }
+                int to = (int) Math.min(end, (long) (runLast + 1) * block);
+                int runStart = b * block;
+                int runEnd = (int) Math.min((long) (runLast + 1) * block, kernel.maxPosition());
+                if ((long) runEnd - runStart > 2L * (to - from)) {
+                    runStart = from;
+                    runEnd = to;
+                }
+                logger.debug("Cache miss: calculating [{}, {}) for start={}, count={}", runStart, runEnd, start, count);
+                String digits;
+                try {
+                    digits = work.calculate(runStart, runEnd - runStart);
+                } catch (PiCalculationTimeoutException e) {
+                    String done = e.getPartialDigits();
+                    store(runStart, done);
+                    int available = Math.min(to, runStart + done.length());
+                    String partial = available > from ? done.substring(from - runStart, available - runStart) : "";
+                    throw new PiCalculationTimeoutException(e.getMessage(), e.getElapsedMillis(),
+                            PiDigits.toHexString(Arrays.copyOf(chars, from - start)) + partial);
+                }
+                store(runStart, digits);
+                if (owned[b - first]) {
+                    DigitCache.Flight flight = new DigitCache.Flight(runStart, digits);
+                    for (int r = b; r <= runLast; r++) {
+                        cache.land(r, pending.get(r - first), flight);
+                        owned[r - first] = false;
+                    }
+                }
+                for (int i = from; i < to; i++) {
+                    chars[i - start] = (byte) digits.charAt(i - runStart);
+                }
+                b = runLast;
+            }
+        } finally {
+            // Whoever waits on a block this request no longer calculates falls back to its own
+            for (int b = first; b <= last; b++) {
+                if (owned[b - first]) {
+                    cache.land(b, pending.get(b - first), null);
+                }
             }
+        }
+        return PiDigits.toHexString(chars);
+    }
 
+    /**
+     * Serves a prefix range from the cache if every block is cached or
+     * stored, and calculates and stores it in one piece otherwise.
+     */
+    private String cachedPrefix(int start, int count, RangeCalculation work) {
+        int block = cache.getBlockDigits();
+        int end = start + count;
+        int first = start / block;
+        int last = (end - 1) / block;
+        boolean complete = true;
+        for (int b = first; b <= last && complete; b++) {
+            complete = cache.contains(b);
+        }
+        int counted = 0;
+        if (complete) {
+            byte[] chars = new byte[count];
+            for (int b = first; b <= last && complete; b++) {
+                int from = Math.max(start, b * block);
+                int to = Math.min(end, (b + 1) * block);
+                // A block evicted since the check sends the range to the prefix engine after all
+                complete = cache.read(b, from - b * block, to - from, chars, from - start);
+                counted++;
+            }
+            if (complete) {
+                return PiDigits.toHexString(chars);
+            }
+        }
+        cache.recordMisses(last - first + 1 - counted);
+        logger.debug("Prefix range not fully cached: calculating start={}, count={}", start, count);
+        String digits;
+        try {
+            digits = work.calculate(start, count);
+        } catch (PiCalculationTimeoutException e) {
+            store(start, e.getPartialDigits());
+            throw e;
+        }
+        store(start, digits);
+        return digits;
+    }
+
+    /**
+     * Waits for the run of another request, polling the token.
+     *
+     * @return the run, or null if it failed
+     */
+    private static DigitCache.Flight await(CompletableFuture<DigitCache.Flight> flight, CancellationToken token) {
+        while (true) {
+            token.throwIfCancelled();
             try {
-                logger.info("Attempting parallel calculation with {} threads", threads);
-                return threadJoinStrategy.calculate(start, count, threads);
-                
-            } catch (Exception e) {
-                logger.warn("Parallel strategy failed: {}. Falling back to sequential.", e.getMessage());
-                logger.debug("Exception details:", e);
-                return sequentialStrategy.calculate(start, count, 1);
+                return flight.get(FLIGHT_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Check the token again
+            } catch (ExecutionException e) {
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CalculationCancelledException("Interrupted while waiting for a shared calculation");
             }
+        }
+    }
+
+    /**
+     * Stores the whole blocks within hex digits that start at a position.
+     */
+    private void store(int position, String digits) {
+        long block = cache.getBlockDigits();
+        long end = (long) position + digits.length();
+        for (long b = (position + block - 1) / block; (b + 1) * block <= end; b++) {
+            cache.write((int) b, digits, (int) (b * block - position));
+        }
+    }
+
+    /**
+     * Returns the counters of the digit cache.
+     */
+    public DigitCache.Stats getCacheStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Runs a hexadecimal calculation through the {@link ComputeScheduler},
+     * with its cost estimated for the kernel. Ranges expected to hold their slots longer
+     * than a scheduler slice are cut into slices of equal modelled cost on
+     * chunk boundaries, each scheduled on its own, so shorter requests run
+     * between them; on timeout the finished slices become the partial
+     * digits. Prefix ranges run in one piece on every core. The token is
+     * checked while a slice waits for its turn, so an abandoned request
+     * leaves the queue without holding admitted work.
+     */
+    private String schedule(int start, int count, int threads, PiKernel kernel, CancellationToken token,
+                            RangeCalculation work) {
+        if (isPrefixRange(start, count)) {
+            return scheduler.execute((long) count * PREFIX_NANOS_PER_DIGIT, Integer.MAX_VALUE, token,
+                    () -> work.calculate(start, count));
+        }
+        int weight = Math.max(1, Math.min(threads, scheduler.getSlots()));
+        double estimate = selector.estimateNanos(kernel, start, count);
+        int slices = (int) Math.min(Integer.MAX_VALUE,
+                Math.max(1, (long) (estimate / ((double) scheduler.getSliceNanos() * weight))));
+        if (slices == 1) {
+            return scheduler.execute((long) estimate, threads, token, () -> work.calculate(start, count));
+        }
+
+        int[] bounds = CostPartitioner.partition(start, count, slices);
+        long[] sliceNanos = new long[bounds.length - 1];
+        for (int i = 0; i < sliceNanos.length; i++) {
+            sliceNanos[i] = (long) selector.estimateNanos(kernel, start + bounds[i], bounds[i + 1] - bounds[i]);
+        }
+        logger.debug("Scheduling start={}, count={} as {} slices", start, count, sliceNanos.length);
+        StringBuilder digits = new StringBuilder(count);
+        try {
+            scheduler.execute(sliceNanos, threads, token,
+                    i -> digits.append(work.calculate(start + bounds[i], bounds[i + 1] - bounds[i])));
+        } catch (PiCalculationTimeoutException e) {
+            // The finished slices come before whatever the interrupted one completed
+            throw new PiCalculationTimeoutException(e.getMessage(), e.getElapsedMillis(),
+                    digits + e.getPartialDigits());
+        }
+        return digits.toString();
+    }
+
+    /**
+     * A calculation of the digits of one range.
+     */
+    @FunctionalInterface
+    private interface RangeCalculation {
+        String calculate(int start, int count);
+    }
 
-        } else {
+    private ParallelStrategy preferredParallelStrategy() {
+        for (String name : AUTO_PARALLEL) {
+            ParallelStrategy strategy = parallelStrategies.get(name);
+            if (strategy != null) {
+                return strategy;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Runs a parallel strategy. The strategies retry failed segments on their
+     * own and keep the completed ones, so a failure that gets here has run out
+     * of attempts; recomputing the whole range serially would only repeat it
+     * at a fraction of the speed.
+     */
+    private String calculateParallel(ParallelStrategy parallelStrategy, int start, int count, int threads,
+                                     PiKernel kernel, CancellationToken token) {
+        logger.info("Attempting parallel calculation with strategy {} and {} threads", parallelStrategy.name(), threads);
+        try {
+            return parallelStrategy.calculate(start, count, threads, kernel, token);
+        } catch (IllegalStateException e) {
+            logger.warn("Parallel strategy {} failed: {}", parallelStrategy.name(), e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Validates the threads parameter of a strategy.
+     *
+     * @param strategy strategy name, for the error message
+     * @param threads requested threads, may be null
+     * @param required whether the strategy needs the parameter
+     * @throws InvalidPiCalculationException if validation fails
+     */
+    private void validateThreads(String strategy, Integer threads, boolean required) {
+        if (threads == null) {
+            if (!required) {
+                return;
+            }
             throw new InvalidPiCalculationException(
-                    "Invalid strategy. Must be 'sequential' or 'threads'",
-                    "strategy", strategy);
+                String.format("Threads parameter is required when using '%s' strategy", strategy),
+                "threads", null);
+        }
+
+        if (threads <= 0) {
+            throw new InvalidPiCalculationException(
+                "Threads parameter must be greater than 0",
+                "threads", threads);
+        }
+
+        int maxThreads = scheduler.getMaxThreads();
+        if (threads > maxThreads) {
+            throw new InvalidPiCalculationException(
+            String.format("Threads parameter exceeds maximum allowed value of %d", maxThreads),
+            "threads", threads);
+        }
+    }
+
+    /**
+     * Calculates decimal digits of Pi after the decimal point.
+     *
+     * @param start starting position (0-indexed)
+     * @param count number of digits to calculate
+     * @return decimal string of Pi digits
+     * @throws InvalidPiCalculationException if parameters are invalid
+     */
+    public String calculateDecimal(int start, int count) {
+        return calculateDecimal(start, count, CancellationToken.withTimeout(TIMEOUT_MILLIS));
+    }
+
+    private String calculateDecimal(int start, int count, CancellationToken token) {
+        validatePositions(start, count);
+        if ((long) start + count > MAX_PREFIX_COUNT) {
+            throw new InvalidPiCalculationException(
+                String.format("Decimal digits are limited to the first %d positions", MAX_PREFIX_COUNT),
+                "start+count", (long) start + count);
+        }
+
+        long total = (long) start + count;
+        return scheduler.execute(total * PREFIX_NANOS_PER_DIGIT, Integer.MAX_VALUE, token,
+                () -> decimalString(start, count, token));
+    }
+
+    private String decimalString(int start, int count, CancellationToken token) {
+        long startTime = System.currentTimeMillis();
+        // The prefix engine checks the token throughout the series, the square root and the conversion
+        byte[] digits = prefixEngine.getDecimalDigits(start, count, token);
+        for (int i = 0; i < digits.length; i++) {
+            digits[i] += '0';
+        }
+
+        long elapsedTime = System.currentTimeMillis() - startTime;
+        logger.info("Decimal Pi calculation completed: start={}, count={}, time={}ms",
+                   start, count, elapsedTime);
+        return new String(digits, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Resolves the kernel requested by name, or the configured default.
+     *
+     * @param kernel kernel name, may be null
+     * @return the kernel
+     * @throws InvalidPiCalculationException if the name is unknown
+     */
+    private PiKernel resolveKernel(String kernel) {
+        if (kernel == null) {
+            return defaultKernel;
+        }
+        try {
+            return PiDigits.kernel(kernel);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPiCalculationException(
+                    "Invalid kernel. Must be 'bbp', 'bbp-simd' or 'bellard'",
+                    "kernel", kernel);
         }
     }
 }
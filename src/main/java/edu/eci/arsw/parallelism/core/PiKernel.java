@@ -0,0 +1,77 @@
+package edu.eci.arsw.parallelism.core;
+
+import java.util.Objects;
+
+/**
+ * Digit-extraction kernel for the hexadecimal digits of Pi.
+ *
+ * Implementations compute any range of digits after the radix point without
+ * computing the preceding ones, so strategies can split a request into
+ * independent segments and hand each one to the same kernel.
+ */
+public interface PiKernel {
+
+    /**
+     * Returns a range of hexadecimal digits of Pi (after the radix point).
+     *
+     * @param start 0-based position after the radix point
+     * @param count number of digits to return
+     * @return array of digits, each value 0..15
+     * @throws IllegalArgumentException if the interval is negative or past {@link #maxPosition()}
+     */
+    byte[] getDigits(int start, int count);
+
+    /**
+     * Writes a range of hexadecimal digits of Pi into out[offset, offset + count),
+     * each value 0..15, so that the segments of a request can be assembled in
+     * one shared array. The default copies the result of
+     * {@link #getDigits(int, int)}; kernels override it to write in place.
+     *
+     * @param start 0-based position after the radix point
+     * @param count number of digits to write
+     * @param out destination array
+     * @param offset index in out of the first digit
+     * @throws IllegalArgumentException if the interval is negative or past {@link #maxPosition()}
+     * @throws IndexOutOfBoundsException if the digits do not fit in out at offset
+     */
+    default void getDigits(int start, int count, byte[] out, int offset) {
+        Objects.checkFromIndexSize(offset, count, out.length);
+        System.arraycopy(getDigits(start, count), 0, out, offset, count);
+    }
+
+    /**
+     * Writes a range of hexadecimal digits of Pi into out[offset, offset + count)
+     * and stops early once token is cancelled. The default checks the token
+     * before and after {@link #getDigits(int, int, byte[], int)}; kernels
+     * override it to check between chunks.
+     *
+     * @param start 0-based position after the radix point
+     * @param count number of digits to write
+     * @param out destination array
+     * @param offset index in out of the first digit
+     * @param token cancellation of the calculation the range belongs to
+     * @throws IllegalArgumentException if the interval is negative or past {@link #maxPosition()}
+     * @throws IndexOutOfBoundsException if the digits do not fit in out at offset
+     * @throws edu.eci.arsw.parallelism.core.exceptions.CalculationCancelledException if token is cancelled
+     * @throws edu.eci.arsw.parallelism.core.exceptions.PiCalculationTimeoutException if the deadline of token passes
+     */
+    default void getDigits(int start, int count, byte[] out, int offset, CancellationToken token) {
+        token.throwIfCancelled();
+        getDigits(start, count, out, offset);
+        token.throwIfCancelled();
+    }
+
+    /**
+     * Returns the largest supported start + count for this kernel.
+     *
+     * @return maximum digit position
+     */
+    int maxPosition();
+
+    /**
+     * Returns the identifying name of the kernel.
+     *
+     * @return kernel name (e.g., "bbp", "bellard")
+     */
+    String name();
+}
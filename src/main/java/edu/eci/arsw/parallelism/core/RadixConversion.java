@@ -0,0 +1,134 @@
+package edu.eci.arsw.parallelism.core;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Divide-and-conquer conversion of a large {@link BigInteger} to decimal
+ * digits.
+ *
+ * The value is split as hi * 10^m + lo with m a power-of-two multiple of
+ * {@link #LEAF_DIGITS}, so both halves can be converted independently; the
+ * split divisors 10^(LEAF_DIGITS * 2^i) are computed once per conversion by
+ * repeated squaring. Halves run in parallel on a fork/join pool and write
+ * straight into their slice of the result, and leaves fall back to
+ * {@link BigInteger#toString()}. Every piece checks the
+ * {@link CancellationToken} of the conversion before it divides.
+ */
+final class RadixConversion {
+
+    /** Digits below which a piece is converted directly. */
+    static final int LEAF_DIGITS = 512;
+
+    /** Pieces with fewer digits are not forked. */
+    private static final int FORK_DIGITS = 16 * LEAF_DIGITS;
+
+    private RadixConversion() {
+    }
+
+    /**
+     * Returns the decimal digits of value, most significant first, padded
+     * with leading zeros to exactly {@code digits} entries.
+     *
+     * @param value non-negative value below 10^digits
+     * @param digits number of digits to produce
+     * @param pool pool used to convert independent halves in parallel
+     * @return digits, each 0..9
+     */
+    static byte[] toDecimal(BigInteger value, int digits, ForkJoinPool pool) {
+        return toDecimal(value, digits, pool, CancellationToken.NONE);
+    }
+
+    /**
+     * Returns the decimal digits of value as {@link #toDecimal(BigInteger, int, ForkJoinPool)},
+     * stopping at the next piece once token is cancelled.
+     *
+     * @param value non-negative value below 10^digits
+     * @param digits number of digits to produce
+     * @param pool pool used to convert independent halves in parallel
+     * @param token cancellation of the calculation the conversion belongs to
+     * @return digits, each 0..9
+     * @throws edu.eci.arsw.parallelism.core.exceptions.CalculationCancelledException if token is cancelled
+     * @throws edu.eci.arsw.parallelism.core.exceptions.PiCalculationTimeoutException if the deadline of token passes
+     */
+    static byte[] toDecimal(BigInteger value, int digits, ForkJoinPool pool, CancellationToken token) {
+        if (value.signum() < 0) {
+            throw new IllegalArgumentException("Value must be non-negative");
+        }
+        byte[] out = new byte[digits];
+
+        // powers[i] = 10^(LEAF_DIGITS * 2^i), up to the largest split needed
+        int levels = 0;
+        while ((long) LEAF_DIGITS << (levels + 1) < digits) {
+            levels++;
+        }
+        BigInteger[] powers = new BigInteger[levels + 1];
+        powers[0] = BigInteger.TEN.pow(LEAF_DIGITS);
+        for (int i = 1; i <= levels; i++) {
+            token.throwIfCancelled();
+            powers[i] = powers[i - 1].multiply(powers[i - 1]);
+        }
+
+        pool.invoke(new Piece(value, out, 0, digits, powers, token));
+        return out;
+    }
+
+    /**
+     * Converts one value into out[offset, offset + digits).
+     */
+    private static final class Piece extends RecursiveAction {
+
+        private final BigInteger value;
+        private final byte[] out;
+        private final int offset;
+        private final int digits;
+        private final BigInteger[] powers;
+        private final CancellationToken token;
+
+        Piece(BigInteger value, byte[] out, int offset, int digits, BigInteger[] powers, CancellationToken token) {
+            this.value = value;
+            this.out = out;
+            this.offset = offset;
+            this.digits = digits;
+            this.powers = powers;
+            this.token = token;
+        }
+
+        @Override
+        protected void compute() {
+            token.throwIfCancelled();
+            if (digits <= LEAF_DIGITS) {
+                if (value.signum() == 0) {
+                    return;
+                }
+                String text = value.toString();
+                if (text.length() > digits) {
+                    throw new IllegalArgumentException("Value has more than " + digits + " digits");
+                }
+                int pad = digits - text.length();
+                for (int i = 0; i < text.length(); i++) {
+                    out[offset + pad + i] = (byte) (text.charAt(i) - '0');
+                }
+                return;
+            }
+
+            // Largest power-of-two multiple of the leaf size strictly below digits
+            int level = 0;
+            while ((long) LEAF_DIGITS << (level + 1) < digits) {
+                level++;
+            }
+            int low = LEAF_DIGITS << level;
+            BigInteger[] parts = value.divideAndRemainder(powers[level]);
+
+            Piece high = new Piece(parts[0], out, offset, digits - low, powers, token);
+            Piece rest = new Piece(parts[1], out, offset + digits - low, low, powers, token);
+            if (digits > FORK_DIGITS) {
+                invokeAll(high, rest);
+            } else {
+                high.compute();
+                rest.compute();
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package edu.eci.arsw.parallelism.core;
+
+import edu.eci.arsw.parallelism.core.exceptions.CalculationCancelledException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Speculatively fills the {@link DigitCache} with the next page of clients
+ * that read Pi in order, so each page after the first is a cache lookup.
+ *
+ * The end of the last range served is remembered per client, for at most
+ * {@code pi.prefetch.max-clients} clients, least recently seen forgotten
+ * first. A read that starts at 0, or where the client's previous one ended,
+ * is sequential, and the range of the same length after it, capped at
+ * {@code pi.prefetch.max-digits}, is queued for the background.
+ *
+ * The speculation is bounded: one thread of minimum priority calculates
+ * the queued ranges in small batches, each through
+ * {@link ComputeScheduler#runWhenIdle(int, CancellationToken, java.util.function.Consumer)},
+ * so only while at most {@code pi.prefetch.max-busy-slots} scheduler slots
+ * are busy and no request waits. At most {@code pi.prefetch.max-pending}
+ * ranges wait, the oldest dropped for a newer one, and a range whose batch
+ * backs off is dropped rather than retried; the client's own request
+ * calculates whatever is missing.
+ *
+ * Blocks are claimed in the {@link DigitCache} while they are calculated
+ * (see {@link DigitCache#fill(int, int, PiKernel, CancellationToken)}),
+ * as requests claim theirs, so a request for the next page that arrives
+ * mid-batch waits for the prefetch instead of calculating the same blocks,
+ * and the prefetch skips blocks a request is already calculating.
+ */
+@Component
+public class SequentialPrefetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(SequentialPrefetcher.class);
+
+    private final DigitCache cache;
+    private final ComputeScheduler scheduler;
+    private final PiKernel kernel;
+    private final int maxDigits;
+    private final int maxBusySlots;
+    private final Map<String, Integer> lastEnds;
+    private final ThreadPoolExecutor executor;
+    private final CancellationToken stop = new CancellationToken();
+    private final AtomicLong prefetchedBlocks = new AtomicLong();
+    private final AtomicLong droppedRanges = new AtomicLong();
+
+    /**
+     * Creates a prefetcher that does nothing.
+     */
+    public SequentialPrefetcher() {
+        this(new DigitCache(0, 64), new ComputeScheduler(), false, 1, 1, 1, 0, "bbp");
+    }
+
+    /**
+     * @param cache cache the blocks are written to
+     * @param scheduler scheduler whose load the prefetching yields to
+     * @param enabled whether to prefetch at all
+     * @param maxDigits digits prefetched after a read at most
+     * @param maxPending ranges waiting to be prefetched at most
+     * @param maxClients clients whose last read is remembered at most
+     * @param maxBusySlots busy slots the prefetching tolerates
+     * @param kernel name of the kernel that calculates the blocks
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    @Autowired
+    public SequentialPrefetcher(DigitCache cache, ComputeScheduler scheduler,
+                                @Value("${pi.prefetch.enabled:true}") boolean enabled,
+                                @Value("${pi.prefetch.max-digits:4096}") int maxDigits,
+                                @Value("${pi.prefetch.max-pending:16}") int maxPending,
+                                @Value("${pi.prefetch.max-clients:10000}") int maxClients,
+                                @Value("${pi.prefetch.max-busy-slots:0}") int maxBusySlots,
+                                @Value("${pi.kernel:bbp}") String kernel) {
+        if (maxDigits <= 0 || maxPending <= 0 || maxClients <= 0 || maxBusySlots < 0) {
+            throw new IllegalArgumentException("Invalid prefetch configuration");
+        }
+        this.cache = cache;
+        this.scheduler = scheduler;
+        this.kernel = PiDigits.kernel(kernel);
+        this.maxDigits = maxDigits;
+        this.maxBusySlots = maxBusySlots;
+        this.lastEnds = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > maxClients;
+            }
+        };
+        if (enabled && cache.isEnabled()) {
+            this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(maxPending), task -> {
+                        Thread thread = new Thread(task, "pi-prefetch");
+                        thread.setDaemon(true);
+                        thread.setPriority(Thread.MIN_PRIORITY);
+                        return thread;
+                    }, (task, pool) -> {
+                        if (!pool.isShutdown()) {
+                            pool.getQueue().poll();
+                            droppedRanges.incrementAndGet();
+                            pool.execute(task);
+                        }
+                    });
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * Returns whether reads are tracked and prefetched.
+     */
+    public boolean isEnabled() {
+        return executor != null;
+    }
+
+    /**
+     * Records that a client was served hex digits [start, start + count)
+     * and, if the read starts at 0 or follows its previous one, queues the
+     * next range.
+     *
+     * @param client key of the client, such as its address; null is not tracked
+     * @param start first position served
+     * @param count number of digits served
+     */
+    public void observe(String client, int start, int count) {
+        if (!isEnabled() || client == null || count <= 0) {
+            return;
+        }
+        int end = (int) Math.min((long) start + count, Integer.MAX_VALUE);
+        Integer previousEnd;
+        synchronized (lastEnds) {
+            previousEnd = lastEnds.put(client, end);
+        }
+        if (start != 0 && (previousEnd == null || previousEnd != start)) {
+            return;
+        }
+        int next = (int) Math.min(Math.min(count, maxDigits), (long) kernel.maxPosition() - end);
+        if (next <= 0) {
+            return;
+        }
+        int block = cache.getBlockDigits();
+        int first = end / block;
+        int last = (end + next - 1) / block;
+        for (int b = first; b <= last; b++) {
+            if (!cache.contains(b)) {
+                int missing = b;
+                executor.execute(() -> prefetch(missing, last));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stops the background thread at its next check and drops the queued ranges.
+     */
+    @PreDestroy
+    public void shutdown() {
+        stop.cancel("Service stopping");
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the number of blocks prefetched so far.
+     */
+    public long getPrefetchedBlocks() {
+        return prefetchedBlocks.get();
+    }
+
+    /**
+     * Returns the number of ranges dropped because the queue was full or the service busy.
+     */
+    public long getDroppedRanges() {
+        return droppedRanges.get();
+    }
+
+    /**
+     * Returns whether no range is being or waiting to be prefetched.
+     */
+    boolean isIdle() {
+        return executor == null || executor.getCompletedTaskCount() == executor.getTaskCount();
+    }
+
+    private void prefetch(int first, int last) {
+        try {
+            for (int from = first; from <= last && !stop.isCancelled(); ) {
+                if (cache.contains(from)) {
+                    from++;
+                    continue;
+                }
+                int to = from;
+                while (to < last && to - from + 1 < DigitPrecomputer.BATCH_BLOCKS && !cache.contains(to + 1)) {
+                    to++;
+                }
+                int batchFirst = from;
+                int batchLast = to;
+                if (!scheduler.runWhenIdle(maxBusySlots, stop, token -> prefetchedBlocks.addAndGet(cache.fill(batchFirst, batchLast, kernel, token)))) {
+                    droppedRanges.incrementAndGet();
+                    return;
+                }
+                from = to + 1;
+            }
+        } catch (CalculationCancelledException e) {
+            logger.debug("Prefetch of blocks {} to {} backed off: {}", first, last, e.getMessage());
+            droppedRanges.incrementAndGet();
+        } catch (RuntimeException e) {
+            logger.warn("Prefetch of blocks {} to {} failed", first, last, e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package edu.eci.arsw.parallelism.core;
+
+/**
+ * BBP kernel that evaluates groups of consecutive terms in SIMD lanes, using
+ * the incubating {@code jdk.incubator.vector} API (see {@link BbpLanes}).
+ *
+ * The lanes are only compiled with the Maven profile {@code simd}, and the
+ * module is only resolved when the JVM is started with
+ * {@code --add-modules jdk.incubator.vector}. The lanes are loaded by name
+ * once both hold; otherwise this kernel takes the scalar {@link BbpKernel}
+ * path, so it is always safe to select, and the vector classes are never
+ * loaded.
+ *
+ * Both paths produce bit-identical residues, and accumulation is shared, so
+ * the digits do not depend on which one ran. Whether the lanes beat the
+ * scalar chains depends on the JIT and the CPU, so this kernel is opt-in;
+ * compare it against "bbp" before making it the default through pi.kernel.
+ */
+final class SimdBbpKernel extends BinarySeriesKernel {
+
+    static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    private static final Lanes LANES = loadLanes();
+    private static final boolean VECTOR_API_AVAILABLE = LANES != null;
+
+    private final BbpKernel scalar = new BbpKernel();
+    private final boolean vectorized;
+
+    SimdBbpKernel() {
+        this(VECTOR_API_AVAILABLE);
+    }
+
+    /**
+     * @param vectorized whether to use the vector lanes; must only be true when
+     *                   the vector module is available
+     */
+    SimdBbpKernel(boolean vectorized) {
+        super("bbp-simd", 4, 0, false, BbpKernel.SERIES);
+        if (vectorized && !VECTOR_API_AVAILABLE) {
+            throw new IllegalStateException("Module " + VECTOR_MODULE + " is not available");
+        }
+        this.vectorized = vectorized;
+    }
+
+    /**
+     * The vector sweep, implemented by {@link BbpLanes}.
+     */
+    interface Lanes {
+        void sweep(BbpKernel scalar, int n0, int chunks, long[] acc, CancellationToken token);
+    }
+
+    private static Lanes loadLanes() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return null;
+        }
+        try {
+            return (Lanes) Class.forName(SimdBbpKernel.class.getPackageName() + ".BbpLanes")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Built without the simd profile
+            return null;
+        }
+    }
+
+    /**
+     * Whether the running JVM resolved the vector module and the lanes were compiled in.
+     */
+    static boolean vectorApiAvailable() {
+        return VECTOR_API_AVAILABLE;
+    }
+
+    /**
+     * Whether this kernel evaluates its terms in vector lanes.
+     */
+    boolean isVectorized() {
+        return vectorized;
+    }
+
+    @Override
+    void sweep(int n0, int chunks, long[] acc, CancellationToken token) {
+        if (vectorized) {
+            LANES.sweep(scalar, n0, chunks, acc, token);
+        } else {
+            scalar.sweep(n0, chunks, acc, token);
+        }
+    }
+}
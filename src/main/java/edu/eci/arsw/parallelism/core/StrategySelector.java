@@ -0,0 +1,152 @@
+package edu.eci.arsw.parallelism.core;
+
+import edu.eci.arsw.parallelism.concurrency.CostPartitioner;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chooses between a sequential and a parallel calculation, and how many
+ * threads the parallel one gets, for requests with strategy 'auto'.
+ *
+ * The expected sequential time is the {@link CostPartitioner#cost(int, int)}
+ * of the range times a rate in nanoseconds per cost unit. Each kernel has its
+ * own rate: it starts at the rate measured once at construction and then
+ * follows the sequential calculations that kernel actually served, as an
+ * exponential moving average updated atomically, so concurrent observations
+ * are not lost and one kernel's timings never skew another's estimate.
+ * Requests expected to finish in
+ * under {@link #PARALLEL_MIN_NANOS} stay on the request thread, since handing
+ * them out costs more than it saves; longer ones get one thread per
+ * {@link #SEGMENT_MIN_NANOS} of work, but never more than their share of
+ * the cores among the calculations in flight. Under load every request
+ * therefore runs close to sequentially, which keeps whole-server throughput
+ * up rather than the speedup of single requests.
+ */
+final class StrategySelector {
+
+    /** Expected time below which a request is not split. */
+    static final long PARALLEL_MIN_NANOS = 2_000_000;
+
+    /** Least expected work per thread of a split request. */
+    static final long SEGMENT_MIN_NANOS = 1_000_000;
+
+    /** Weight of each new observation in the rate. */
+    private static final double SMOOTHING = 0.2;
+
+    private final int cores;
+    private final double initialNanosPerUnit;
+    /** Rate per kernel name, as the bits of a double. */
+    private final Map<String, AtomicLong> nanosPerUnit = new ConcurrentHashMap<>();
+
+    /**
+     * The choice for one request.
+     *
+     * @param threads threads to use; 1 means sequential
+     */
+    record Choice(int threads) {
+
+        boolean sequential() {
+            return threads <= 1;
+        }
+    }
+
+    /**
+     * Creates a selector calibrated against the default kernel.
+     *
+     * @param cores number of cores available to calculations
+     */
+    StrategySelector(int cores) {
+        this(cores, calibrate());
+    }
+
+    /**
+     * @param cores number of cores available to calculations
+     * @param nanosPerUnit initial rate of every kernel, in nanoseconds per cost unit
+     */
+    StrategySelector(int cores, double nanosPerUnit) {
+        if (cores <= 0 || !(nanosPerUnit > 0)) {
+            throw new IllegalArgumentException("Cores and rate must be positive");
+        }
+        this.cores = cores;
+        this.initialNanosPerUnit = nanosPerUnit;
+    }
+
+    /**
+     * Chooses the number of threads for a range.
+     *
+     * @param kernel kernel that will calculate the range
+     * @param start starting position
+     * @param count number of digits
+     * @param inFlight calculations running, this one included
+     * @param maxThreads upper bound requested by the client, may be null
+     * @return the choice
+     */
+    Choice choose(PiKernel kernel, int start, int count, int inFlight, Integer maxThreads) {
+        double expected = estimateNanos(kernel, start, count);
+        if (expected < PARALLEL_MIN_NANOS) {
+            return new Choice(1);
+        }
+        int share = Math.max(1, cores / Math.max(1, inFlight));
+        int chunks = (count + PiDigits.DIGITS_PER_CHUNK - 1) / PiDigits.DIGITS_PER_CHUNK;
+        long threads = Math.min(share, Math.min(chunks, (long) (expected / SEGMENT_MIN_NANOS)));
+        if (maxThreads != null) {
+            threads = Math.min(threads, maxThreads);
+        }
+        return new Choice((int) Math.max(1, threads));
+    }
+
+    /**
+     * Returns the expected sequential time of a range on a kernel.
+     */
+    double estimateNanos(PiKernel kernel, int start, int count) {
+        return nanosPerUnit(kernel) * CostPartitioner.cost(start, count);
+    }
+
+    /**
+     * Folds the time of a sequential calculation into its kernel's rate.
+     *
+     * @param kernel kernel that calculated the range
+     * @param start starting position
+     * @param count number of digits
+     * @param elapsedNanos time the calculation took
+     */
+    void observe(PiKernel kernel, int start, int count, long elapsedNanos) {
+        long cost = CostPartitioner.cost(start, count);
+        if (cost <= 0 || elapsedNanos <= 0) {
+            return;
+        }
+        double observed = (double) elapsedNanos / cost;
+        rate(kernel).updateAndGet(bits ->
+                Double.doubleToLongBits((1 - SMOOTHING) * Double.longBitsToDouble(bits) + SMOOTHING * observed));
+    }
+
+    /**
+     * Returns the current rate of a kernel, in nanoseconds per cost unit.
+     */
+    double nanosPerUnit(PiKernel kernel) {
+        return Double.longBitsToDouble(rate(kernel).get());
+    }
+
+    private AtomicLong rate(PiKernel kernel) {
+        return nanosPerUnit.computeIfAbsent(kernel.name(),
+                name -> new AtomicLong(Double.doubleToLongBits(initialNanosPerUnit)));
+    }
+
+    /**
+     * Times a few small ranges on the default kernel and keeps the fastest,
+     * which is the least disturbed by JIT compilation and other work.
+     */
+    private static double calibrate() {
+        int start = 2_048;
+        int count = 128;
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long begin = System.nanoTime();
+            PiDigits.BBP.getDigits(start, count);
+            best = Math.min(best, System.nanoTime() - begin);
+        }
+        return Math.max(1, best) / (double) CostPartitioner.cost(start, count);
+    }
+}
@@ -0,0 +1,8 @@
+package edu.eci.arsw.parallelism.core.exceptions;
+
+public class CalculationCancelledException extends RuntimeException {
+
+    public CalculationCancelledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package edu.eci.arsw.parallelism.core.exceptions;
+
+public class ComputeSaturatedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ComputeSaturatedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -3,13 +3,26 @@ package edu.eci.arsw.parallelism.core.exceptions;
 public class PiCalculationTimeoutException extends RuntimeException {
     
     private final long elapsedMillis;
+    private final String partialDigits;
     
     public PiCalculationTimeoutException(String message, long elapsedMillis) {
+        this(message, elapsedMillis, "");
+    }
+    
+    /**
+     * @param partialDigits the digits from the start of the range that were complete when time ran out
+     */
+    public PiCalculationTimeoutException(String message, long elapsedMillis, String partialDigits) {
         super(message);
         this.elapsedMillis = elapsedMillis;
+        this.partialDigits = partialDigits;
     }
     
     public long getElapsedMillis() {
         return elapsedMillis;
     }
-}
\ No newline at end of file
+    
+    public String getPartialDigits() {
+        return partialDigits;
+    }
+}
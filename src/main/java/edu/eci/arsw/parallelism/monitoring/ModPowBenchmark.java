@@ -0,0 +1,122 @@
+package edu.eci.arsw.parallelism.monitoring;
+
+import edu.eci.arsw.parallelism.core.ModPow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Microbenchmark for the modular exponentiation kernel.
+ * Compares the original square-and-multiply loop (hardware % on every step)
+ * against the Barrett-reduced {@link ModPow} kernel over the same moduli.
+ */
+public class ModPowBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModPowBenchmark.class);
+
+    private static final int WARMUP_ROUNDS = 3;
+
+    /**
+     * Runs the original kernel over the BBP-shaped workload for position n:
+     * 16^(n-k) mod (8k+1) for k = 0..n-1.
+     *
+     * @param n digit position
+     * @return execution time in nanoseconds
+     */
+    public long runLegacy(int n) {
+        long startTime = System.nanoTime();
+        long checksum = 0;
+        for (int k = 0; k < n; k++) {
+            checksum += legacyHexExponentModulo(n - k, 8L * k + 1);
+        }
+        long elapsed = System.nanoTime() - startTime;
+        logger.debug("legacy checksum={}", checksum);
+        return elapsed;
+    }
+
+    /**
+     * Runs the {@link ModPow} kernel over the same workload as {@link #runLegacy(int)}.
+     *
+     * @param n digit position
+     * @return execution time in nanoseconds
+     */
+    public long runKernel(int n) {
+        long startTime = System.nanoTime();
+        long checksum = 0;
+        for (int k = 0; k < n; k++) {
+            checksum += ModPow.pow16(n - k, 8L * k + 1);
+        }
+        long elapsed = System.nanoTime() - startTime;
+        logger.debug("kernel checksum={}", checksum);
+        return elapsed;
+    }
+
+    /**
+     * Runs both kernels for the given position and logs the speedup.
+     *
+     * @param n digit position
+     * @return speedup of the kernel over the legacy loop
+     */
+    public double runComparison(int n) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            runLegacy(n);
+            runKernel(n);
+        }
+
+        long legacyTime = runLegacy(n);
+        long kernelTime = runKernel(n);
+        double speedup = (double) legacyTime / Math.max(1, kernelTime);
+
+        logger.info("{} {} ms", String.format("%-35s", "Legacy modpow (n=" + n + ")"), legacyTime / 1_000_000);
+        logger.info("{} {} ms (Speedup: {}x)", String.format("%-35s", "Barrett modpow (n=" + n + ")"),
+                kernelTime / 1_000_000, String.format("%.2f", speedup));
+
+        return speedup;
+    }
+
+    /**
+     * The square-and-multiply loop PiDigits used before the Barrett kernel,
+     * widened to long so it stays correct for large moduli.
+     */
+    static long legacyHexExponentModulo(long p, long m) {
+        long power = 1;
+        while (power * 2 <= p) {
+            power *= 2;
+        }
+
+        long result = 1;
+
+        while (power > 0) {
+            if (p >= power) {
+                result *= 16;
+                result %= m;
+                p -= power;
+            }
+
+            power /= 2;
+
+            if (power > 0) {
+                result *= result;
+                result %= m;
+            }
+        }
+
+        return result % m;
+    }
+
+    /**
+     * Main method to execute the benchmark.
+     */
+    public static void main(String[] args) {
+        ModPowBenchmark benchmark = new ModPowBenchmark();
+
+        logger.info("");
+        logger.info("MODPOW KERNEL BENCHMARK");
+        logger.info("");
+
+        for (int n : new int[]{10_000, 100_000, 1_000_000}) {
+            benchmark.runComparison(n);
+        }
+
+        logger.info("");
+    }
+}
@@ -1,5 +1,8 @@
 package edu.eci.arsw.parallelism.monitoring;
 
+import edu.eci.arsw.parallelism.concurrency.ForkJoinStrategy;
+import edu.eci.arsw.parallelism.concurrency.GuidedStrategy;
+import edu.eci.arsw.parallelism.concurrency.PoolStrategy;
 import edu.eci.arsw.parallelism.concurrency.SequentialStrategy;
 import edu.eci.arsw.parallelism.concurrency.ThreadJoinStrategy;
 import org.slf4j.Logger;
@@ -15,19 +18,25 @@ public class PiBenchmark {
 
     private final SequentialStrategy sequentialStrategy;
     private final ThreadJoinStrategy threadJoinStrategy;
+    private final PoolStrategy poolStrategy;
+    private final GuidedStrategy guidedStrategy;
+    private final ForkJoinStrategy forkJoinStrategy;
 
     public PiBenchmark() {
         this.sequentialStrategy = new SequentialStrategy();
         this.threadJoinStrategy = new ThreadJoinStrategy();
+        this.poolStrategy = new PoolStrategy();
+        this.guidedStrategy = new GuidedStrategy();
+        this.forkJoinStrategy = new ForkJoinStrategy();
     }
 
     /**
      * Runs a single benchmark test and returns execution time in milliseconds.
      *
-     * @param strategy "sequential" or "threads"
+     * @param strategy "sequential", "threads", "pool", "guided" or "forkjoin"
      * @param start starting position
      * @param count number of digits
-     * @param threads number of threads (ignored for sequential)
+     * @param threads number of threads (ignored for sequential; the minimum number of pieces for forkjoin)
      * @return execution time in milliseconds
      */
     public long runSingleTest(String strategy, int start, int count, int threads) {
@@ -35,6 +44,12 @@ public class PiBenchmark {
 
         if ("sequential".equals(strategy)) {
             sequentialStrategy.calculate(start, count, 1);
+        } else if ("pool".equals(strategy)) {
+            poolStrategy.calculate(start, count, threads);
+        } else if ("guided".equals(strategy)) {
+            guidedStrategy.calculate(start, count, threads);
+        } else if ("forkjoin".equals(strategy)) {
+            forkJoinStrategy.calculate(start, count, threads);
         } else {
             threadJoinStrategy.calculate(start, count, threads);
         }
@@ -76,6 +91,62 @@ public class PiBenchmark {
             long time = runSingleTest("threads", start, count, threadConfigs[i]);
             double speedup = (double) seqTime / time;
             logger.info("{} {} ms (Speedup: {}x)", String.format("%-35s", labels[i]), time, String.format("%.2f", speedup));
+
+            // Same thread count, blocks claimed at run time instead of a static split
+            long guidedTime = runSingleTest("guided", start, count, threadConfigs[i]);
+            logger.info("{} {} ms (Speedup: {}x)", String.format("%-35s", labels[i].replace("Threads", "Guided")),
+                    guidedTime, String.format("%.2f", (double) seqTime / guidedTime));
+        }
+
+        long poolTime = runSingleTest("pool", start, count, availableProcessors);
+        logger.info("{} {} ms (Speedup: {}x)", String.format("%-35s", "Pool (segments=" + availableProcessors + ")"),
+                poolTime, String.format("%.2f", (double) seqTime / poolTime));
+
+        long forkJoinTime = runSingleTest("forkjoin", start, count, 1);
+        logger.info("{} {} ms (Speedup: {}x)", String.format("%-35s", "ForkJoin (cost-sized pieces)"),
+                forkJoinTime, String.format("%.2f", (double) seqTime / forkJoinTime));
+
+        logger.info("");
+    }
+
+    /**
+     * Compares forkjoin pieces sized by cost with more, smaller pieces far
+     * from 0, where every piece pays for the modular powers at its offset
+     * before sweeping its chunks; the strategies that split into one
+     * segment per core are measured alongside.
+     *
+     * @param start starting position, far from 0
+     * @param count number of digits to calculate
+     */
+    public void runDeepOffsetBenchmark(int start, int count) {
+        int availableProcessors = Runtime.getRuntime().availableProcessors();
+
+        logger.info("");
+        logger.info("PI DIGITS BENCHMARK AT A DEEP OFFSET");
+        logger.info("");
+        logger.info("Start: {}, Count: {}", start, count);
+        logger.info("");
+
+        long seqTime = runSingleTest("sequential", start, count, 1);
+        logger.info("{} {} ms", String.format("%-35s", "Sequential"), seqTime);
+
+        // The cost per chunk is about uniform here, so count / 256 pieces are pieces of about 256 digits
+        int smallPieces = Math.max(1, (count + 255) / 256);
+        String[] labels = {
+                "ForkJoin (cost-sized pieces)",
+                "ForkJoin (threads=" + smallPieces + ", ~256 digits)",
+                "Pool (segments=" + availableProcessors + ")",
+                "Guided (threads=" + availableProcessors + ")"
+        };
+        long[] times = {
+                runSingleTest("forkjoin", start, count, 1),
+                runSingleTest("forkjoin", start, count, smallPieces),
+                runSingleTest("pool", start, count, availableProcessors),
+                runSingleTest("guided", start, count, availableProcessors)
+        };
+        for (int i = 0; i < labels.length; i++) {
+            logger.info("{} {} ms (Speedup: {}x)", String.format("%-35s", labels[i]), times[i],
+                    String.format("%.2f", (double) seqTime / Math.max(1, times[i])));
         }
 
         logger.info("");
@@ -91,5 +162,6 @@ public class PiBenchmark {
         int count = 10000;
 
         benchmark.runFullBenchmark(start, count);
+        benchmark.runDeepOffsetBenchmark(100_000, 4_096);
     }
 }
@@ -1,11 +1,15 @@
 package edu.eci.arsw.parallelism.api;
 
+import edu.eci.arsw.parallelism.core.exceptions.ComputeSaturatedException;
+import edu.eci.arsw.parallelism.core.exceptions.PiCalculationTimeoutException;
 import jakarta.validation.ConstraintViolationException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
@@ -64,6 +68,33 @@ class GlobalExceptionHandlerTest {
         assertTrue(response.getBody().get("message").toString().contains("Invalid parameter type: start"));
     }
 
+    @Test
+    @DisplayName("Should handle ComputeSaturatedException with 429 status and Retry-After")
+    void shouldHandleSaturated() {
+        ComputeSaturatedException ex = new ComputeSaturatedException("Server is at capacity, retry later", 12);
+
+        ResponseEntity<Map<String, Object>> response = handler.handleSaturated(ex);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("12", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertNotNull(response.getBody());
+        assertEquals(429, response.getBody().get("status"));
+        assertEquals("Server is at capacity, retry later", response.getBody().get("message"));
+    }
+
+    @Test
+    @DisplayName("Should handle timeouts with 503 status")
+    void shouldHandleTimeout() {
+        ResponseEntity<Map<String, Object>> response =
+            handler.handleTimeout(new PiCalculationTimeoutException("Calculation exceeded maximum allowed time", 31_000));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(503, response.getBody().get("status"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+            handler.handleTimeout(new AsyncRequestTimeoutException()).getStatusCode());
+    }
+
     @Test
     @DisplayName("Should handle IllegalArgumentException with 400 status")
     void shouldHandleIllegalArgument() {
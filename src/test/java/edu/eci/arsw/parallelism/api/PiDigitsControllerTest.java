@@ -7,13 +7,22 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import edu.eci.arsw.parallelism.core.PiDigits;
+import edu.eci.arsw.parallelism.core.DigitCache;
 import org.springframework.http.MediaType;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -23,25 +32,59 @@ class PiDigitsControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private DigitCache cache;
+
+    @Autowired
+    @Qualifier(RequestExecutorConfig.REQUEST_EXECUTOR)
+    private SimpleAsyncTaskExecutor requestExecutor;
+
+    /**
+     * Performs a request and, when the controller answered asynchronously,
+     * the dispatch that renders its result.
+     */
+    private ResultActions perform(MockHttpServletRequestBuilder request) throws Exception {
+        ResultActions actions = mockMvc.perform(request);
+        MvcResult result = actions.andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            return mockMvc.perform(asyncDispatch(result));
+        }
+        return actions;
+    }
+
     // ========== Happy Path Tests ==========
 
     @Test
     @DisplayName("Should return Pi digits successfully with valid parameters")
     void shouldReturnDigits() throws Exception {
-        mockMvc.perform(get("/api/v1/pi/digits")
+        perform(get("/api/v1/pi/digits")
                 .param("start", "0")
                 .param("count", "5"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.start").value(0))
                 .andExpect(jsonPath("$.count").value(5))
-                .andExpect(jsonPath("$.digits").value("243F6"));
+                .andExpect(jsonPath("$.digits").value("243F6"))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should return every digit without a continuation when partial results are allowed")
+    void shouldReturnCompleteDigitsWithPartial() throws Exception {
+        perform(get("/api/v1/pi/digits")
+                .param("start", "5")
+                .param("count", "5")
+                .param("partial", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(5))
+                .andExpect(jsonPath("$.digits").value("A8885"))
+                .andExpect(jsonPath("$.next").doesNotExist());
     }
 
     @Test
     @DisplayName("Should return single digit")
     void shouldReturnSingleDigit() throws Exception {
-        mockMvc.perform(get("/api/v1/pi/digits")
+        perform(get("/api/v1/pi/digits")
                 .param("start", "0")
                 .param("count", "1"))
                 .andExpect(status().isOk())
@@ -60,7 +103,7 @@ class PiDigitsControllerTest {
     })
     void shouldReturnDigitsFromDifferentPositions(int start, int count, String expected) 
             throws Exception {
-        mockMvc.perform(get("/api/v1/pi/digits")
+        perform(get("/api/v1/pi/digits")
                 .param("start", String.valueOf(start))
                 .param("count", String.valueOf(count)))
                 .andExpect(status().isOk())
@@ -70,7 +113,7 @@ class PiDigitsControllerTest {
     @Test
     @DisplayName("Should handle large count values")
     void shouldHandleLargeCount() throws Exception {
-        mockMvc.perform(get("/api/v1/pi/digits")
+        perform(get("/api/v1/pi/digits")
                 .param("start", "0")
                 .param("count", "100"))
                 .andExpect(status().isOk())
@@ -83,7 +126,7 @@ class PiDigitsControllerTest {
     @Test
     @DisplayName("Should return 400 for negative start position")
     void shouldReturnBadRequestForNegativeStart() throws Exception {
-        mockMvc.perform(get("/api/v1/pi/digits")
+        perform(get("/api/v1/pi/digits")
                 .param("start", "-1")
                 .param("count", "5"))
                 .andExpect(status().isBadRequest());
@@ -92,7 +135,7 @@ class PiDigitsControllerTest {
     @Test
     @DisplayName("Should return 400 for negative count")
     void shouldReturnBadRequestForNegativeCount() throws Exception {
-        mockMvc.perform(get("/api/v1/pi/digits")
+        perform(get("/api/v1/pi/digits")
                 .param("start", "0")
                 .param("count", "-1"))
                 .andExpect(status().isBadRequest());
@@ -101,7 +144,7 @@ class PiDigitsControllerTest {
     @Test
     @DisplayName("Should return 400 for zero count")
     void shouldReturnBadRequestForZeroCount() throws Exception {
-        mockMvc.perform(get("/api/v1/pi/digits")
+        perform(get("/api/v1/pi/digits")
                 .param("start", "0")
                 .param("count", "0"))
                 .andExpect(status().isBadRequest());
@@ -110,7 +153,7 @@ class PiDigitsControllerTest {
     @Test
     @DisplayName("Should return 400 when start parameter is missing")
     void shouldReturnBadRequestWhenStartMissing() throws Exception {
-        mockMvc.perform(get("/api/v1/pi/digits")
+        perform(get("/api/v1/pi/digits")
                 .param("count", "5"))
                 .andExpect(status().isBadRequest());
     }
@@ -118,7 +161,7 @@ class PiDigitsControllerTest {
     @Test
     @DisplayName("Should return 400 when count parameter is missing")
     void shouldReturnBadRequestWhenCountMissing() throws Exception {
-        mockMvc.perform(get("/api/v1/pi/digits")
+        perform(get("/api/v1/pi/digits")
                 .param("start", "0"))
                 .andExpect(status().isBadRequest());
     }
@@ -126,7 +169,7 @@ class PiDigitsControllerTest {
     @Test
     @DisplayName("Should return 400 for invalid parameter types")
     void shouldReturnBadRequestForInvalidParameterTypes() throws Exception {
-        mockMvc.perform(get("/api/v1/pi/digits")
+        perform(get("/api/v1/pi/digits")
                 .param("start", "abc")
                 .param("count", "xyz"))
                 .andExpect(status().isBadRequest());
@@ -137,7 +180,7 @@ class PiDigitsControllerTest {
     @Test
     @DisplayName("Should return response with correct JSON structure")
     void shouldReturnCorrectJsonStructure() throws Exception {
-        mockMvc.perform(get("/api/v1/pi/digits")
+        perform(get("/api/v1/pi/digits")
                 .param("start", "0")
                 .param("count", "5"))
                 .andExpect(status().isOk())
@@ -153,7 +196,7 @@ class PiDigitsControllerTest {
     @Test
     @DisplayName("Should return only hexadecimal characters in digits field")
     void shouldReturnOnlyHexCharacters() throws Exception {
-        mockMvc.perform(get("/api/v1/pi/digits")
+        perform(get("/api/v1/pi/digits")
                 .param("start", "0")
                 .param("count", "20"))
                 .andExpect(status().isOk())
@@ -165,7 +208,7 @@ class PiDigitsControllerTest {
     @Test
     @DisplayName("Should return consistent results for repeated requests")
     void shouldReturnConsistentResults() throws Exception {
-        String result1 = mockMvc.perform(get("/api/v1/pi/digits")
+        String result1 = perform(get("/api/v1/pi/digits")
                 .param("start", "10")
                 .param("count", "10"))
                 .andExpect(status().isOk())
@@ -173,7 +216,7 @@ class PiDigitsControllerTest {
                 .getResponse()
                 .getContentAsString();
 
-        String result2 = mockMvc.perform(get("/api/v1/pi/digits")
+        String result2 = perform(get("/api/v1/pi/digits")
                 .param("start", "10")
                 .param("count", "10"))
                 .andExpect(status().isOk())
@@ -189,7 +232,7 @@ class PiDigitsControllerTest {
     @Test
     @DisplayName("Should accept requests with various acceptable headers")
     void shouldAcceptRequestWithAcceptHeader() throws Exception {
-        mockMvc.perform(get("/api/v1/pi/digits")
+        perform(get("/api/v1/pi/digits")
                 .param("start", "0")
                 .param("count", "5")
                 .accept(MediaType.APPLICATION_JSON))
@@ -203,7 +246,7 @@ class PiDigitsControllerTest {
     @Test
     @DisplayName("Should work without threads and strategy parameters (backward compatibility)")
     void shouldWorkWithoutOptionalParameters() throws Exception {
-        mockMvc.perform(get("/api/v1/pi/digits")
+        perform(get("/api/v1/pi/digits")
                 .param("start", "0")
                 .param("count", "5"))
                 .andExpect(status().isOk())
@@ -214,7 +257,7 @@ class PiDigitsControllerTest {
     @Test
     @DisplayName("Should work with strategy=sequential")
     void shouldWorkWithSequentialStrategy() throws Exception {
-        mockMvc.perform(get("/api/v1/pi/digits")
+        perform(get("/api/v1/pi/digits")
                 .param("start", "0")
                 .param("count", "5")
                 .param("strategy", "sequential"))
@@ -226,7 +269,7 @@ class PiDigitsControllerTest {
     @Test
     @DisplayName("Should ignore threads parameter when strategy is sequential")
     void shouldIgnoreThreadsWithSequentialStrategy() throws Exception {
-        mockMvc.perform(get("/api/v1/pi/digits")
+        perform(get("/api/v1/pi/digits")
                 .param("start", "0")
                 .param("count", "5")
                 .param("strategy", "sequential")
@@ -239,7 +282,7 @@ class PiDigitsControllerTest {
     @Test
     @DisplayName("Should accept threads strategy with valid threads parameter")
     void shouldAcceptThreadsStrategyWithValidThreads() throws Exception {
-        mockMvc.perform(get("/api/v1/pi/digits")
+        perform(get("/api/v1/pi/digits")
                 .param("start", "0")
                 .param("count", "5")
                 .param("strategy", "threads")
@@ -249,10 +292,36 @@ class PiDigitsControllerTest {
     }
 
 
+    @Test
+    @DisplayName("Should accept pool strategy")
+    void shouldAcceptPoolStrategy() throws Exception {
+        perform(get("/api/v1/pi/digits")
+                .param("start", "0")
+                .param("count", "10")
+                .param("strategy", "pool")
+                .param("threads", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.digits").value("243F6A8885"));
+    }
+
+
+    @Test
+    @DisplayName("Should accept forkjoin strategy")
+    void shouldAcceptForkJoinStrategy() throws Exception {
+        perform(get("/api/v1/pi/digits")
+                .param("start", "0")
+                .param("count", "10")
+                .param("strategy", "forkjoin")
+                .param("threads", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.digits").value("243F6A8885"));
+    }
+
+
     @Test
     @DisplayName("Should return same digits with and without strategy parameter")
     void shouldReturnSameDigitsWithAndWithoutStrategy() throws Exception {
-        String result1 = mockMvc.perform(get("/api/v1/pi/digits")
+        String result1 = perform(get("/api/v1/pi/digits")
                 .param("start", "0")
                 .param("count", "10"))
                 .andExpect(status().isOk())
@@ -260,7 +329,7 @@ class PiDigitsControllerTest {
                 .getResponse()
                 .getContentAsString();
 
-        String result2 = mockMvc.perform(get("/api/v1/pi/digits")
+        String result2 = perform(get("/api/v1/pi/digits")
                 .param("start", "0")
                 .param("count", "10")
                 .param("strategy", "sequential"))
@@ -275,7 +344,7 @@ class PiDigitsControllerTest {
     @Test
     @DisplayName("Should accept threads=1 (minimum valid)")
     void shouldAcceptThreadsOne() throws Exception {
-        mockMvc.perform(get("/api/v1/pi/digits")
+        perform(get("/api/v1/pi/digits")
                 .param("start", "0")
                 .param("count", "5")
                 .param("strategy", "threads")
@@ -287,7 +356,7 @@ class PiDigitsControllerTest {
     @Test
     @DisplayName("Should accept threads=200 (maximum valid)")
     void shouldAcceptThreadsMax() throws Exception {
-        mockMvc.perform(get("/api/v1/pi/digits")
+        perform(get("/api/v1/pi/digits")
                 .param("start", "0")
                 .param("count", "5")
                 .param("strategy", "threads")
@@ -295,4 +364,103 @@ class PiDigitsControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.digits").value("243F6"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should accept kernel=bellard")
+    void shouldAcceptBellardKernel() throws Exception {
+        perform(get("/api/v1/pi/digits")
+                .param("start", "0")
+                .param("count", "5")
+                .param("strategy", "threads")
+                .param("threads", "2")
+                .param("kernel", "bellard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.digits").value("243F6"));
+    }
+
+    @Test
+    @DisplayName("Should return decimal digits for base=10")
+    void shouldReturnDecimalDigits() throws Exception {
+        perform(get("/api/v1/pi/digits")
+                .param("start", "0")
+                .param("count", "10")
+                .param("base", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.base").value(10))
+                .andExpect(jsonPath("$.digits").value("1415926535"));
+    }
+
+    @Test
+    @DisplayName("Should default to hexadecimal digits")
+    void shouldDefaultToHexadecimal() throws Exception {
+        perform(get("/api/v1/pi/digits")
+                .param("start", "0")
+                .param("count", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.base").value(16))
+                .andExpect(jsonPath("$.digits").value("243F6A8885"));
+    }
+
+    @Test
+    @DisplayName("Should report digit cache statistics")
+    void shouldReportCacheStatistics() throws Exception {
+        perform(get("/api/v1/pi/digits")
+                .param("start", "1000")
+                .param("count", "10")
+                .param("strategy", "sequential"))
+                .andExpect(status().isOk());
+        perform(get("/api/v1/pi/digits")
+                .param("start", "1005")
+                .param("count", "10")
+                .param("strategy", "sequential"))
+                .andExpect(status().isOk());
+
+        perform(get("/api/v1/pi/cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits").value(greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.misses").value(greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.blocks").value(greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.maxBytes").value(67108864));
+    }
+
+    @Test
+    @DisplayName("Should prefetch the next page for a client reading in order")
+    void shouldPrefetchForSequentialReader() throws Exception {
+        for (int start = 20_000; start < 20_200; start += 100) {
+            perform(get("/api/v1/pi/digits")
+                    .header("X-Client-Id", "pager")
+                    .param("start", String.valueOf(start))
+                    .param("count", "100"))
+                    .andExpect(status().isOk());
+        }
+        // The next page, digits 20200 to 20299, lies in blocks 315 to 317
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!cached(315, 317) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertTrue(cached(315, 317));
+        perform(get("/api/v1/pi/digits")
+                .header("X-Client-Id", "pager")
+                .param("start", "20200")
+                .param("count", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.digits").value(PiDigits.getDigitsHex(20_200, 100)));
+    }
+
+    @Test
+    @DisplayName("Should run calculations on the configured request executor")
+    void shouldUseRequestExecutorBean() {
+        assertEquals(200, requestExecutor.getConcurrencyLimit());
+        assertTrue(requestExecutor.isActive());
+    }
+
+    private boolean cached(int first, int last) {
+        for (int block = first; block <= last; block++) {
+            if (!cache.contains(block)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,85 @@
+package edu.eci.arsw.parallelism.concurrency;
+
+import edu.eci.arsw.parallelism.core.PiDigits;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CostPartitioner Unit Tests")
+class CostPartitionerTest {
+
+    @ParameterizedTest
+    @DisplayName("Should cover the range with chunk-aligned segments")
+    @CsvSource({
+        "0, 1, 1",
+        "0, 17, 4",
+        "0, 100, 4",
+        "5, 5, 10",
+        "1000, 333, 8",
+        "100000, 10000, 200",
+        "0, 10000, 3"
+    })
+    void shouldCoverRangeOnChunkBoundaries(int start, int count, int segments) {
+        int[] bounds = CostPartitioner.partition(start, count, segments);
+
+        assertEquals(0, bounds[0]);
+        assertEquals(count, bounds[bounds.length - 1]);
+        assertTrue(bounds.length - 1 <= segments, "Too many segments");
+        assertTrue(bounds.length - 1 <= (count + PiDigits.DIGITS_PER_CHUNK - 1) / PiDigits.DIGITS_PER_CHUNK,
+            "More segments than chunks");
+        for (int i = 1; i < bounds.length; i++) {
+            assertTrue(bounds[i] > bounds[i - 1], "Empty segment");
+            if (i < bounds.length - 1) {
+                assertEquals(0, bounds[i] % PiDigits.DIGITS_PER_CHUNK, "Boundary inside a chunk");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should give deeper segments fewer digits")
+    void shouldGiveDeeperSegmentsFewerDigits() {
+        int[] bounds = CostPartitioner.partition(0, 10_000, 4);
+
+        assertEquals(5, bounds.length);
+        for (int i = 2; i < bounds.length; i++) {
+            assertTrue(bounds[i] - bounds[i - 1] < bounds[i - 1] - bounds[i - 2],
+                "Segment " + (i - 1) + " is not shorter than the one before");
+        }
+    }
+
+    @Test
+    @DisplayName("Should balance modelled cost better than equal digit counts")
+    void shouldBalanceCost() {
+        int start = 1_000;
+        int count = 9_600;
+        int segments = 6;
+        int[] bounds = CostPartitioner.partition(start, count, segments);
+
+        long largest = 0;
+        long smallest = Long.MAX_VALUE;
+        for (int i = 0; i < bounds.length - 1; i++) {
+            long cost = CostPartitioner.cost(start + bounds[i], bounds[i + 1] - bounds[i]);
+            largest = Math.max(largest, cost);
+            smallest = Math.min(smallest, cost);
+        }
+        assertTrue(largest - smallest <= 3 * CostPartitioner.cost(start + count - 16, 16),
+            "Segments differ by more than one chunk");
+
+        long equalSplitLast = CostPartitioner.cost(start + count - count / segments, count / segments);
+        assertTrue(largest < equalSplitLast, "No better than an equal split");
+    }
+
+    @Test
+    @DisplayName("Should handle empty ranges and reject invalid arguments")
+    void shouldHandleEdgeCases() {
+        assertArrayEquals(new int[]{0}, CostPartitioner.partition(10, 0, 4));
+        assertArrayEquals(new int[]{0, 40}, CostPartitioner.partition(10, 40, 1));
+        assertEquals(0, CostPartitioner.cost(10, 0));
+        assertThrows(IllegalArgumentException.class, () -> CostPartitioner.partition(-1, 10, 2));
+        assertThrows(IllegalArgumentException.class, () -> CostPartitioner.partition(0, -1, 2));
+        assertThrows(IllegalArgumentException.class, () -> CostPartitioner.partition(0, 10, 0));
+    }
+}
@@ -0,0 +1,175 @@
+package edu.eci.arsw.parallelism.concurrency;
+
+import edu.eci.arsw.parallelism.core.CancellationToken;
+import edu.eci.arsw.parallelism.core.PiDigits;
+import edu.eci.arsw.parallelism.core.PiKernel;
+import edu.eci.arsw.parallelism.core.exceptions.PiCalculationTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ForkJoinStrategy Unit Tests")
+class ForkJoinStrategyTest {
+
+    private final ForkJoinStrategy strategy = new ForkJoinStrategy(2, 4);
+
+    @AfterEach
+    void tearDown() {
+        strategy.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should return correct strategy name")
+    void shouldReturnCorrectName() {
+        assertEquals("forkjoin", strategy.name());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Should produce same result as sequential for various splits")
+    @CsvSource({
+        "0, 50, 1",
+        "0, 50, 4",
+        "10, 30, 3",
+        "100, 20, 5",
+        "0, 5, 10",
+        "7, 500, 1",
+        "1000, 333, 8"
+    })
+    void shouldMatchSequentialResult(int start, int count, int threads) {
+        assertEquals(PiDigits.getDigitsHex(start, count), strategy.calculate(start, count, threads),
+            String.format("Mismatch for start=%d, count=%d, threads=%d", start, count, threads));
+    }
+
+    @Test
+    @DisplayName("Should reject invalid configuration")
+    void shouldRejectInvalidConfiguration() {
+        assertEquals(4, strategy.getPiecesPerWorker());
+        assertEquals(2, strategy.getParallelism());
+        assertThrows(IllegalArgumentException.class, () -> new ForkJoinStrategy(-1, 4));
+        assertThrows(IllegalArgumentException.class, () -> new ForkJoinStrategy(1, 0));
+    }
+
+    @Test
+    @DisplayName("Should split on chunk boundaries")
+    void shouldSplitOnChunkBoundaries() {
+        List<int[]> pieces = new CopyOnWriteArrayList<>();
+        assertEquals(PiDigits.getDigitsHex(5, 200), strategy.calculate(5, 200, 1, recording(pieces, true)));
+
+        List<int[]> sorted = sorted(pieces, 5, 200);
+        for (int i = 0; i < sorted.size() - 1; i++) {
+            assertEquals(0, sorted.get(i)[1] % PiDigits.DIGITS_PER_CHUNK, "Split inside a chunk");
+        }
+        assertTrue(sorted.size() > 1);
+    }
+
+    @Test
+    @DisplayName("Should size pieces by cost, so deep pieces are few and long")
+    void shouldSizePiecesByCost() {
+        // 2 workers and 4 pieces per worker: 8 to 16 pieces whatever the offset
+        List<int[]> deep = new CopyOnWriteArrayList<>();
+        strategy.calculate(10_000_000, 8_000, 1, recording(deep, false), CancellationToken.NONE);
+        List<int[]> sorted = sorted(deep, 10_000_000, 8_000);
+        assertTrue(sorted.size() >= 8 && sorted.size() <= 16, "Pieces: " + sorted.size());
+        for (int[] piece : sorted) {
+            assertTrue(piece[1] >= 8_000 / 32, "Piece of " + piece[1] + " digits");
+        }
+
+        // Near 0 the first chunks are cheap, so the first piece holds more digits than the last
+        List<int[]> shallow = new CopyOnWriteArrayList<>();
+        strategy.calculate(0, 8_000, 1, recording(shallow, false), CancellationToken.NONE);
+        List<int[]> ordered = sorted(shallow, 0, 8_000);
+        assertTrue(ordered.get(0)[1] > ordered.get(ordered.size() - 1)[1]);
+
+        // The threads parameter still asks for more pieces
+        List<int[]> requested = new CopyOnWriteArrayList<>();
+        strategy.calculate(10_000_000, 8_000, 64, recording(requested, false), CancellationToken.NONE);
+        assertTrue(sorted(requested, 10_000_000, 8_000).size() >= 64);
+    }
+
+    /**
+     * A kernel that records the pieces it is asked for, and calculates them or leaves them zero.
+     */
+    private static PiKernel recording(List<int[]> pieces, boolean calculate) {
+        return new PiKernel() {
+            @Override
+            public byte[] getDigits(int start, int count) {
+                pieces.add(new int[]{start, count});
+                return calculate ? PiDigits.getDigits(start, count) : new byte[count];
+            }
+
+            @Override
+            public int maxPosition() {
+                return PiDigits.MAX_POSITION;
+            }
+
+            @Override
+            public String name() {
+                return "recording";
+            }
+        };
+    }
+
+    /**
+     * Returns the pieces in order, after checking that they cover [start, start + count) exactly.
+     */
+    private static List<int[]> sorted(List<int[]> pieces, int start, int count) {
+        List<int[]> sorted = new ArrayList<>(pieces);
+        sorted.sort((a, b) -> Integer.compare(a[0], b[0]));
+        int next = start;
+        for (int[] piece : sorted) {
+            assertEquals(next, piece[0]);
+            next += piece[1];
+        }
+        assertEquals(start + count, next);
+        return sorted;
+    }
+
+    @Test
+    @DisplayName("Should report the digits completed from the start when time runs out")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void shouldReportPartialDigitsOnTimeout() {
+        // Segments from position 48 on only end at the deadline
+        PiKernel stalling = new PiKernel() {
+            @Override
+            public byte[] getDigits(int start, int count) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void getDigits(int start, int count, byte[] out, int offset, CancellationToken token) {
+                if (start < 48) {
+                    PiDigits.BBP.getDigits(start, count, out, offset, token);
+                    return;
+                }
+                while (!token.isCancelled()) {
+                    Thread.onSpinWait();
+                }
+                token.throwIfCancelled();
+            }
+
+            @Override
+            public int maxPosition() {
+                return PiDigits.MAX_POSITION;
+            }
+
+            @Override
+            public String name() {
+                return "stalling";
+            }
+        };
+
+        PiCalculationTimeoutException e = assertThrows(PiCalculationTimeoutException.class,
+            () -> strategy.calculate(0, 96, 2, stalling, CancellationToken.withTimeout(200)));
+        assertEquals(PiDigits.getDigitsHex(0, 48), e.getPartialDigits());
+    }
+}
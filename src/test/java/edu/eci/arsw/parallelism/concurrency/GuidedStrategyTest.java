@@ -0,0 +1,86 @@
+package edu.eci.arsw.parallelism.concurrency;
+
+import edu.eci.arsw.parallelism.core.PiDigits;
+import edu.eci.arsw.parallelism.core.PiKernel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GuidedStrategy Unit Tests")
+class GuidedStrategyTest {
+
+    private final GuidedStrategy strategy = new GuidedStrategy();
+
+    @Test
+    @DisplayName("Should return correct strategy name")
+    void shouldReturnCorrectName() {
+        assertEquals("guided", strategy.name());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Should produce same result as sequential for various thread counts")
+    @CsvSource({
+        "0, 50, 1",
+        "0, 50, 4",
+        "10, 30, 3",
+        "100, 20, 5",
+        "0, 5, 10",
+        "7, 1000, 3",
+        "1000, 333, 200"
+    })
+    void shouldMatchSequentialResult(int start, int count, int threads) {
+        assertEquals(PiDigits.getDigitsHex(start, count), strategy.calculate(start, count, threads),
+            String.format("Mismatch for start=%d, count=%d, threads=%d", start, count, threads));
+    }
+
+    @Test
+    @DisplayName("Should shrink blocks towards the end of the range")
+    void shouldShrinkBlocks() {
+        AtomicInteger cursor = new AtomicInteger();
+        int previous = Integer.MAX_VALUE;
+        int claims = 0;
+        int first;
+        while ((first = GuidedStrategy.claim(cursor, 100, 2)) < 100) {
+            int size = cursor.get() - first;
+            assertTrue(size >= 1 && size <= previous, "Block grew from " + previous + " to " + size);
+            previous = size;
+            claims++;
+        }
+        assertEquals(100, cursor.get());
+        assertEquals(1, previous);
+        assertTrue(claims < 50, "Too many claims: " + claims);
+    }
+
+    @Test
+    @DisplayName("Should fail instead of returning partial digits when a block fails")
+    void shouldFailWhenBlockFails() {
+        PiKernel failing = new PiKernel() {
+            @Override
+            public byte[] getDigits(int start, int count) {
+                if (start >= 64) {
+                    throw new IllegalArgumentException("boom");
+                }
+                return PiDigits.getDigits(start, count);
+            }
+
+            @Override
+            public int maxPosition() {
+                return PiDigits.MAX_POSITION;
+            }
+
+            @Override
+            public String name() {
+                return "failing";
+            }
+        };
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+            () -> strategy.calculate(0, 200, 2, failing));
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+    }
+}
@@ -0,0 +1,144 @@
+package edu.eci.arsw.parallelism.concurrency;
+
+import edu.eci.arsw.parallelism.core.CancellationToken;
+import edu.eci.arsw.parallelism.core.PiDigits;
+import edu.eci.arsw.parallelism.core.PiKernel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PoolStrategy Unit Tests")
+class PoolStrategyTest {
+
+    private final PoolStrategy strategy = new PoolStrategy(2, 4, 1_000);
+
+    @AfterEach
+    void tearDown() {
+        strategy.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should return correct strategy name")
+    void shouldReturnCorrectName() {
+        assertEquals("pool", strategy.name());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Should produce same result as sequential for various segment counts")
+    @CsvSource({
+        "0, 50, 1",
+        "0, 50, 2",
+        "0, 50, 8",
+        "10, 30, 3",
+        "100, 20, 5",
+        "0, 5, 10"
+    })
+    void shouldMatchSequentialResult(int start, int count, int threads) {
+        assertEquals(PiDigits.getDigitsHex(start, count), strategy.calculate(start, count, threads),
+            String.format("Mismatch for start=%d, count=%d, threads=%d", start, count, threads));
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Should run segments on the caller when the queue is full")
+    void shouldRunOnCallerWhenQueueIsFull() {
+        // 2 workers and 4 queued segments cannot hold 100 segments at once
+        assertEquals(PiDigits.getDigitsHex(0, 200), strategy.calculate(0, 200, 100));
+    }
+
+    @Test
+    @Timeout(value = 20, unit = TimeUnit.SECONDS)
+    @DisplayName("Should serve concurrent requests from the shared pool")
+    void shouldServeConcurrentRequests() throws InterruptedException {
+        String expected = PiDigits.getDigitsHex(0, 100);
+        List<Thread> clients = new ArrayList<>();
+        List<String> results = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 8; i++) {
+            Thread client = new Thread(() -> results.add(strategy.calculate(0, 100, 4)));
+            clients.add(client);
+            client.start();
+        }
+        for (Thread client : clients) {
+            client.join();
+        }
+        assertEquals(8, results.size());
+        results.forEach(result -> assertEquals(expected, result));
+    }
+
+    @Test
+    @DisplayName("Should expose its configuration")
+    void shouldExposeConfiguration() {
+        assertEquals(2, strategy.getPoolSize());
+        assertEquals(4, strategy.getQueueCapacity());
+
+        PoolStrategy defaults = new PoolStrategy();
+        try {
+            assertEquals(Runtime.getRuntime().availableProcessors(), defaults.getPoolSize());
+        } finally {
+            defaults.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject invalid configuration")
+    void shouldRejectInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new PoolStrategy(-1, 4, 0));
+        assertThrows(IllegalArgumentException.class, () -> new PoolStrategy(2, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Should reject work after shutdown")
+    void shouldRejectAfterShutdown() {
+        strategy.shutdown();
+        assertThrows(RejectedExecutionException.class, () -> strategy.calculate(0, 10, 2));
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Should stop queued and running segments when one fails")
+    void shouldCancelSiblingsWhenSegmentFails() {
+        // Segments from position 32 on only end once they are cancelled
+        PiKernel stalling = new PiKernel() {
+            @Override
+            public byte[] getDigits(int start, int count) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void getDigits(int start, int count, byte[] out, int offset, CancellationToken token) {
+                if (start < 32) {
+                    throw new IllegalArgumentException("boom");
+                }
+                while (!token.isCancelled()) {
+                    Thread.onSpinWait();
+                }
+                token.throwIfCancelled();
+            }
+
+            @Override
+            public int maxPosition() {
+                return PiDigits.MAX_POSITION;
+            }
+
+            @Override
+            public String name() {
+                return "stalling";
+            }
+        };
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+            () -> strategy.calculate(0, 64, 4, stalling));
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+    }
+}
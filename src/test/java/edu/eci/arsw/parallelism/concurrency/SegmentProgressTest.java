@@ -0,0 +1,56 @@
+package edu.eci.arsw.parallelism.concurrency;
+
+import edu.eci.arsw.parallelism.core.CancellationToken;
+import edu.eci.arsw.parallelism.core.exceptions.CalculationCancelledException;
+import edu.eci.arsw.parallelism.core.exceptions.PiCalculationTimeoutException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SegmentProgress Unit Tests")
+class SegmentProgressTest {
+
+    @Test
+    @DisplayName("Should extend the prefix only over contiguous segments")
+    void shouldTrackContiguousPrefix() {
+        SegmentProgress progress = new SegmentProgress();
+        assertEquals(0, progress.prefix());
+
+        progress.done(32, 16);
+        progress.done(64, 8);
+        assertEquals(0, progress.prefix());
+
+        progress.done(0, 16);
+        assertEquals(16, progress.prefix());
+
+        progress.done(16, 16);
+        assertEquals(48, progress.prefix());
+
+        progress.done(48, 16);
+        assertEquals(72, progress.prefix());
+    }
+
+    @Test
+    @DisplayName("Should attach the complete prefix to a timeout only")
+    void shouldAttachPrefixToTimeout() throws InterruptedException {
+        byte[] digits = "243F6A8885".getBytes(StandardCharsets.ISO_8859_1);
+        SegmentProgress progress = new SegmentProgress();
+        progress.done(0, 4);
+        progress.done(6, 4);
+
+        assertDoesNotThrow(() -> progress.throwIfCancelled(new CancellationToken(), digits));
+
+        CancellationToken expired = CancellationToken.withTimeout(1);
+        Thread.sleep(5);
+        PiCalculationTimeoutException e = assertThrows(PiCalculationTimeoutException.class,
+            () -> progress.throwIfCancelled(expired, digits));
+        assertEquals("243F", e.getPartialDigits());
+
+        CancellationToken cancelled = new CancellationToken();
+        cancelled.cancel("Client disconnected");
+        assertThrows(CalculationCancelledException.class, () -> progress.throwIfCancelled(cancelled, digits));
+    }
+}
@@ -0,0 +1,85 @@
+package edu.eci.arsw.parallelism.concurrency;
+
+import edu.eci.arsw.parallelism.core.CancellationToken;
+import edu.eci.arsw.parallelism.core.exceptions.CalculationCancelledException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SegmentRetry Unit Tests")
+class SegmentRetryTest {
+
+    @Test
+    @DisplayName("Should run a segment that succeeds once")
+    void shouldRunOnce() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        SegmentRetry.run(CancellationToken.NONE, attempts::incrementAndGet);
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should retry a segment until it succeeds")
+    void shouldRetryTransientFailure() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        SegmentRetry.run(CancellationToken.NONE, () -> {
+            if (attempts.incrementAndGet() < SegmentRetry.MAX_ATTEMPTS) {
+                throw new IllegalStateException("transient");
+            }
+        });
+
+        assertEquals(SegmentRetry.MAX_ATTEMPTS, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should give up after the last attempt")
+    void shouldBoundAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+            () -> SegmentRetry.run(CancellationToken.NONE, () -> {
+                throw new IllegalStateException("attempt " + attempts.incrementAndGet());
+            }));
+
+        assertEquals(SegmentRetry.MAX_ATTEMPTS, attempts.get());
+        assertEquals("attempt " + SegmentRetry.MAX_ATTEMPTS, e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should not retry invalid positions")
+    void shouldNotRetryInvalidArguments() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalArgumentException.class, () -> SegmentRetry.run(CancellationToken.NONE, () -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException("boom");
+        }));
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should not retry once the request is cancelled")
+    void shouldNotRetryCancelled() {
+        CancellationToken token = new CancellationToken();
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> SegmentRetry.run(token, () -> {
+            attempts.incrementAndGet();
+            token.cancel("Sibling segment failed");
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals(1, attempts.get());
+
+        assertThrows(CalculationCancelledException.class, () -> SegmentRetry.run(token, () -> {
+            attempts.incrementAndGet();
+            token.throwIfCancelled();
+        }));
+        assertEquals(2, attempts.get());
+    }
+}
@@ -1,12 +1,18 @@
 package edu.eci.arsw.parallelism.concurrency;
 
+import edu.eci.arsw.parallelism.core.CancellationToken;
 import edu.eci.arsw.parallelism.core.PiDigits;
+import edu.eci.arsw.parallelism.core.PiKernel;
+import edu.eci.arsw.parallelism.core.exceptions.CalculationCancelledException;
+import edu.eci.arsw.parallelism.core.exceptions.PiCalculationTimeoutException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -105,4 +111,159 @@ class ThreadJoinStrategyTest {
         
         assertEquals(expected, result);
     }
+
+    @Test
+    @DisplayName("Should fail instead of returning partial digits when a segment fails")
+    void shouldFailWhenSegmentFails() {
+        PiKernel failing = new PiKernel() {
+            @Override
+            public byte[] getDigits(int start, int count) {
+                if (start >= 10) {
+                    throw new IllegalArgumentException("boom");
+                }
+                return PiDigits.getDigits(start, count);
+            }
+
+            @Override
+            public int maxPosition() {
+                return PiDigits.MAX_POSITION;
+            }
+
+            @Override
+            public String name() {
+                return "failing";
+            }
+        };
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+            () -> strategy.calculate(0, 20, 2, failing));
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("Should retry only the segment that failed")
+    void shouldRetryOnlyFailedSegment() {
+        // The segment from position 32 fails on its first attempt only
+        Map<Integer, Integer> attempts = new ConcurrentHashMap<>();
+        PiKernel flaky = new PiKernel() {
+            @Override
+            public byte[] getDigits(int start, int count) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void getDigits(int start, int count, byte[] out, int offset, CancellationToken token) {
+                if (attempts.merge(start, 1, Integer::sum) == 1 && start == 32) {
+                    throw new IllegalStateException("transient");
+                }
+                PiDigits.BBP.getDigits(start, count, out, offset, token);
+            }
+
+            @Override
+            public int maxPosition() {
+                return PiDigits.MAX_POSITION;
+            }
+
+            @Override
+            public String name() {
+                return "flaky";
+            }
+        };
+
+        assertEquals(PiDigits.getDigitsHex(0, 64), strategy.calculate(0, 64, 4, flaky));
+        assertEquals(2, attempts.get(32));
+        attempts.forEach((start, count) -> {
+            if (start != 32) {
+                assertEquals(1, count, "Segment at " + start + " ran again");
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Should stop the other segments when one fails")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void shouldCancelSiblingsWhenSegmentFails() {
+        // Segments before position 32 only end once they are cancelled
+        PiKernel stalling = new PiKernel() {
+            @Override
+            public byte[] getDigits(int start, int count) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void getDigits(int start, int count, byte[] out, int offset, CancellationToken token) {
+                if (start >= 32) {
+                    throw new IllegalArgumentException("boom");
+                }
+                while (!token.isCancelled()) {
+                    Thread.onSpinWait();
+                }
+                token.throwIfCancelled();
+            }
+
+            @Override
+            public int maxPosition() {
+                return PiDigits.MAX_POSITION;
+            }
+
+            @Override
+            public String name() {
+                return "stalling";
+            }
+        };
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+            () -> strategy.calculate(0, 64, 4, stalling));
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("Should report a cancelled request as cancelled")
+    void shouldReportCancellation() {
+        CancellationToken token = new CancellationToken();
+        token.cancel("Client disconnected");
+
+        CalculationCancelledException e = assertThrows(CalculationCancelledException.class,
+            () -> strategy.calculate(0, 64, 4, PiDigits.BBP, token));
+        assertEquals("Client disconnected", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should report the digits completed from the start when time runs out")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void shouldReportPartialDigitsOnTimeout() {
+        // Segments from position 32 on only end at the deadline
+        PiKernel stalling = new PiKernel() {
+            @Override
+            public byte[] getDigits(int start, int count) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void getDigits(int start, int count, byte[] out, int offset, CancellationToken token) {
+                if (start < 32) {
+                    PiDigits.BBP.getDigits(start, count, out, offset, token);
+                    return;
+                }
+                while (!token.isCancelled()) {
+                    Thread.onSpinWait();
+                }
+                token.throwIfCancelled();
+            }
+
+            @Override
+            public int maxPosition() {
+                return PiDigits.MAX_POSITION;
+            }
+
+            @Override
+            public String name() {
+                return "stalling";
+            }
+        };
+
+        PiCalculationTimeoutException e = assertThrows(PiCalculationTimeoutException.class,
+            () -> strategy.calculate(0, 64, 4, stalling, CancellationToken.withTimeout(200)));
+        assertEquals(PiDigits.getDigitsHex(0, 32), e.getPartialDigits());
+    }
 }
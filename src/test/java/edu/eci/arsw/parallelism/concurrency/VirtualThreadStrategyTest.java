@@ -0,0 +1,67 @@
+package edu.eci.arsw.parallelism.concurrency;
+
+import edu.eci.arsw.parallelism.core.PiDigits;
+import edu.eci.arsw.parallelism.core.PiKernel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("VirtualThreadStrategy Unit Tests")
+class VirtualThreadStrategyTest {
+
+    private final VirtualThreadStrategy strategy = new VirtualThreadStrategy();
+
+    @Test
+    @DisplayName("Should return correct strategy name")
+    void shouldReturnCorrectName() {
+        assertEquals("virtual", strategy.name());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Should produce same result as sequential for various segment counts")
+    @CsvSource({
+        "0, 50, 1",
+        "0, 50, 4",
+        "10, 30, 3",
+        "100, 20, 5",
+        "0, 5, 10",
+        "0, 500, 200"
+    })
+    void shouldMatchSequentialResult(int start, int count, int threads) {
+        assertEquals(PiDigits.getDigitsHex(start, count), strategy.calculate(start, count, threads),
+            String.format("Mismatch for start=%d, count=%d, threads=%d", start, count, threads));
+    }
+
+    @Test
+    @DisplayName("Should run segments on virtual threads")
+    void shouldRunOnVirtualThreads() {
+        AtomicBoolean platform = new AtomicBoolean();
+        PiKernel recording = new PiKernel() {
+            @Override
+            public byte[] getDigits(int start, int count) {
+                if (!Thread.currentThread().isVirtual()) {
+                    platform.set(true);
+                }
+                return PiDigits.getDigits(start, count);
+            }
+
+            @Override
+            public int maxPosition() {
+                return PiDigits.MAX_POSITION;
+            }
+
+            @Override
+            public String name() {
+                return "recording";
+            }
+        };
+
+        assertEquals(PiDigits.getDigitsHex(0, 40), strategy.calculate(0, 40, 4, recording));
+        assertFalse(platform.get(), "A segment ran on a platform thread");
+    }
+}
@@ -0,0 +1,74 @@
+package edu.eci.arsw.parallelism.core;
+
+import jdk.incubator.vector.LongVector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compiled and run only with the Maven profile {@code simd}.
+ */
+@DisplayName("BbpLanes Unit Tests")
+class BbpLanesTest {
+
+    private final SimdBbpKernel vector = new SimdBbpKernel(true);
+    private final SimdBbpKernel scalar = new SimdBbpKernel(false);
+
+    @Test
+    @DisplayName("Should use the vector lanes when the module is present")
+    void shouldDetectVectorModule() {
+        assertTrue(SimdBbpKernel.vectorApiAvailable());
+        assertTrue(new SimdBbpKernel().isVectorized());
+    }
+
+    @ParameterizedTest
+    @DisplayName("Vector path should match the BBP kernel")
+    @CsvSource({
+        "0, 1",
+        "0, 256",
+        "1, 15",
+        "3, 33",
+        "1000, 48",
+        "12345, 20",
+        "100000, 40"
+    })
+    void shouldMatchBbp(int start, int count) {
+        assertEquals(PiDigits.getDigitsHex(PiDigits.BBP, start, count), PiDigits.getDigitsHex(vector, start, count));
+    }
+
+    @Test
+    @DisplayName("Should produce the same fractions as the scalar sweep")
+    void shouldMatchScalarFractions() {
+        assertArrayEquals(scalar.evaluate(54_321, 9), vector.evaluate(54_321, 9));
+    }
+
+    @Test
+    @DisplayName("Lane modular multiply should be exact near the modulus limits")
+    void shouldMultiplyExactly() {
+        long max = ModPow.MAX_MODULUS - 1;
+        long[][] cases = {{9, 8, 8}, {12_345, 1L << 32, 1}, {max - 2, max - 3, max - 4}, {max, max - 1, max - 1}};
+        int lanes = LongVector.SPECIES_PREFERRED.length();
+        long[] moduli = new long[lanes];
+        long[] left = new long[lanes];
+        long[] right = new long[lanes];
+        for (int i = 0; i < lanes; i++) {
+            moduli[i] = cases[i % cases.length][0];
+            left[i] = cases[i % cases.length][1];
+            right[i] = cases[i % cases.length][2];
+        }
+        LongVector d = LongVector.fromArray(LongVector.SPECIES_PREFERRED, moduli, 0);
+
+        long[] product = BbpLanes.mulMod(LongVector.fromArray(LongVector.SPECIES_PREFERRED, left, 0),
+                LongVector.fromArray(LongVector.SPECIES_PREFERRED, right, 0), d, BbpLanes.reciprocal(d)).toArray();
+        for (int i = 0; i < lanes; i++) {
+            BigInteger expected = BigInteger.valueOf(left[i]).multiply(BigInteger.valueOf(right[i]))
+                    .mod(BigInteger.valueOf(moduli[i]));
+            assertEquals(expected.longValue(), product[i], "Mismatch for lane " + i);
+        }
+    }
+}
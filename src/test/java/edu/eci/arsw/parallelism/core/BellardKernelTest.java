@@ -0,0 +1,72 @@
+package edu.eci.arsw.parallelism.core;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BellardKernel Unit Tests")
+class BellardKernelTest {
+
+    private final BellardKernel kernel = new BellardKernel();
+
+    @Test
+    @DisplayName("Should return correct kernel name")
+    void shouldReturnCorrectName() {
+        assertEquals("bellard", kernel.name());
+    }
+
+    @Test
+    @DisplayName("Should compute the leading hex digits of Pi")
+    void shouldComputeLeadingDigits() {
+        assertEquals("243F6A8885A308D313198A2E03707344A4093822299F31D0082EFA98EC4E6C89",
+            PiDigits.getDigitsHex(kernel, 0, 64));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Should cross-check against the BBP kernel")
+    @CsvSource({
+        "0, 1",
+        "1, 15",
+        "2, 16",
+        "3, 33",
+        "7, 100",
+        "1000, 48",
+        "12345, 20",
+        "100000, 20"
+    })
+    void shouldMatchBbp(int start, int count) {
+        assertEquals(PiDigits.getDigitsHex(PiDigits.BBP, start, count), PiDigits.getDigitsHex(kernel, start, count),
+            String.format("Mismatch for start=%d, count=%d", start, count));
+    }
+
+    @Test
+    @DisplayName("Should match BBP at every small offset")
+    void shouldMatchBbpAtEveryOffset() {
+        String bbp = PiDigits.getDigitsHex(PiDigits.BBP, 0, 200);
+        for (int start = 0; start < 184; start++) {
+            assertEquals(bbp.substring(start, start + 16), PiDigits.getDigitsHex(kernel, start, 16),
+                "Mismatch at start=" + start);
+        }
+    }
+
+    @Test
+    @DisplayName("High-precision recomputation should agree with the fast path")
+    void shouldMatchRecomputation() {
+        for (int n : new int[]{0, 1, 5, 100, 10_000}) {
+            assertEquals(PiDigits.getDigitsHex(kernel, n, 16), String.format("%016X", kernel.recomputeChunk(n)),
+                "Mismatch at n=" + n);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject invalid intervals")
+    void shouldRejectInvalidIntervals() {
+        assertThrows(IllegalArgumentException.class, () -> kernel.getDigits(-1, 5));
+        assertThrows(IllegalArgumentException.class, () -> kernel.getDigits(0, -1));
+        assertThrows(IllegalArgumentException.class, () -> kernel.getDigits(kernel.maxPosition(), 1));
+        assertTrue(kernel.maxPosition() > PiDigits.MAX_POSITION);
+    }
+}
@@ -0,0 +1,72 @@
+package edu.eci.arsw.parallelism.core;
+
+import edu.eci.arsw.parallelism.core.exceptions.CalculationCancelledException;
+import edu.eci.arsw.parallelism.core.exceptions.PiCalculationTimeoutException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CancellationToken Unit Tests")
+class CancellationTokenTest {
+
+    @Test
+    @DisplayName("Should throw with the first reason once cancelled")
+    void shouldThrowOnceCancelled() {
+        CancellationToken token = new CancellationToken();
+        assertFalse(token.isCancelled());
+        assertDoesNotThrow(token::throwIfCancelled);
+
+        token.cancel("Client disconnected");
+        token.cancel("Request completed");
+
+        assertTrue(token.isCancelled());
+        CalculationCancelledException e = assertThrows(CalculationCancelledException.class, token::throwIfCancelled);
+        assertEquals("Client disconnected", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should cancel children with their parent but not the other way round")
+    void shouldPropagateToChildren() {
+        CancellationToken parent = new CancellationToken();
+        CancellationToken child = parent.child();
+        CancellationToken sibling = parent.child();
+
+        child.cancel("Sibling segment failed");
+        assertTrue(child.isCancelled());
+        assertFalse(parent.isCancelled());
+        assertFalse(sibling.isCancelled());
+
+        parent.cancel("Client disconnected");
+        assertTrue(sibling.isCancelled());
+        assertEquals("Sibling segment failed",
+            assertThrows(CalculationCancelledException.class, child::throwIfCancelled).getMessage());
+        assertEquals("Client disconnected",
+            assertThrows(CalculationCancelledException.class, sibling::throwIfCancelled).getMessage());
+    }
+
+    @Test
+    @DisplayName("Should time out once the deadline passes")
+    void shouldTimeOut() throws InterruptedException {
+        CancellationToken token = CancellationToken.withTimeout(1);
+        CancellationToken child = token.child();
+        CancellationToken later = new CancellationToken().child(60_000);
+        Thread.sleep(5);
+
+        assertTrue(token.isCancelled());
+        assertTrue(child.isCancelled());
+        assertFalse(later.isCancelled());
+        PiCalculationTimeoutException e = assertThrows(PiCalculationTimeoutException.class, child::throwIfCancelled);
+        assertTrue(e.getElapsedMillis() >= 1);
+    }
+
+    @Test
+    @DisplayName("Should never cancel NONE")
+    void shouldNeverCancelNone() {
+        CancellationToken.NONE.cancel("ignored");
+
+        assertFalse(CancellationToken.NONE.isCancelled());
+        assertThrows(IllegalArgumentException.class, () -> CancellationToken.withTimeout(0));
+        assertThrows(IllegalArgumentException.class, () -> CancellationToken.NONE.child(-1));
+    }
+}
@@ -0,0 +1,168 @@
+package edu.eci.arsw.parallelism.core;
+
+import edu.eci.arsw.parallelism.core.exceptions.CalculationCancelledException;
+import edu.eci.arsw.parallelism.core.exceptions.PiCalculationTimeoutException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ChudnovskyEngine Unit Tests")
+class ChudnovskyEngineTest {
+
+    private final ChudnovskyEngine engine = new ChudnovskyEngine();
+
+    @Test
+    @DisplayName("Should return correct engine name")
+    void shouldReturnCorrectName() {
+        assertEquals("chudnovsky", engine.name());
+        assertEquals(ChudnovskyEngine.MAX_DIGITS, engine.maxPosition());
+    }
+
+    @Test
+    @DisplayName("Should compute the leading hex digits of Pi")
+    void shouldComputeLeadingDigits() {
+        assertEquals("243F6A8885A308D313198A2E03707344A4093822299F31D0082EFA98EC4E6C89",
+            PiDigits.getDigitsHex(engine, 0, 64));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Should cross-check against the BBP kernel")
+    @CsvSource({
+        "0, 1",
+        "0, 17",
+        "1, 15",
+        "5, 0",
+        "1000, 48",
+        "4000, 5000",
+        "100000, 16"
+    })
+    void shouldMatchBbp(int start, int count) {
+        assertEquals(PiDigits.getDigitsHex(PiDigits.BBP, start, count), PiDigits.getDigitsHex(engine, start, count),
+            String.format("Mismatch for start=%d, count=%d", start, count));
+    }
+
+    @Test
+    @DisplayName("Should match BBP at every prefix length")
+    void shouldMatchBbpAtEveryLength() {
+        String bbp = PiDigits.getDigitsHex(PiDigits.BBP, 0, 100);
+        for (int count = 1; count <= 100; count++) {
+            assertEquals(bbp.substring(0, count), PiDigits.getDigitsHex(engine, 0, count), "Mismatch at count=" + count);
+        }
+    }
+
+    @Test
+    @DisplayName("Should give the same digits on a single-threaded pool")
+    void shouldMatchOnSingleThreadedPool() {
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            assertEquals(PiDigits.getDigitsHex(engine, 0, 20_000),
+                PiDigits.getDigitsHex(new ChudnovskyEngine(pool), 0, 20_000));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Square root should be exact")
+    void shouldComputeExactSquareRoot() {
+        Random random = new Random(42);
+        for (int bits : new int[]{1, 64, 129, 1_000, 10_007, 100_000}) {
+            BigInteger n = new BigInteger(bits, random);
+            assertEquals(n.sqrt(), ChudnovskyEngine.sqrt(n), "Mismatch at bits=" + bits);
+            BigInteger square = n.multiply(n);
+            assertEquals(n, ChudnovskyEngine.sqrt(square));
+            if (n.signum() > 0) {
+                assertEquals(n.subtract(BigInteger.ONE), ChudnovskyEngine.sqrt(square.subtract(BigInteger.ONE)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should compute decimal digits after the decimal point")
+    void shouldComputeDecimalDigits() {
+        String first = "14159265358979323846264338327950288419716939937510";
+        assertEquals(first, decimal(0, 50));
+        assertEquals(first.substring(13, 37), decimal(13, 24));
+        // Feynman point: six nines from the 762nd decimal place
+        assertEquals("113499999983", decimal(757, 12));
+        assertEquals(0, engine.getDecimalDigits(3, 0).length);
+    }
+
+    @Test
+    @DisplayName("Decimal slices should agree with the longer prefix")
+    void shouldSliceDecimalPrefix() {
+        String prefix = decimal(0, 30_000);
+        for (int start : new int[]{1, 511, 512, 4_095, 29_000}) {
+            assertEquals(prefix.substring(start, start + 1_000), decimal(start, 1_000), "Mismatch at start=" + start);
+        }
+    }
+
+    private String decimal(int start, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (byte d : engine.getDecimalDigits(start, count)) {
+            sb.append((char) ('0' + d));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Should stop a long prefix soon after its token is cancelled")
+    void shouldStopWhenCancelled() throws Exception {
+        CancellationToken token = new CancellationToken();
+        Thread canceller = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            token.cancel("Client disconnected");
+        });
+        long begin = System.nanoTime();
+        canceller.start();
+        CalculationCancelledException e = assertThrows(CalculationCancelledException.class,
+            () -> engine.getDigits(0, 1_000_000, new byte[1_000_000], 0, token));
+        canceller.join();
+
+        assertEquals("Client disconnected", e.getMessage());
+        assertTrue(System.nanoTime() - begin < TimeUnit.SECONDS.toNanos(3), "Took too long to stop");
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Should stop decimal digits at the deadline of the token")
+    void shouldStopDecimalDigitsAtDeadline() {
+        long begin = System.nanoTime();
+        assertThrows(PiCalculationTimeoutException.class,
+            () -> engine.getDecimalDigits(0, 1_000_000, CancellationToken.withTimeout(200)));
+        assertTrue(System.nanoTime() - begin < TimeUnit.SECONDS.toNanos(3), "Took too long to stop");
+        assertThrows(CalculationCancelledException.class,
+            () -> RadixConversion.toDecimal(BigInteger.TEN.pow(10_000), 10_001, ForkJoinPool.commonPool(),
+                cancelled()));
+    }
+
+    private static CancellationToken cancelled() {
+        CancellationToken token = new CancellationToken();
+        token.cancel("Cancelled");
+        return token;
+    }
+
+    @Test
+    @DisplayName("Should reject invalid intervals")
+    void shouldRejectInvalidIntervals() {
+        assertThrows(IllegalArgumentException.class, () -> engine.getDigits(-1, 5));
+        assertThrows(IllegalArgumentException.class, () -> engine.getDigits(0, -1));
+        assertThrows(IllegalArgumentException.class, () -> engine.getDigits(ChudnovskyEngine.MAX_DIGITS, 1));
+        assertThrows(IllegalArgumentException.class, () -> engine.getDecimalDigits(-1, 5));
+        assertThrows(IllegalArgumentException.class, () -> engine.getDecimalDigits(ChudnovskyEngine.MAX_DIGITS, 1));
+    }
+}
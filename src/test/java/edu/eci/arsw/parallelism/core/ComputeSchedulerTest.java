@@ -0,0 +1,341 @@
+package edu.eci.arsw.parallelism.core;
+
+import edu.eci.arsw.parallelism.core.exceptions.CalculationCancelledException;
+import edu.eci.arsw.parallelism.core.exceptions.ComputeSaturatedException;
+import edu.eci.arsw.parallelism.core.exceptions.PiCalculationTimeoutException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ComputeScheduler Unit Tests")
+class ComputeSchedulerTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    @Test
+    @DisplayName("Should default to one slot per processor and the historical limits")
+    void shouldUseDefaults() {
+        ComputeScheduler scheduler = new ComputeScheduler();
+
+        assertEquals(Runtime.getRuntime().availableProcessors(), scheduler.getSlots());
+        assertEquals(10_000, scheduler.getMaxCount());
+        assertEquals(10_000_000, scheduler.getMaxStart());
+        assertEquals(200, scheduler.getMaxThreads());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid configuration")
+    void shouldRejectInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new ComputeScheduler(-1, 1_000, 50, 10, 10, 10));
+        assertThrows(IllegalArgumentException.class, () -> new ComputeScheduler(1, 0, 50, 10, 10, 10));
+        assertThrows(IllegalArgumentException.class, () -> new ComputeScheduler(1, 1_000, 0, 10, 10, 10));
+        assertThrows(IllegalArgumentException.class, () -> new ComputeScheduler(1, 1_000, 50, 0, 10, 10));
+        assertThrows(IllegalArgumentException.class, () -> new ComputeScheduler(1, 1_000, 50, 10, -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> new ComputeScheduler(1, 1_000, 50, 10, 10, 0));
+    }
+
+    @Test
+    @DisplayName("Should run work and free its slots afterwards")
+    void shouldRunWorkAndReleaseSlots() {
+        ComputeScheduler scheduler = new ComputeScheduler(2, 1_000, 50, 10, 10, 10);
+
+        assertEquals("done", scheduler.execute(MILLIS, 8, () -> {
+            assertEquals(2, scheduler.getBusySlots());
+            return "done";
+        }));
+        assertEquals(0, scheduler.getBusySlots());
+        assertEquals(0, scheduler.getWaiting());
+    }
+
+    @Test
+    @DisplayName("Should free slots when the work fails")
+    void shouldReleaseSlotsOnFailure() {
+        ComputeScheduler scheduler = new ComputeScheduler(1, 1_000, 50, 10, 10, 10);
+
+        assertThrows(IllegalStateException.class, () -> scheduler.execute(MILLIS, 1, () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals(0, scheduler.getBusySlots());
+    }
+
+    @Test
+    @DisplayName("Should admit any request when idle")
+    void shouldAdmitLargeRequestWhenIdle() {
+        ComputeScheduler scheduler = new ComputeScheduler(1, 1, 50, 10, 10, 10);
+
+        assertEquals(1, scheduler.execute(Long.MAX_VALUE / 2, 1, () -> 1));
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Should reject work beyond the budget with a retry delay")
+    void shouldRejectBeyondBudget() throws Exception {
+        ComputeScheduler scheduler = new ComputeScheduler(1, 1_000, 50, 10, 10, 10);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> first = executor.submit(() -> scheduler.execute(800 * MILLIS, 1, () -> {
+                running.countDown();
+                await(release);
+                return 1;
+            }));
+            running.await();
+
+            ComputeSaturatedException ex = assertThrows(ComputeSaturatedException.class,
+                    () -> scheduler.execute(300 * MILLIS, 1, () -> 2));
+            assertTrue(ex.getRetryAfterSeconds() >= 1);
+
+            release.countDown();
+            assertEquals(1, first.get());
+            assertEquals(2, scheduler.execute(300 * MILLIS, 1, () -> 2));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Should queue work until slots are free")
+    void shouldQueueUntilSlotsAreFree() throws Exception {
+        ComputeScheduler scheduler = new ComputeScheduler(1, 1_000, 50, 10, 10, 10);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = executor.submit(() -> scheduler.execute(MILLIS, 1, () -> {
+                running.countDown();
+                await(release);
+                return 1;
+            }));
+            running.await();
+            Future<Integer> second = executor.submit(() -> scheduler.execute(MILLIS, 1, () -> 2));
+
+            while (scheduler.getWaiting() == 0) {
+                Thread.sleep(5);
+            }
+            assertEquals(1, scheduler.getBusySlots());
+            assertFalse(second.isDone());
+
+            release.countDown();
+            assertEquals(1, first.get());
+            assertEquals(2, second.get());
+            assertEquals(0, scheduler.getWaiting());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Should run the shortest waiting work first")
+    void shouldRunShortestFirst() throws Exception {
+        ComputeScheduler scheduler = new ComputeScheduler(1, 10_000, 50, 10, 10, 10);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<?> blocker = executor.submit(() -> scheduler.execute(MILLIS, 1, () -> {
+                running.countDown();
+                await(release);
+                return order.add("blocker");
+            }));
+            running.await();
+            Future<?> large = executor.submit(() -> scheduler.execute(2_000 * MILLIS, 1, () -> order.add("large")));
+            awaitWaiting(scheduler, 1);
+            Future<?> small = executor.submit(() -> scheduler.execute(MILLIS, 1, () -> order.add("small")));
+            awaitWaiting(scheduler, 2);
+
+            release.countDown();
+            blocker.get();
+            large.get();
+            small.get();
+            assertEquals(List.of("blocker", "small", "large"), order);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Should let short work run between the slices of long work")
+    void shouldInterleaveSlices() throws Exception {
+        ComputeScheduler scheduler = new ComputeScheduler(1, 10_000, 50, 10, 10, 10);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?>[] small = new Future<?>[1];
+            scheduler.execute(new long[]{500 * MILLIS, 500 * MILLIS, 500 * MILLIS}, 1, slice -> {
+                order.add("slice " + slice);
+                if (slice == 0) {
+                    small[0] = executor.submit(() -> scheduler.execute(MILLIS, 1, () -> order.add("small")));
+                    awaitWaiting(scheduler, 1);
+                }
+            });
+            small[0].get();
+            assertEquals(List.of("slice 0", "small", "slice 1", "slice 2"), order);
+            assertEquals(0, scheduler.getBusySlots());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should give back the budget of slices that do not run")
+    void shouldReleaseBudgetOfAbandonedSlices() {
+        ComputeScheduler scheduler = new ComputeScheduler(1, 1_000, 50, 10, 10, 10);
+
+        assertThrows(IllegalStateException.class,
+                () -> scheduler.execute(new long[]{400 * MILLIS, 400 * MILLIS}, 1, slice -> {
+                    throw new IllegalStateException("boom");
+                }));
+        // Nothing is admitted any more, so the budget is whole again
+        scheduler.execute(new long[]{900 * MILLIS}, 1, slice -> { });
+        assertEquals(0, scheduler.getBusySlots());
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Should drop a waiting calculation once its token is cancelled and give back its budget")
+    void shouldDropCancelledWaiters() throws Exception {
+        ComputeScheduler scheduler = new ComputeScheduler(1, 1_000, 1_000, 10, 10, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        CancellationToken abandoned = new CancellationToken();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> blocker = executor.submit(() -> scheduler.execute(100 * MILLIS, 1, () -> {
+                await(release);
+                return null;
+            }));
+            // Admitted first, or the waiter would run at once instead of waiting
+            awaitBusy(scheduler);
+            Future<?> waiter = executor.submit(() -> scheduler.execute(800 * MILLIS, 1, abandoned, () -> 1));
+            awaitWaiting(scheduler, 1);
+
+            abandoned.cancel("Client disconnected");
+            ExecutionException e = assertThrows(ExecutionException.class, waiter::get);
+            assertInstanceOf(CalculationCancelledException.class, e.getCause());
+            assertEquals(0, scheduler.getWaiting());
+
+            // The abandoned estimate no longer counts against the budget
+            Future<Integer> next = executor.submit(() -> scheduler.execute(800 * MILLIS, 1, () -> 2));
+            release.countDown();
+            blocker.get();
+            assertEquals(2, next.get());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Should time out a waiting calculation at its deadline")
+    void shouldTimeOutWaiters() throws Exception {
+        ComputeScheduler scheduler = new ComputeScheduler(1, 1_000, 1_000, 10, 10, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> scheduler.execute(MILLIS, 1, () -> {
+                await(release);
+                return null;
+            }));
+            awaitBusy(scheduler);
+
+            assertThrows(PiCalculationTimeoutException.class,
+                    () -> scheduler.execute(MILLIS, 1, CancellationToken.withTimeout(50), () -> 1));
+            assertEquals(0, scheduler.getWaiting());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should run background work only while idle enough")
+    void shouldRunIdleWorkOnlyWhenIdle() {
+        ComputeScheduler scheduler = new ComputeScheduler(2, 1_000, 50, 10, 10, 10);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        assertTrue(scheduler.runWhenIdle(0, CancellationToken.NONE, token -> ran.set(true)));
+        assertTrue(ran.getAndSet(false));
+
+        scheduler.execute(MILLIS, 1, () -> {
+            assertFalse(scheduler.runWhenIdle(0, CancellationToken.NONE, token -> ran.set(true)));
+            assertTrue(scheduler.runWhenIdle(1, CancellationToken.NONE, token -> ran.set(true)));
+            return null;
+        });
+        assertTrue(ran.get());
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Should cancel background work as soon as a calculation needs the slots")
+    void shouldYieldIdleWorkToCalculations() throws Exception {
+        ComputeScheduler scheduler = new ComputeScheduler(1, 1_000, 50, 10, 10, 10);
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> background = executor.submit(() -> scheduler.runWhenIdle(0, CancellationToken.NONE, token -> {
+                started.countDown();
+                while (true) {
+                    token.throwIfCancelled();
+                    Thread.onSpinWait();
+                }
+            }));
+            started.await();
+
+            assertEquals(1, scheduler.execute(MILLIS, 1, () -> 1));
+            ExecutionException e = assertThrows(ExecutionException.class, background::get);
+            assertInstanceOf(CalculationCancelledException.class, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitBusy(ComputeScheduler scheduler) {
+        while (scheduler.getBusySlots() == 0) {
+            pause();
+        }
+    }
+
+    private static void awaitWaiting(ComputeScheduler scheduler, int waiting) {
+        while (scheduler.getWaiting() < waiting) {
+            pause();
+        }
+    }
+
+    /** Yields the core to the threads being waited for, and gives up once @Timeout interrupts the test. */
+    private static void pause() {
+        LockSupport.parkNanos(100_000);
+        if (Thread.currentThread().isInterrupted()) {
+            throw new IllegalStateException("Interrupted while waiting on the scheduler");
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package edu.eci.arsw.parallelism.core;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DigitCache Unit Tests")
+class DigitCacheTest {
+
+    private static final int BLOCK = 32;
+    private static final long ENTRY = BLOCK / 2 + DigitCache.ENTRY_OVERHEAD_BYTES;
+
+    @Test
+    @DisplayName("Should reject invalid configuration")
+    void shouldRejectInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new DigitCache(-1, BLOCK));
+        assertThrows(IllegalArgumentException.class, () -> new DigitCache(1_000, 0));
+        assertThrows(IllegalArgumentException.class, () -> new DigitCache(1_000, 24));
+        assertFalse(new DigitCache(0, BLOCK).isEnabled());
+        assertEquals(64, new DigitCache().getBlockDigits());
+    }
+
+    @Test
+    @DisplayName("Should return the digits of a stored block")
+    void shouldRoundTripDigits() {
+        DigitCache cache = new DigitCache(10 * ENTRY, BLOCK);
+        String hex = PiDigits.getDigitsHex(BLOCK * 3, BLOCK);
+        cache.write(3, hex, 0);
+
+        byte[] out = new byte[BLOCK];
+        assertTrue(cache.read(3, 0, BLOCK, out, 0));
+        assertEquals(hex, new String(out, StandardCharsets.US_ASCII));
+
+        // Odd offsets within the block and within the output
+        byte[] part = new byte[12];
+        assertTrue(cache.read(3, 5, 11, part, 1));
+        assertEquals(hex.substring(5, 16), new String(part, 1, 11, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    @DisplayName("Should count hits and misses")
+    void shouldCountHitsAndMisses() {
+        DigitCache cache = new DigitCache(10 * ENTRY, BLOCK);
+        byte[] out = new byte[BLOCK];
+
+        assertFalse(cache.read(0, 0, BLOCK, out, 0));
+        cache.write(0, PiDigits.getDigitsHex(0, BLOCK), 0);
+        assertTrue(cache.read(0, 0, BLOCK, out, 0));
+        assertTrue(cache.read(0, 4, 4, out, 0));
+
+        DigitCache.Stats stats = cache.stats();
+        assertEquals(2, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0, stats.evictions());
+        assertEquals(1, stats.blocks());
+        assertEquals(ENTRY, stats.bytes());
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used blocks beyond the budget")
+    void shouldEvictLeastRecentlyUsed() {
+        DigitCache cache = new DigitCache(2 * ENTRY, BLOCK);
+        byte[] out = new byte[BLOCK];
+        cache.write(0, PiDigits.getDigitsHex(0, BLOCK), 0);
+        cache.write(1, PiDigits.getDigitsHex(BLOCK, BLOCK), 0);
+        assertTrue(cache.read(0, 0, BLOCK, out, 0));
+
+        cache.write(2, PiDigits.getDigitsHex(2 * BLOCK, BLOCK), 0);
+
+        assertTrue(cache.read(0, 0, BLOCK, out, 0));
+        assertFalse(cache.read(1, 0, BLOCK, out, 0));
+        assertTrue(cache.read(2, 0, BLOCK, out, 0));
+        DigitCache.Stats stats = cache.stats();
+        assertEquals(1, stats.evictions());
+        assertEquals(2, stats.blocks());
+        assertTrue(stats.bytes() <= stats.maxBytes());
+    }
+
+    @Test
+    @DisplayName("Should fill only blocks nobody else claimed, and release its own claims")
+    void shouldFillUnclaimedBlocks() {
+        DigitCache cache = new DigitCache(10 * ENTRY, BLOCK);
+        cache.write(0, PiDigits.getDigitsHex(0, BLOCK), 0);
+        CompletableFuture<DigitCache.Flight> request = new CompletableFuture<>();
+        assertNull(cache.claim(2, request));
+
+        // Block 0 is cached and block 2 claimed, so blocks 1 and 3 are calculated in two runs
+        assertEquals(2, cache.fill(0, 3, PiDigits.BBP, CancellationToken.NONE));
+
+        assertTrue(cache.contains(1));
+        assertFalse(cache.contains(2));
+        assertTrue(cache.contains(3));
+        assertFalse(request.isDone());
+        byte[] out = new byte[BLOCK];
+        assertTrue(cache.read(3, 0, BLOCK, out, 0));
+        assertEquals(PiDigits.getDigitsHex(3 * BLOCK, BLOCK), new String(out, StandardCharsets.US_ASCII));
+        for (int block : new int[]{1, 3}) {
+            assertNull(cache.claim(block, new CompletableFuture<>()), "block " + block);
+        }
+        assertSame(request, cache.claim(2, new CompletableFuture<>()));
+    }
+
+    @Test
+    @DisplayName("Should store nothing when disabled")
+    void shouldStoreNothingWhenDisabled() {
+        DigitCache cache = new DigitCache(0, BLOCK);
+        cache.write(0, PiDigits.getDigitsHex(0, BLOCK), 0);
+
+        assertFalse(cache.read(0, 0, BLOCK, new byte[BLOCK], 0));
+        assertEquals(0, cache.stats().blocks());
+    }
+
+    @Test
+    @DisplayName("Should reject characters that are not hex digits")
+    void shouldRejectInvalidDigits() {
+        DigitCache cache = new DigitCache(10 * ENTRY, BLOCK);
+        assertThrows(IllegalArgumentException.class, () -> cache.write(0, "G".repeat(BLOCK), 0));
+    }
+
+    @Test
+    @DisplayName("Should read blocks missing from memory from the store, also after a restart")
+    void shouldReadThroughToStore(@TempDir Path dir) {
+        String path = dir.resolve("digits").toString();
+        DigitStore store = new DigitStore(path, 4_096, BLOCK, false);
+        DigitCache cache = new DigitCache(ENTRY, BLOCK, store);
+        cache.write(0, PiDigits.getDigitsHex(0, BLOCK), 0);
+        cache.write(1, PiDigits.getDigitsHex(BLOCK, BLOCK), 0);
+        store.close();
+
+        DigitStore reopened = new DigitStore(path, 4_096, BLOCK, false);
+        try {
+            // Nothing in memory, both blocks on disk
+            DigitCache restarted = new DigitCache(0, BLOCK, reopened);
+            byte[] out = new byte[BLOCK];
+            assertTrue(restarted.isEnabled());
+            assertTrue(restarted.read(0, 0, BLOCK, out, 0));
+            assertEquals(PiDigits.getDigitsHex(0, BLOCK), new String(out, StandardCharsets.US_ASCII));
+            assertFalse(restarted.read(2, 0, BLOCK, out, 0));
+
+            DigitCache.Stats stats = restarted.stats();
+            assertEquals(0, stats.hits());
+            assertEquals(1, stats.storeHits());
+            assertEquals(1, stats.misses());
+            assertEquals(2, stats.storedBlocks());
+        } finally {
+            reopened.close();
+        }
+        assertThrows(IllegalArgumentException.class,
+            () -> new DigitCache(ENTRY, 2 * BLOCK, new DigitStore(path, 4_096, BLOCK, true)));
+    }
+}
@@ -0,0 +1,155 @@
+package edu.eci.arsw.parallelism.core;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DigitPrecomputer Unit Tests")
+class DigitPrecomputerTest {
+
+    private static final int BLOCK = 32;
+
+    @Test
+    @DisplayName("Should parse comma-separated half-open ranges")
+    void shouldParseRanges() {
+        List<int[]> ranges = DigitPrecomputer.parse(" 0-1000, 5000 - 6000 ", 10_000);
+
+        assertEquals(2, ranges.size());
+        assertArrayEquals(new int[]{0, 1000}, ranges.get(0));
+        assertArrayEquals(new int[]{5000, 6000}, ranges.get(1));
+        assertTrue(DigitPrecomputer.parse("", 10_000).isEmpty());
+        for (String invalid : new String[]{"100", "5-5", "7-3", "-1-4", "0-10001", "a-b", "1-2-3"}) {
+            assertThrows(IllegalArgumentException.class, () -> DigitPrecomputer.parse(invalid, 10_000), invalid);
+        }
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Should cache the configured ranges while the service is idle")
+    void shouldPrecomputeRanges() throws Exception {
+        DigitCache cache = new DigitCache(1 << 20, BLOCK);
+        DigitPrecomputer precomputer = new DigitPrecomputer(cache, new ComputeScheduler(),
+                "100-300, 1000-1010", 0, 10, "bbp");
+
+        precomputer.start();
+        awaitDone(precomputer);
+
+        // Blocks 3 to 9 and 31
+        assertEquals(8, precomputer.getComputedBlocks());
+        for (int block : new int[]{3, 9, 31}) {
+            assertTrue(cache.contains(block), "block " + block);
+        }
+        assertFalse(cache.contains(2));
+        byte[] out = new byte[BLOCK];
+        assertTrue(cache.read(5, 0, BLOCK, out, 0));
+        assertEquals(PiDigits.getDigitsHex(5 * BLOCK, BLOCK), new String(out, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Should calculate prefix ranges with the prefix engine, around blocks claimed by requests")
+    void shouldPrecomputePrefixRanges() throws Exception {
+        DigitCache cache = new DigitCache(1 << 20, BLOCK);
+        CompletableFuture<DigitCache.Flight> request = new CompletableFuture<>();
+        assertNull(cache.claim(100, request));
+        DigitPrecomputer precomputer = new DigitPrecomputer(cache, new ComputeScheduler(),
+                "0-8192", 0, 10, "bbp");
+
+        precomputer.start();
+        awaitDone(precomputer);
+
+        // Blocks 0 to 255 but the one a request calculates
+        assertEquals(255, precomputer.getComputedBlocks());
+        assertFalse(cache.contains(100));
+        assertFalse(request.isDone());
+        byte[] out = new byte[BLOCK];
+        for (int block : new int[]{0, 99, 101, 255}) {
+            assertTrue(cache.read(block, 0, BLOCK, out, 0), "block " + block);
+            assertEquals(PiDigits.getDigitsHex(block * BLOCK, BLOCK), new String(out, StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Should resume from the blocks in the store after a restart")
+    void shouldResumeFromStore(@TempDir Path dir) throws Exception {
+        String path = dir.resolve("digits").toString();
+        DigitStore store = new DigitStore(path, 4_096, BLOCK, false);
+        DigitCache cache = new DigitCache(1 << 20, BLOCK, store);
+        cache.write(1, PiDigits.getDigitsHex(BLOCK, BLOCK), 0);
+        cache.write(2, PiDigits.getDigitsHex(2 * BLOCK, BLOCK), 0);
+        store.close();
+
+        DigitStore reopened = new DigitStore(path, 4_096, BLOCK, false);
+        try {
+            DigitPrecomputer precomputer = new DigitPrecomputer(new DigitCache(1 << 20, BLOCK, reopened),
+                    new ComputeScheduler(), "0-128", 0, 10, "bbp");
+            precomputer.start();
+            awaitDone(precomputer);
+
+            assertEquals(2, precomputer.getComputedBlocks());
+            assertEquals(4, reopened.getStoredBlocks());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Should wait while requests keep the service busy")
+    void shouldWaitWhileBusy() throws Exception {
+        ComputeScheduler scheduler = new ComputeScheduler(1, 1_000, 50, 10, 10, 10);
+        DigitPrecomputer precomputer = new DigitPrecomputer(new DigitCache(1 << 20, BLOCK), scheduler,
+                "0-64", 0, 10, "bbp");
+        CountDownLatch release = new CountDownLatch(1);
+        Thread request = new Thread(() -> scheduler.execute(1_000_000, 1, () -> {
+            precomputer.start();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        request.start();
+        try {
+            Thread.sleep(100);
+            assertFalse(precomputer.isDone());
+            assertEquals(0, precomputer.getComputedBlocks());
+        } finally {
+            release.countDown();
+            request.join();
+        }
+        awaitDone(precomputer);
+        assertEquals(2, precomputer.getComputedBlocks());
+    }
+
+    @Test
+    @DisplayName("Should do nothing without ranges")
+    void shouldDoNothingWithoutRanges() {
+        DigitPrecomputer precomputer = new DigitPrecomputer(new DigitCache(), new ComputeScheduler(),
+                "", 0, 1_000, "bbp");
+        precomputer.start();
+
+        assertTrue(precomputer.isDone());
+        assertEquals(0, precomputer.getComputedBlocks());
+        assertThrows(IllegalArgumentException.class,
+            () -> new DigitPrecomputer(new DigitCache(), new ComputeScheduler(), "", -1, 1_000, "bbp"));
+    }
+
+    private static void awaitDone(DigitPrecomputer precomputer) throws InterruptedException {
+        while (!precomputer.isDone()) {
+            Thread.sleep(5);
+        }
+    }
+}
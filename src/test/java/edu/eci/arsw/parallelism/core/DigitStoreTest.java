@@ -0,0 +1,224 @@
+package edu.eci.arsw.parallelism.core;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DigitStore Unit Tests")
+class DigitStoreTest {
+
+    private static final int BLOCK = 32;
+    private static final int MAX_DIGITS = 4_096;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Should be disabled without a path")
+    void shouldBeDisabledWithoutPath() {
+        DigitStore store = new DigitStore();
+
+        assertFalse(store.isEnabled());
+        assertFalse(store.isWritable());
+        store.write(0, pack(0));
+        assertFalse(store.read(0, 0, BLOCK, new byte[BLOCK], 0));
+        assertEquals(0, store.getStoredBlocks());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid configuration")
+    void shouldRejectInvalidConfiguration() {
+        String path = dir.resolve("digits").toString();
+        assertThrows(IllegalArgumentException.class, () -> new DigitStore(path, 0, BLOCK, false));
+        assertThrows(IllegalArgumentException.class, () -> new DigitStore(path, MAX_DIGITS, 24, false));
+    }
+
+    @Test
+    @DisplayName("Should return the digits of a written block and keep them across restarts")
+    void shouldPersistBlocks() {
+        String path = dir.resolve("digits").toString();
+        DigitStore store = new DigitStore(path, MAX_DIGITS, BLOCK, false);
+        assertTrue(store.isWritable());
+        store.write(5, pack(5));
+        store.write(MAX_DIGITS / BLOCK, pack(0)); // beyond the capacity
+        assertEquals(hex(5), read(store, 5));
+        store.close();
+
+        DigitStore reopened = new DigitStore(path, MAX_DIGITS, BLOCK, false);
+        try {
+            assertEquals(1, reopened.getStoredBlocks());
+            assertEquals(hex(5), read(reopened, 5));
+            assertNull(read(reopened, 4));
+
+            byte[] part = new byte[7];
+            assertTrue(reopened.read(5, 3, 7, part, 0));
+            assertEquals(hex(5).substring(3, 10), new String(part, StandardCharsets.US_ASCII));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should share the file read-only with the process that writes it")
+    void shouldShareReadOnly() {
+        String path = dir.resolve("digits").toString();
+        DigitStore writer = new DigitStore(path, MAX_DIGITS, BLOCK, false);
+        DigitStore reader = new DigitStore(path, MAX_DIGITS, BLOCK, false);
+        DigitStore configured = new DigitStore(path, MAX_DIGITS, BLOCK, true);
+        try {
+            assertTrue(writer.isWritable());
+            assertFalse(reader.isWritable());
+            assertFalse(configured.isWritable());
+
+            writer.write(2, pack(2));
+            reader.write(3, pack(3));
+
+            assertEquals(hex(2), read(reader, 2));
+            assertEquals(hex(2), read(configured, 2));
+            assertNull(read(writer, 3));
+        } finally {
+            configured.close();
+            reader.close();
+            writer.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should treat a damaged block as missing and let it be written again")
+    void shouldDetectDamagedBlocks() throws Exception {
+        Path file = dir.resolve("digits");
+        DigitStore store = new DigitStore(file.toString(), MAX_DIGITS, BLOCK, false);
+        store.write(1, pack(1));
+        store.close();
+
+        // Blocks end the file, so block 1 starts this far back from its end
+        long dataEnd = Files.size(file);
+        long blockOne = dataEnd - (long) (MAX_DIGITS / BLOCK - 1) * (BLOCK / 2);
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.seek(blockOne);
+            raw.write(raw.read() ^ 0xFF);
+        }
+
+        DigitStore reopened = new DigitStore(file.toString(), MAX_DIGITS, BLOCK, false);
+        try {
+            assertNull(read(reopened, 1));
+            reopened.write(1, pack(1));
+            assertEquals(hex(1), read(reopened, 1));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse a file with another layout")
+    void shouldRefuseOtherLayout() {
+        String path = dir.resolve("digits").toString();
+        new DigitStore(path, MAX_DIGITS, BLOCK, false).close();
+
+        assertThrows(IllegalStateException.class, () -> new DigitStore(path, MAX_DIGITS, 2 * BLOCK, false));
+        assertThrows(IllegalStateException.class, () -> new DigitStore(path, 2 * MAX_DIGITS, BLOCK, false));
+    }
+
+    @Test
+    @DisplayName("Should start again a file whose header was never written")
+    void shouldRestartFileWithoutHeader() throws Exception {
+        Path file = dir.resolve("digits");
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.setLength(100_000);
+        }
+
+        DigitStore readOnly = new DigitStore(file.toString(), MAX_DIGITS, BLOCK, true);
+        assertFalse(readOnly.isEnabled());
+
+        DigitStore store = new DigitStore(file.toString(), MAX_DIGITS, BLOCK, false);
+        try {
+            assertTrue(store.isWritable());
+            assertEquals(0, store.getStoredBlocks());
+            store.write(3, pack(3));
+            assertEquals(hex(3), read(store, 3));
+        } finally {
+            store.close();
+        }
+        DigitStore reopened = new DigitStore(file.toString(), MAX_DIGITS, BLOCK, false);
+        try {
+            assertEquals(hex(3), read(reopened, 3));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should move a file that is not a store aside and start a new one")
+    void shouldMoveForeignFileAside() throws Exception {
+        Path file = dir.resolve("digits");
+        Files.writeString(file, "not a digit store");
+
+        DigitStore store = new DigitStore(file.toString(), MAX_DIGITS, BLOCK, false);
+        try {
+            assertTrue(store.isWritable());
+            store.write(0, pack(0));
+            assertEquals(hex(0), read(store, 0));
+        } finally {
+            store.close();
+        }
+        assertEquals("not a digit store", Files.readString(dir.resolve("digits.invalid")));
+    }
+
+    @Test
+    @DisplayName("Should serve concurrent reads of the same blocks")
+    void shouldReadConcurrently() throws Exception {
+        String path = dir.resolve("digits").toString();
+        DigitStore store = new DigitStore(path, MAX_DIGITS, BLOCK, false);
+        for (int block = 0; block < 8; block++) {
+            store.write(block, pack(block));
+        }
+        store.close();
+
+        DigitStore reopened = new DigitStore(path, MAX_DIGITS, BLOCK, false);
+        try {
+            List<Integer> reads = IntStream.range(0, 2_000).boxed().collect(Collectors.toList());
+            assertTrue(reads.parallelStream().allMatch(i -> hex(i % 8).equals(read(reopened, i % 8))));
+            assertTrue(reopened.contains(7));
+            assertFalse(reopened.contains(8));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should run without a read-only file that does not exist")
+    void shouldSkipMissingReadOnlyFile() {
+        DigitStore store = new DigitStore(dir.resolve("missing").toString(), MAX_DIGITS, BLOCK, true);
+
+        assertFalse(store.isEnabled());
+        assertFalse(Files.exists(dir.resolve("missing")));
+    }
+
+    private static String hex(int block) {
+        return PiDigits.getDigitsHex(block * BLOCK, BLOCK);
+    }
+
+    private static byte[] pack(int block) {
+        byte[] digits = PiDigits.getDigits(block * BLOCK, BLOCK);
+        byte[] packed = new byte[BLOCK / 2];
+        for (int i = 0; i < BLOCK; i++) {
+            packed[i >> 1] |= (byte) ((i & 1) == 0 ? digits[i] << 4 : digits[i]);
+        }
+        return packed;
+    }
+
+    private static String read(DigitStore store, int block) {
+        byte[] out = new byte[BLOCK];
+        return store.read(block, 0, BLOCK, out, 0) ? new String(out, StandardCharsets.US_ASCII) : null;
+    }
+}
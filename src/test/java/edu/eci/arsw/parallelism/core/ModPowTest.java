@@ -0,0 +1,76 @@
+package edu.eci.arsw.parallelism.core;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ModPow Unit Tests")
+class ModPowTest {
+
+    private static final BigInteger TWO = BigInteger.valueOf(2);
+
+    @ParameterizedTest
+    @DisplayName("Should match BigInteger.modPow for edge moduli")
+    @CsvSource({
+        "0, 1",
+        "0, 7",
+        "1, 2",
+        "61, 1000003",
+        "62, 1000003",
+        "63, 2",
+        "1, 3",
+        "5, 2",
+        "64, 46343",
+        "400000, 800006",
+        "1073741823, 2147483647",
+        "123456789, 2147483629"
+    })
+    void shouldMatchBigIntegerForEdgeModuli(long exponent, long modulus) {
+        long expected = TWO.modPow(BigInteger.valueOf(exponent), BigInteger.valueOf(modulus)).longValue();
+        assertEquals(expected, ModPow.pow2(exponent, modulus));
+    }
+
+    @Test
+    @DisplayName("Should match BigInteger.modPow for random inputs")
+    void shouldMatchBigIntegerForRandomInputs() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            long modulus = 1 + random.nextInt(Integer.MAX_VALUE);
+            long exponent = random.nextInt(Integer.MAX_VALUE);
+            long expected = TWO.modPow(BigInteger.valueOf(exponent), BigInteger.valueOf(modulus)).longValue();
+            assertEquals(expected, ModPow.pow2(exponent, modulus),
+                String.format("Mismatch for 2^%d mod %d", exponent, modulus));
+        }
+    }
+
+    @Test
+    @DisplayName("Should compute 16^p as 2^(4p)")
+    void shouldComputeHexPowers() {
+        assertEquals(BigInteger.valueOf(16).modPow(BigInteger.valueOf(99_999), BigInteger.valueOf(799_997)).longValue(),
+            ModPow.pow16(99_999, 799_997));
+    }
+
+    @Test
+    @DisplayName("Should reduce products near the modulus limit")
+    void shouldReduceLargeProducts() {
+        long m = ModPow.MAX_MODULUS - 1;
+        long mu = ModPow.barrettFactor(m);
+        long a = m - 1;
+        assertEquals(1, ModPow.mulMod(a, a, m, mu));
+        assertEquals(5, ModPow.reduce(m * 3 + 5, m, mu));
+    }
+
+    @Test
+    @DisplayName("Should reject out-of-range arguments")
+    void shouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> ModPow.barrettFactor(1));
+        assertThrows(IllegalArgumentException.class, () -> ModPow.barrettFactor(ModPow.MAX_MODULUS));
+        assertThrows(IllegalArgumentException.class, () -> ModPow.pow2(-1, 7));
+    }
+}
@@ -1,19 +1,38 @@
 package edu.eci.arsw.parallelism.core;
 
+import edu.eci.arsw.parallelism.concurrency.ParallelStrategy;
+import edu.eci.arsw.parallelism.concurrency.PoolStrategy;
 import edu.eci.arsw.parallelism.concurrency.SequentialStrategy;
 import edu.eci.arsw.parallelism.concurrency.ThreadJoinStrategy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import edu.eci.arsw.parallelism.core.exceptions.CalculationCancelledException;
 import edu.eci.arsw.parallelism.core.exceptions.InvalidPiCalculationException;
 
 @DisplayName("PiDigitsService Tests")
@@ -25,7 +44,8 @@ class PiDigitsServiceTest {
     void setUp() {
         SequentialStrategy sequentialStrategy = new SequentialStrategy();
         ThreadJoinStrategy threadJoinStrategy = new ThreadJoinStrategy();
-        service = new PiDigitsService(sequentialStrategy, threadJoinStrategy);
+        service = new PiDigitsService(sequentialStrategy, List.of(sequentialStrategy, threadJoinStrategy),
+                new ComputeScheduler(), new DigitCache(), "bbp");
     }
 
     // ========== Happy Path Tests ==========
@@ -151,12 +171,29 @@ class PiDigitsServiceTest {
 
         InvalidPiCalculationException exception = assertThrows(
                 InvalidPiCalculationException.class,
-                () -> service.calculateSequential(0, maxCount + 1));
+                () -> service.calculateSequential(maxCount + 2, maxCount + 1));
 
         assertTrue(exception.getMessage().contains("exceeds maximum"));
         assertEquals("count", exception.getField());
     }
 
+    @Test
+    @DisplayName("Should allow long prefix ranges up to the prefix maximum")
+    void testCalculateSequentialPrefixCount() {
+        int count = service.getMaxCount() + 1;
+
+        String result = service.calculateSequential(0, count);
+
+        assertEquals(count, result.length());
+        assertEquals(PiDigits.getDigitsHex(count - 16, 16), result.substring(count - 16));
+
+        InvalidPiCalculationException exception = assertThrows(
+                InvalidPiCalculationException.class,
+                () -> service.calculateSequential(0, service.getMaxPrefixCount() + 1));
+        assertTrue(exception.getMessage().contains(String.valueOf(service.getMaxPrefixCount())));
+        assertEquals("count", exception.getField());
+    }
+
     @Test
     @DisplayName("Should calculate successfully at maximum allowed start")
     void testCalculateSequentialAtMaxStart() {
@@ -231,7 +268,7 @@ class PiDigitsServiceTest {
     
 
     @Test
-    @DisplayName("Should default to sequential when strategy is null")
+    @DisplayName("Should default to auto, which keeps tiny ranges sequential, when strategy is null")
     void testCalculateWithStrategyDefaultsToSequential() {
         String result = service.calculateWithStrategy(0, 5, null, null);
         assertEquals("243F6", result);
@@ -304,4 +341,395 @@ class PiDigitsServiceTest {
         assertEquals(sequential, withThreads);
     }
 
+    @Test
+    @DisplayName("Should select the pool strategy by name")
+    void testCalculateWithStrategyPool() {
+        PoolStrategy pool = new PoolStrategy(2, 16, 1_000);
+        try {
+            PiDigitsService pooled = new PiDigitsService(new SequentialStrategy(),
+                    List.of(new SequentialStrategy(), new ThreadJoinStrategy(), pool),
+                    new ComputeScheduler(), new DigitCache(), "bbp");
+            assertEquals(service.calculateSequential(100, 40), pooled.calculateWithStrategy(100, 40, 4, "pool"));
+
+            InvalidPiCalculationException exception = assertThrows(InvalidPiCalculationException.class,
+                () -> pooled.calculateWithStrategy(0, 5, null, "pool"));
+            assertEquals("threads", exception.getField());
+            assertTrue(exception.getMessage().contains("'pool'"));
+
+            // A service given only 'threads' does not know 'pool'
+            assertThrows(InvalidPiCalculationException.class,
+                () -> service.calculateWithStrategy(0, 5, 4, "pool"));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should choose the strategy automatically")
+    void testCalculateWithStrategyAuto() {
+        PoolStrategy pool = new PoolStrategy(2, 16, 1_000);
+        try {
+            // A slow rate makes every range worth splitting across the 4 cores
+            StrategySelector selector = new StrategySelector(4, 1_000_000);
+            PiDigitsService auto = new PiDigitsService(new SequentialStrategy(),
+                    List.of(new SequentialStrategy(), new ThreadJoinStrategy(), pool), "bbp", selector,
+                    new ComputeScheduler(), new DigitCache());
+
+            assertEquals(PiDigits.getDigitsHex(1_000, 300), auto.calculateWithStrategy(1_000, 300, null, "auto"));
+            assertEquals(PiDigits.getDigitsHex(1_000, 300), auto.calculateWithStrategy(1_000, 300, 2, null));
+            assertEquals(1_000_000, selector.nanosPerUnit(PiDigits.BBP), "Parallel runs must not move the rate");
+
+            InvalidPiCalculationException exception = assertThrows(InvalidPiCalculationException.class,
+                () -> auto.calculateWithStrategy(0, 5, 0, "auto"));
+            assertEquals("threads", exception.getField());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should refine the auto cost model from sequential runs")
+    void testCalculateWithStrategyAutoRefines() {
+        // A fast rate keeps everything sequential, so every request is observed
+        StrategySelector selector = new StrategySelector(4, 1e-6);
+        PiDigitsService auto = new PiDigitsService(new SequentialStrategy(),
+                List.of(new SequentialStrategy(), new ThreadJoinStrategy()), "bbp", selector,
+                new ComputeScheduler(), new DigitCache());
+
+        assertEquals(PiDigits.getDigitsHex(500, 50), auto.calculateWithStrategy(500, 50, null, null));
+        assertTrue(selector.nanosPerUnit(PiDigits.BBP) > 1e-6);
+        assertEquals(1e-6, selector.nanosPerUnit(PiDigits.BELLARD), "Only the kernel that ran is refined");
+    }
+
+    @Test
+    @DisplayName("Should take its limits from the compute scheduler")
+    void testLimitsFromScheduler() {
+        ComputeScheduler scheduler = new ComputeScheduler(1, 1_000, 50, 100, 1_000, 4);
+        PiDigitsService limited = new PiDigitsService(new SequentialStrategy(),
+                List.of(new SequentialStrategy(), new ThreadJoinStrategy()), "bbp",
+                new StrategySelector(1, 1.0), scheduler, new DigitCache());
+
+        assertEquals(100, limited.getMaxCount());
+        assertEquals(1_000, limited.getMaxStart());
+        assertEquals(PiDigits.getDigitsHex(900, 100), limited.calculateWithStrategy(900, 100, 4, "threads"));
+        assertThrows(InvalidPiCalculationException.class, () -> limited.calculateSequential(900, 101));
+        assertThrows(InvalidPiCalculationException.class, () -> limited.calculateSequential(1_001, 1));
+        assertThrows(InvalidPiCalculationException.class,
+            () -> limited.calculateWithStrategy(0, 10, 5, "threads"));
+        assertEquals(0, scheduler.getBusySlots());
+    }
+
+    @Test
+    @DisplayName("Should calculate long ranges in scheduler slices")
+    void testSlicedCalculation() {
+        // A slow rate and 1 ms slices cut every range into many slices
+        ComputeScheduler scheduler = new ComputeScheduler(2, 600_000, 1, 10_000, 10_000_000, 200);
+        PiDigitsService sliced = new PiDigitsService(new SequentialStrategy(),
+                List.of(new SequentialStrategy(), new ThreadJoinStrategy()), "bbp",
+                new StrategySelector(2, 1_000.0), scheduler, new DigitCache());
+
+        assertEquals(PiDigits.getDigitsHex(1_000, 300), sliced.calculateWithStrategy(1_000, 300, 2, "threads"));
+        assertEquals(PiDigits.getDigitsHex(1_000, 301), sliced.calculateWithStrategy(1_000, 301, null, "sequential"));
+        assertEquals(PiDigits.getDigitsHex(1_000, 290), sliced.calculateWithStrategy(1_000, 290, null, "auto"));
+        assertEquals(0, scheduler.getBusySlots());
+    }
+
+    @Test
+    @DisplayName("Should stop a cancelled calculation without falling back to sequential")
+    void testCancelledCalculation() {
+        CancellationToken cancelled = new CancellationToken();
+        cancelled.cancel("Client disconnected");
+
+        for (String strategy : new String[]{"sequential", "threads", "auto"}) {
+            CalculationCancelledException e = assertThrows(CalculationCancelledException.class,
+                () -> service.calculateWithStrategy(1_000, 100, 2, strategy, null, 16, cancelled), strategy);
+            assertEquals("Client disconnected", e.getMessage());
+        }
+        assertThrows(CalculationCancelledException.class,
+            () -> service.calculateWithStrategy(0, 10, null, null, null, 10, cancelled));
+        assertEquals(PiDigits.getDigitsHex(1_000, 100),
+            service.calculateWithStrategy(1_000, 100, 2, "threads", null, 16, new CancellationToken()));
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Should stop a running prefix or decimal calculation when cancelled")
+    void testCancelRunningPrefixCalculation() throws Exception {
+        for (int base : new int[]{16, 10}) {
+            CancellationToken token = new CancellationToken();
+            ScheduledExecutorService canceller = Executors.newSingleThreadScheduledExecutor();
+            try {
+                canceller.schedule(() -> token.cancel("Client disconnected"), 200, TimeUnit.MILLISECONDS);
+                long begin = System.nanoTime();
+                assertThrows(CalculationCancelledException.class,
+                    () -> service.calculateWithStrategy(0, 1_000_000, null, null, null, base, token), "base " + base);
+                assertTrue(System.nanoTime() - begin < TimeUnit.SECONDS.toNanos(3), "base " + base);
+            } finally {
+                canceller.shutdownNow();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should not recompute a failed parallel request sequentially")
+    void testParallelFailureDoesNotFallBack() {
+        AtomicInteger sequentialRuns = new AtomicInteger();
+        SequentialStrategy sequential = new SequentialStrategy() {
+            @Override
+            public String calculate(int start, int count, int threads, PiKernel kernel, CancellationToken token) {
+                sequentialRuns.incrementAndGet();
+                return super.calculate(start, count, threads, kernel, token);
+            }
+        };
+        ParallelStrategy failing = new ParallelStrategy() {
+            @Override
+            public String calculate(int start, int count, int threads, PiKernel kernel, CancellationToken token) {
+                throw new IllegalStateException("Segment calculation failed");
+            }
+
+            @Override
+            public String name() {
+                return "failing";
+            }
+        };
+        PiDigitsService failingService = new PiDigitsService(sequential, List.of(sequential, failing),
+                new ComputeScheduler(), new DigitCache(), "bbp");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+            () -> failingService.calculateWithStrategy(1_000, 100, 2, "failing"));
+        assertEquals("Segment calculation failed", e.getMessage());
+        assertEquals(0, sequentialRuns.get());
+    }
+
+    @Test
+    @DisplayName("Should serve overlapping ranges from cached blocks and calculate only the missing ones")
+    void testCachedCalculation() {
+        List<String> calculated = Collections.synchronizedList(new ArrayList<>());
+        SequentialStrategy sequential = new SequentialStrategy() {
+            @Override
+            public String calculate(int start, int count, int threads, PiKernel kernel, CancellationToken token) {
+                calculated.add(start + "+" + count);
+                return super.calculate(start, count, threads, kernel, token);
+            }
+        };
+        DigitCache cache = new DigitCache(1 << 20, 64);
+        PiDigitsService cachedService = new PiDigitsService(sequential, List.of(sequential, new ThreadJoinStrategy()),
+                "bbp", new StrategySelector(1, 1.0), new ComputeScheduler(), cache);
+
+        // Widened to blocks 1 and 2
+        assertEquals(PiDigits.getDigitsHex(100, 80), cachedService.calculateWithStrategy(100, 80, null, "sequential"));
+        assertEquals(List.of("64+128"), calculated);
+
+        // Block 2 is cached, only block 3 is calculated
+        assertEquals(PiDigits.getDigitsHex(150, 100), cachedService.calculateWithStrategy(150, 100, null, "sequential"));
+        assertEquals(List.of("64+128", "192+64"), calculated);
+
+        // Fully cached, whatever the strategy
+        assertEquals(PiDigits.getDigitsHex(70, 180), cachedService.calculateWithStrategy(70, 180, 2, "threads"));
+        assertEquals(PiDigits.getDigitsHex(64, 1), cachedService.calculateSequential(64, 1));
+        assertEquals(2, calculated.size());
+
+        // Widening would more than double the work
+        assertEquals(PiDigits.getDigitsHex(300, 5), cachedService.calculateWithStrategy(300, 5, null, "sequential"));
+        assertEquals(List.of("64+128", "192+64", "300+5"), calculated);
+
+        DigitCache.Stats stats = cachedService.getCacheStats();
+        assertEquals(3, stats.blocks());
+        assertEquals(1 + 3 + 1, stats.hits());
+        assertEquals(2 + 1 + 1, stats.misses());
+    }
+
+    @Test
+    @DisplayName("Should serve prefix ranges from the cache once all of their blocks are there")
+    void testCachedPrefixRange() {
+        List<String> calculated = Collections.synchronizedList(new ArrayList<>());
+        SequentialStrategy sequential = new SequentialStrategy() {
+            @Override
+            public String calculate(int start, int count, int threads, PiKernel kernel, CancellationToken token) {
+                calculated.add(kernel.name() + ":" + start + "+" + count);
+                return super.calculate(start, count, threads, kernel, token);
+            }
+        };
+        DigitCache cache = new DigitCache(1 << 20, 64);
+        PiDigitsService cachedService = new PiDigitsService(sequential, List.of(sequential, new ThreadJoinStrategy()),
+                "bbp", new StrategySelector(1, 1.0), new ComputeScheduler(), cache);
+        String kernel = new ChudnovskyEngine().name();
+
+        // Precomputed blocks 0 to 63, as DigitPrecomputer leaves them
+        assertEquals(64, cache.fill(0, 63, PiDigits.BBP, CancellationToken.NONE));
+        assertEquals(PiDigits.getDigitsHex(10, 4_086), cachedService.calculateWithStrategy(10, 4_086, null, "sequential"));
+        assertTrue(calculated.isEmpty());
+
+        // Block 64 is missing, so the prefix engine calculates the range and its blocks are stored
+        assertEquals(PiDigits.getDigitsHex(100, 4_060), cachedService.calculateWithStrategy(100, 4_060, 4, "threads"));
+        assertEquals(List.of(kernel + ":100+4060"), calculated);
+        assertTrue(cache.contains(64));
+        assertEquals(PiDigits.getDigitsHex(0, 4_160), cachedService.calculateWithStrategy(0, 4_160, null, null));
+        assertEquals(1, calculated.size());
+
+        // The range that went to the prefix engine counts all of its blocks as misses, once
+        DigitCache.Stats stats = cachedService.getCacheStats();
+        assertEquals(64 + 65, stats.hits());
+        assertEquals(64, stats.misses());
+    }
+
+    @Test
+    @DisplayName("Should calculate a block once for concurrent requests that need it")
+    void testConcurrentRequestsShareCalculation() throws Exception {
+        List<String> calculated = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean first = new AtomicBoolean(true);
+        SequentialStrategy sequential = new SequentialStrategy() {
+            @Override
+            public String calculate(int start, int count, int threads, PiKernel kernel, CancellationToken token) {
+                calculated.add(start + "+" + count);
+                if (first.getAndSet(false)) {
+                    entered.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.calculate(start, count, threads, kernel, token);
+            }
+        };
+        PiDigitsService cachedService = new PiDigitsService(sequential, List.of(sequential, new ThreadJoinStrategy()),
+                "bbp", new StrategySelector(1, 1.0), new ComputeScheduler(), new DigitCache(1 << 20, 64));
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try {
+            // Blocks 15 to 17, widened, held until the others wait on them
+            Future<String> owner = clients.submit(() -> cachedService.calculateWithStrategy(1_000, 100, null, "sequential"));
+            entered.await();
+            List<Future<String>> same = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                same.add(clients.submit(() -> cachedService.calculateWithStrategy(1_000, 100, null, "sequential")));
+            }
+            Future<String> inside = clients.submit(() -> cachedService.calculateWithStrategy(1_050, 60, 2, "threads"));
+            // Needs block 17 from the owner and calculates block 18 itself
+            Future<String> overlapping = clients.submit(() -> cachedService.calculateWithStrategy(1_100, 100, null, "sequential"));
+            Thread.sleep(200);
+            release.countDown();
+
+            assertEquals(PiDigits.getDigitsHex(1_000, 100), owner.get());
+            for (Future<String> result : same) {
+                assertEquals(PiDigits.getDigitsHex(1_000, 100), result.get());
+            }
+            assertEquals(PiDigits.getDigitsHex(1_050, 60), inside.get());
+            assertEquals(PiDigits.getDigitsHex(1_100, 100), overlapping.get());
+        } finally {
+            clients.shutdownNow();
+        }
+        assertEquals(List.of("960+192", "1152+64"), calculated);
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Should wait for a block that background work claimed instead of calculating it")
+    void testRequestJoinsClaimedBlock() throws Exception {
+        List<String> calculated = Collections.synchronizedList(new ArrayList<>());
+        SequentialStrategy sequential = new SequentialStrategy() {
+            @Override
+            public String calculate(int start, int count, int threads, PiKernel kernel, CancellationToken token) {
+                calculated.add(start + "+" + count);
+                return super.calculate(start, count, threads, kernel, token);
+            }
+        };
+        DigitCache cache = new DigitCache(1 << 20, 64);
+        PiDigitsService cachedService = new PiDigitsService(sequential, List.of(sequential, new ThreadJoinStrategy()),
+                "bbp", new StrategySelector(1, 1.0), new ComputeScheduler(), cache);
+        CompletableFuture<DigitCache.Flight> prefetch = new CompletableFuture<>();
+        assertNull(cache.claim(21, prefetch));
+
+        ExecutorService client = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> page = client.submit(() -> cachedService.calculateWithStrategy(1_280, 128, null, "sequential"));
+            // Block 20 is calculated at once, block 21 waits for the claim
+            while (calculated.isEmpty() && !page.isDone()) {
+                Thread.sleep(5);
+            }
+            Thread.sleep(100);
+            assertFalse(page.isDone());
+
+            cache.write(21, PiDigits.getDigitsHex(21 * 64, 64), 0);
+            cache.land(21, prefetch, null);
+            assertEquals(PiDigits.getDigitsHex(1_280, 128), page.get());
+        } finally {
+            client.shutdownNow();
+        }
+        assertEquals(List.of("1280+64"), calculated);
+
+        // Block 21 is read again once the claim lands, but counts only as the miss it waited on
+        DigitCache.Stats stats = cache.stats();
+        assertEquals(0, stats.hits() + stats.storeHits());
+        assertEquals(2, stats.misses());
+    }
+
+    @Test
+    @DisplayName("Should route long ranges near zero to the prefix engine")
+    void testPrefixRangeRouting() {
+        assertTrue(PiDigitsService.isPrefixRange(0, 4_096));
+        assertTrue(PiDigitsService.isPrefixRange(3_000, 3_000));
+        assertFalse(PiDigitsService.isPrefixRange(0, 4_095));
+        assertFalse(PiDigitsService.isPrefixRange(5_000, 4_999));
+
+        String prefix = service.calculateWithStrategy(2_000, 6_000, 4, "threads");
+        assertEquals(PiDigits.getDigitsHex(2_000, 6_000), prefix);
+    }
+
+    // ========== Decimal Output Tests ==========
+
+    @Test
+    @DisplayName("Should return decimal digits for base 10")
+    void testCalculateDecimal() {
+        assertEquals("1415926535", service.calculateWithStrategy(0, 10, null, null, null, 10));
+        assertEquals("8979", service.calculateDecimal(10, 4));
+        assertEquals("243F6A8885", service.calculateWithStrategy(0, 10, null, null, null, 16));
+    }
+
+    @Test
+    @DisplayName("Should reject unsupported bases and decimal ranges beyond the prefix limit")
+    void testCalculateDecimalInvalid() {
+        InvalidPiCalculationException base = assertThrows(
+            InvalidPiCalculationException.class,
+            () -> service.calculateWithStrategy(0, 10, null, null, null, 8));
+        assertEquals("base", base.getField());
+
+        InvalidPiCalculationException range = assertThrows(
+            InvalidPiCalculationException.class,
+            () -> service.calculateDecimal(service.getMaxPrefixCount(), 1));
+        assertEquals("start+count", range.getField());
+
+        assertThrows(InvalidPiCalculationException.class, () -> service.calculateDecimal(0, 0));
+    }
+
+    // ========== Kernel Selection Tests ==========
+
+    @Test
+    @DisplayName("Should return same result for bbp and bellard kernels")
+    void testCalculateWithStrategyKernelEquivalence() {
+        String bbp = service.calculateWithStrategy(1000, 40, 4, "threads", "bbp");
+        String bellard = service.calculateWithStrategy(1000, 40, 4, "threads", "bellard");
+        assertEquals(bbp, bellard);
+        assertEquals(bbp, service.calculateWithStrategy(1000, 40, null, "sequential", "bellard"));
+    }
+
+    @Test
+    @DisplayName("Should use the configured default kernel")
+    void testConfiguredDefaultKernel() {
+        SequentialStrategy sequential = new SequentialStrategy();
+        PiDigitsService bellardService = new PiDigitsService(sequential,
+                List.of(sequential, new ThreadJoinStrategy()), new ComputeScheduler(), new DigitCache(), "bellard");
+        assertEquals("243F6A8885", bellardService.calculateSequential(0, 10));
+    }
+
+    @Test
+    @DisplayName("Should throw exception for unknown kernel")
+    void testCalculateWithStrategyInvalidKernel() {
+        InvalidPiCalculationException exception = assertThrows(
+            InvalidPiCalculationException.class,
+            () -> service.calculateWithStrategy(0, 5, null, "sequential", "chudnovsky"));
+        assertEquals("kernel", exception.getField());
+    }
 }
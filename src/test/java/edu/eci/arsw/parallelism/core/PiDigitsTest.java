@@ -1,10 +1,22 @@
 package edu.eci.arsw.parallelism.core;
 
+import edu.eci.arsw.parallelism.core.exceptions.CalculationCancelledException;
+import edu.eci.arsw.parallelism.core.exceptions.PiCalculationTimeoutException;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 import static org.junit.jupiter.api.Assertions.*;
 
 class PiDigitsTest {
 
+    private static final String FIRST_256_HEX_DIGITS =
+            "243F6A8885A308D313198A2E03707344A4093822299F31D0082EFA98EC4E6C89"
+            + "452821E638D01377BE5466CF34E90C6CC0AC29B7C97C50DD3F84D5B5B5470917"
+            + "9216D5D98979FB1BD1310BA698DFB5AC2FFD72DBD01ADFB7B8E1AFED6A267E96"
+            + "BA7C9045F12C7F9924A19947B3916CF70801F2E2858EFC16636920D871574E69";
+
     @Test
     void testGetDigitsValidInput() {
         byte[] digits = PiDigits.getDigits(0, 5);
@@ -38,6 +50,7 @@ class PiDigitsTest {
         byte[] digits = PiDigits.getDigits(0, 0);
         assertNotNull(digits);
         assertEquals(0, digits.length);
+        assertEquals(0, PiDigits.getDigits(100, 0).length);
     }
 
     @Test
@@ -46,4 +59,121 @@ class PiDigitsTest {
         assertNotNull(digits);
         assertEquals(5, digits.length);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetDigitsDeepPositionPastIntOverflow() {
+        // Denominators here exceed 46,341, where a 32-bit square would overflow
+        assertEquals("35EA16C4", PiDigits.getDigitsHex(100_000, 8));
+        assertEquals("6FFFA410", PiDigits.getDigitsHex(250_000, 8));
+    }
+
+    @Test
+    void testGetDigitsBeyondMaxPosition() {
+        assertThrows(IllegalArgumentException.class, () -> PiDigits.getDigits(PiDigits.MAX_POSITION, 1));
+    }
+
+    @Test
+    void testGetDigitsHexMatchesReferenceAtEveryOffset() {
+        assertEquals(FIRST_256_HEX_DIGITS, PiDigits.getDigitsHex(0, 256));
+        for (int start = 0; start < 240; start++) {
+            assertEquals(FIRST_256_HEX_DIGITS.substring(start, start + 16), PiDigits.getDigitsHex(start, 16),
+                "Mismatch at start=" + start);
+        }
+    }
+
+    @Test
+    void testMultiChunkSegmentMatchesSingleChunkEvaluation() {
+        // A multi-chunk request carries residues from chunk to chunk
+        String swept = PiDigits.getDigitsHex(100_003, 45);
+        StringBuilder chunked = new StringBuilder();
+        for (int start = 100_003; start < 100_048; start += 8) {
+            chunked.append(PiDigits.getDigitsHex(start, Math.min(8, 100_048 - start)));
+        }
+        assertEquals(chunked.toString(), swept);
+        assertEquals("35EA16C406363A30BF0B", PiDigits.getDigitsHex(100_000, 20));
+    }
+
+    @Test
+    void testHighPrecisionRecomputationMatchesFastPath() {
+        // The guarded fallback must agree with the 128-bit accumulator
+        for (int n : new int[]{0, 1, 17, 1_000, 100_000}) {
+            String recomputed = String.format("%016X", new BbpKernel().recomputeChunk(n));
+            assertEquals(PiDigits.getDigitsHex(n, 16), recomputed, "Mismatch at n=" + n);
+        }
+    }
+
+    @Test
+    void testKernelLookup() {
+        assertSame(PiDigits.BBP, PiDigits.kernel(null));
+        assertSame(PiDigits.BBP, PiDigits.kernel("bbp"));
+        assertSame(PiDigits.BBP_SIMD, PiDigits.kernel("bbp-simd"));
+        assertSame(PiDigits.BELLARD, PiDigits.kernel("bellard"));
+        assertThrows(IllegalArgumentException.class, () -> PiDigits.kernel("chudnovsky"));
+    }
+
+    @Test
+    void testGetDigitsIntoSharedBufferAtOffset() {
+        byte[] buffer = new byte[40];
+        Arrays.fill(buffer, (byte) -1);
+        PiDigits.BBP.getDigits(3, 20, buffer, 10);
+        assertArrayEquals(PiDigits.getDigits(3, 20), Arrays.copyOfRange(buffer, 10, 30));
+        assertEquals(-1, buffer[9]);
+        assertEquals(-1, buffer[30]);
+
+        PiDigits.toHexChars(buffer, 10, 20);
+        assertEquals(PiDigits.getDigitsHex(3, 20),
+            PiDigits.toHexString(Arrays.copyOfRange(buffer, 10, 30)));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> PiDigits.BBP.getDigits(0, 8, new byte[10], 3));
+        assertThrows(IllegalStateException.class, () -> PiDigits.toHexChars(new byte[]{16}, 0, 1));
+    }
+
+    @Test
+    void testDefaultGetDigitsIntoBufferCopiesKernelDigits() {
+        PiKernel copying = new PiKernel() {
+            @Override
+            public byte[] getDigits(int start, int count) {
+                return PiDigits.getDigits(start, count);
+            }
+
+            @Override
+            public int maxPosition() {
+                return PiDigits.MAX_POSITION;
+            }
+
+            @Override
+            public String name() {
+                return "copying";
+            }
+        };
+        byte[] buffer = new byte[12];
+        copying.getDigits(0, 8, buffer, 4);
+        assertArrayEquals(PiDigits.getDigits(0, 8), Arrays.copyOfRange(buffer, 4, 12));
+        assertThrows(IndexOutOfBoundsException.class, () -> copying.getDigits(0, 8, buffer, 5));
+    }
+
+    @Test
+    void testKernelsStopOnCancelledToken() {
+        CancellationToken cancelled = new CancellationToken();
+        cancelled.cancel("Client disconnected");
+
+        for (PiKernel kernel : new PiKernel[]{PiDigits.BBP, PiDigits.BBP_SIMD, PiDigits.BELLARD}) {
+            assertThrows(CalculationCancelledException.class,
+                () -> PiDigits.getDigitsHex(kernel, 1_000, 64, cancelled), kernel.name());
+        }
+        assertEquals(PiDigits.getDigitsHex(1_000, 64),
+            PiDigits.getDigitsHex(PiDigits.BBP, 1_000, 64, new CancellationToken()));
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testKernelStopsInsideADeepChunk() {
+        // A single chunk at this depth sums millions of terms
+        CancellationToken token = CancellationToken.withTimeout(20);
+
+        long begin = System.nanoTime();
+        assertThrows(PiCalculationTimeoutException.class,
+            () -> PiDigits.BBP.getDigits(9_000_000, 16, new byte[16], 0, token));
+        assertTrue(System.nanoTime() - begin < TimeUnit.SECONDS.toNanos(2));
+    }
+}
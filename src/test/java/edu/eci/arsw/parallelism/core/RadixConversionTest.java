@@ -0,0 +1,58 @@
+package edu.eci.arsw.parallelism.core;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RadixConversion Unit Tests")
+class RadixConversionTest {
+
+    private static String convert(BigInteger value, int digits) {
+        StringBuilder sb = new StringBuilder();
+        for (byte d : RadixConversion.toDecimal(value, digits, ForkJoinPool.commonPool())) {
+            sb.append((char) ('0' + d));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    @DisplayName("Should pad small values with leading zeros")
+    void shouldPadSmallValues() {
+        assertEquals("0000", convert(BigInteger.ZERO, 4));
+        assertEquals("0042", convert(BigInteger.valueOf(42), 4));
+        assertEquals("", convert(BigInteger.ZERO, 0));
+    }
+
+    @Test
+    @DisplayName("Should match BigInteger.toString across split boundaries")
+    void shouldMatchToString() {
+        Random random = new Random(7);
+        int leaf = RadixConversion.LEAF_DIGITS;
+        for (int digits : new int[]{leaf - 1, leaf, leaf + 1, 2 * leaf, 2 * leaf + 1, 5_000, 40_000}) {
+            BigInteger value = new BigInteger(digits * 3, random);
+            String expected = value.toString();
+            String padded = "0".repeat(digits - expected.length()) + expected;
+            assertEquals(padded, convert(value, digits), "Mismatch for digits=" + digits);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep interior zero runs of a split")
+    void shouldKeepInteriorZeros() {
+        int digits = 4 * RadixConversion.LEAF_DIGITS;
+        BigInteger value = BigInteger.TEN.pow(digits - 1).add(BigInteger.ONE);
+        assertEquals("1" + "0".repeat(digits - 2) + "1", convert(value, digits));
+    }
+
+    @Test
+    @DisplayName("Should reject values that do not fit")
+    void shouldRejectInvalidValues() {
+        assertThrows(IllegalArgumentException.class, () -> convert(BigInteger.valueOf(-1), 4));
+        assertThrows(IllegalArgumentException.class, () -> convert(BigInteger.valueOf(12_345), 4));
+    }
+}
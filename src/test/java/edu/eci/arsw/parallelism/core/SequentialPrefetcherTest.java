@@ -0,0 +1,158 @@
+package edu.eci.arsw.parallelism.core;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SequentialPrefetcher Unit Tests")
+class SequentialPrefetcherTest {
+
+    private static final int BLOCK = 32;
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Should cache the next page once a client reads in order")
+    void shouldPrefetchNextPage() throws Exception {
+        DigitCache cache = new DigitCache(1 << 20, BLOCK);
+        SequentialPrefetcher prefetcher = prefetcher(cache, new ComputeScheduler(), 4_096, 100);
+
+        prefetcher.observe("pager", 100, 100);
+        awaitIdle(prefetcher);
+        assertEquals(0, prefetcher.getPrefetchedBlocks());
+
+        prefetcher.observe("pager", 200, 100);
+        awaitIdle(prefetcher);
+
+        // Digits 300 to 399: blocks 9 to 12
+        assertEquals(4, prefetcher.getPrefetchedBlocks());
+        assertFalse(cache.contains(8));
+        byte[] out = new byte[100];
+        for (int position = 300; position < 400; ) {
+            int block = position / BLOCK;
+            int count = Math.min(400, (block + 1) * BLOCK) - position;
+            assertTrue(cache.read(block, position % BLOCK, count, out, position - 300));
+            position += count;
+        }
+        assertEquals(PiDigits.getDigitsHex(300, 100), new String(out, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Should treat a first page at 0 as a sequential read and skip blocks claimed by requests")
+    void shouldPrefetchAfterFirstPage() throws Exception {
+        DigitCache cache = new DigitCache(1 << 20, BLOCK);
+        SequentialPrefetcher prefetcher = prefetcher(cache, new ComputeScheduler(), 4_096, 100);
+        CompletableFuture<DigitCache.Flight> request = new CompletableFuture<>();
+        assertNull(cache.claim(4, request));
+
+        prefetcher.observe("pager", 0, 100);
+        awaitIdle(prefetcher);
+
+        // Digits 100 to 199: blocks 3 to 6, of which a request calculates block 4
+        assertEquals(3, prefetcher.getPrefetchedBlocks());
+        assertTrue(cache.contains(3));
+        assertFalse(cache.contains(4));
+        assertTrue(cache.contains(6));
+        assertFalse(request.isDone());
+        cache.land(4, request, null);
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Should not prefetch for reads that do not follow the same client's last one")
+    void shouldIgnoreReadsOutOfOrder() throws Exception {
+        DigitCache cache = new DigitCache(1 << 20, BLOCK);
+        SequentialPrefetcher prefetcher = prefetcher(cache, new ComputeScheduler(), 4_096, 100);
+
+        prefetcher.observe("a", 100, 100);
+        prefetcher.observe("b", 200, 100);
+        prefetcher.observe("a", 250, 100);
+        prefetcher.observe(null, 350, 100);
+        awaitIdle(prefetcher);
+
+        assertEquals(0, prefetcher.getPrefetchedBlocks());
+        assertEquals(0, cache.stats().blocks());
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Should cap the digits prefetched and forget the least recent clients")
+    void shouldBoundSpeculation() throws Exception {
+        DigitCache cache = new DigitCache(1 << 20, BLOCK);
+        SequentialPrefetcher prefetcher = prefetcher(cache, new ComputeScheduler(), 64, 1);
+
+        prefetcher.observe("a", 1_000, 1_000);
+        prefetcher.observe("a", 2_000, 1_000);
+        awaitIdle(prefetcher);
+        // Digits 3000 to 3063: blocks 93 to 95
+        assertEquals(3, prefetcher.getPrefetchedBlocks());
+
+        prefetcher.observe("b", 5, 10);
+        prefetcher.observe("a", 3_000, 1_000);
+        awaitIdle(prefetcher);
+        assertEquals(3, prefetcher.getPrefetchedBlocks());
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    @DisplayName("Should drop the prefetch while requests keep the service busy")
+    void shouldDropWhileBusy() throws Exception {
+        ComputeScheduler scheduler = new ComputeScheduler(1, 1_000, 50, 10, 10, 10);
+        SequentialPrefetcher prefetcher = prefetcher(new DigitCache(1 << 20, BLOCK), scheduler, 4_096, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread request = new Thread(() -> scheduler.execute(1_000_000, 1, () -> {
+            prefetcher.observe("pager", 100, 100);
+            prefetcher.observe("pager", 200, 100);
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        request.start();
+        try {
+            Thread.sleep(100);
+            awaitIdle(prefetcher);
+        } finally {
+            release.countDown();
+            request.join();
+        }
+
+        assertEquals(0, prefetcher.getPrefetchedBlocks());
+        assertEquals(1, prefetcher.getDroppedRanges());
+    }
+
+    @Test
+    @DisplayName("Should do nothing when disabled and reject invalid configuration")
+    void shouldDoNothingWhenDisabled() {
+        SequentialPrefetcher disabled = new SequentialPrefetcher();
+        disabled.observe("pager", 0, 100);
+        disabled.observe("pager", 100, 100);
+
+        assertFalse(disabled.isEnabled());
+        assertFalse(new SequentialPrefetcher(new DigitCache(0, BLOCK), new ComputeScheduler(),
+                true, 4_096, 16, 100, 0, "bbp").isEnabled());
+        assertEquals(0, disabled.getPrefetchedBlocks());
+        assertThrows(IllegalArgumentException.class, () -> new SequentialPrefetcher(new DigitCache(),
+                new ComputeScheduler(), true, 0, 16, 100, 0, "bbp"));
+    }
+
+    private static SequentialPrefetcher prefetcher(DigitCache cache, ComputeScheduler scheduler,
+                                                   int maxDigits, int maxClients) {
+        return new SequentialPrefetcher(cache, scheduler, true, maxDigits, 16, maxClients, 0, "bbp");
+    }
+
+    private static void awaitIdle(SequentialPrefetcher prefetcher) throws InterruptedException {
+        while (!prefetcher.isIdle()) {
+            Thread.sleep(5);
+        }
+    }
+}
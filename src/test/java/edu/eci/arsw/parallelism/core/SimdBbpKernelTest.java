@@ -0,0 +1,44 @@
+package edu.eci.arsw.parallelism.core;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SimdBbpKernel Unit Tests")
+class SimdBbpKernelTest {
+
+    private final SimdBbpKernel kernel = new SimdBbpKernel();
+    private final SimdBbpKernel scalar = new SimdBbpKernel(false);
+
+    @Test
+    @DisplayName("Should use the vector lanes exactly when they are available")
+    void shouldDetectVectorLanes() {
+        assertEquals(SimdBbpKernel.vectorApiAvailable(), kernel.isVectorized());
+        assertFalse(scalar.isVectorized());
+        assertEquals("bbp-simd", kernel.name());
+        assertEquals(PiDigits.BBP.maxPosition(), kernel.maxPosition());
+        if (!SimdBbpKernel.vectorApiAvailable()) {
+            assertThrows(IllegalStateException.class, () -> new SimdBbpKernel(true));
+        }
+    }
+
+    @ParameterizedTest
+    @DisplayName("Either path should match the BBP kernel")
+    @CsvSource({
+        "0, 1",
+        "0, 256",
+        "1, 15",
+        "3, 33",
+        "1000, 48",
+        "12345, 20",
+        "100000, 40"
+    })
+    void shouldMatchBbp(int start, int count) {
+        String expected = PiDigits.getDigitsHex(PiDigits.BBP, start, count);
+        assertEquals(expected, PiDigits.getDigitsHex(kernel, start, count));
+        assertEquals(expected, PiDigits.getDigitsHex(scalar, start, count));
+    }
+}
@@ -0,0 +1,85 @@
+package edu.eci.arsw.parallelism.core;
+
+import edu.eci.arsw.parallelism.concurrency.CostPartitioner;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StrategySelector Unit Tests")
+class StrategySelectorTest {
+
+    /** 1 ns per cost unit: a range costing 10^7 units takes 10 ms. */
+    private final StrategySelector selector = new StrategySelector(8, 1.0);
+
+    @Test
+    @DisplayName("Should keep cheap ranges sequential")
+    void shouldKeepCheapRangesSequential() {
+        assertTrue(selector.choose(PiDigits.BBP, 0, 10, 1, null).sequential());
+        assertTrue(selector.choose(PiDigits.BBP, 1_000, 100, 1, null).sequential());
+    }
+
+    @Test
+    @DisplayName("Should give expensive ranges one thread per millisecond of work, up to the cores")
+    void shouldSplitExpensiveRanges() {
+        // 10,000 digits at 1,000,000 cost about 6 * 10^8 units, far more than 8 ms
+        assertEquals(8, selector.choose(PiDigits.BBP, 1_000_000, 10_000, 1, null).threads());
+
+        int count = 10_000;
+        int start = 0;
+        long expectedThreads = (long) (CostPartitioner.cost(start, count) / (double) StrategySelector.SEGMENT_MIN_NANOS);
+        assertTrue(expectedThreads > 1 && expectedThreads < 8);
+        assertEquals(expectedThreads, selector.choose(PiDigits.BBP, start, count, 1, null).threads());
+    }
+
+    @Test
+    @DisplayName("Should share the cores among calculations in flight")
+    void shouldShareCoresUnderLoad() {
+        assertEquals(4, selector.choose(PiDigits.BBP, 1_000_000, 10_000, 2, null).threads());
+        assertEquals(1, selector.choose(PiDigits.BBP, 1_000_000, 10_000, 8, null).threads());
+        assertTrue(selector.choose(PiDigits.BBP, 1_000_000, 10_000, 50, null).sequential());
+    }
+
+    @Test
+    @DisplayName("Should respect the client's upper bound on threads")
+    void shouldRespectMaxThreads() {
+        assertEquals(3, selector.choose(PiDigits.BBP, 1_000_000, 10_000, 1, 3).threads());
+    }
+
+    @Test
+    @DisplayName("Should move the rate towards observed timings")
+    void shouldRefineFromObservations() {
+        StrategySelector refined = new StrategySelector(8, 1.0);
+        long cost = CostPartitioner.cost(100, 100);
+        for (int i = 0; i < 50; i++) {
+            refined.observe(PiDigits.BBP, 100, 100, 3 * cost);
+        }
+        assertEquals(3.0, refined.nanosPerUnit(PiDigits.BBP), 0.01);
+
+        refined.observe(PiDigits.BBP, 100, 0, 1_000);
+        refined.observe(PiDigits.BBP, 100, 100, 0);
+        assertEquals(3.0, refined.nanosPerUnit(PiDigits.BBP), 0.01);
+    }
+
+    @Test
+    @DisplayName("Should keep one rate per kernel")
+    void shouldKeepOneRatePerKernel() {
+        StrategySelector refined = new StrategySelector(8, 1.0);
+        long cost = CostPartitioner.cost(100, 100);
+        for (int i = 0; i < 50; i++) {
+            refined.observe(PiDigits.BELLARD, 100, 100, 3 * cost);
+        }
+        assertEquals(3.0, refined.nanosPerUnit(PiDigits.BELLARD), 0.01);
+        assertEquals(1.0, refined.nanosPerUnit(PiDigits.BBP));
+        assertTrue(refined.estimateNanos(PiDigits.BELLARD, 100, 100) > refined.estimateNanos(PiDigits.BBP, 100, 100));
+    }
+
+    @Test
+    @DisplayName("Should calibrate against the default kernel")
+    void shouldCalibrate() {
+        StrategySelector calibrated = new StrategySelector(2);
+        assertTrue(calibrated.nanosPerUnit(PiDigits.BBP) > 0);
+        assertThrows(IllegalArgumentException.class, () -> new StrategySelector(0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new StrategySelector(1, 0));
+    }
+}
@@ -0,0 +1,19 @@
+package edu.eci.arsw.parallelism.core.exceptions;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CalculationCancelledException Unit Tests")
+class CalculationCancelledExceptionTest {
+
+    @Test
+    @DisplayName("Should create exception with message")
+    void shouldCreateExceptionWithMessage() {
+        CalculationCancelledException exception = new CalculationCancelledException("Client disconnected");
+
+        assertEquals("Client disconnected", exception.getMessage());
+        assertInstanceOf(RuntimeException.class, exception);
+    }
+}
@@ -0,0 +1,20 @@
+package edu.eci.arsw.parallelism.core.exceptions;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ComputeSaturatedException Unit Tests")
+class ComputeSaturatedExceptionTest {
+
+    @Test
+    @DisplayName("Should create exception with message and retry delay")
+    void shouldCreateExceptionWithParameters() {
+        ComputeSaturatedException exception = new ComputeSaturatedException("Saturated", 7);
+
+        assertEquals("Saturated", exception.getMessage());
+        assertEquals(7, exception.getRetryAfterSeconds());
+        assertInstanceOf(RuntimeException.class, exception);
+    }
+}
@@ -19,6 +19,17 @@ class PiCalculationTimeoutExceptionTest {
 
         assertEquals(message, exception.getMessage());
         assertEquals(elapsedMillis, exception.getElapsedMillis());
+        assertEquals("", exception.getPartialDigits());
+    }
+
+    @Test
+    @DisplayName("Should carry the digits completed before the timeout")
+    void shouldCarryPartialDigits() {
+        PiCalculationTimeoutException exception =
+            new PiCalculationTimeoutException("Calculation timed out", 30_000L, "243F6A");
+
+        assertEquals("243F6A", exception.getPartialDigits());
+        assertEquals(30_000L, exception.getElapsedMillis());
     }
 
     @Test
@@ -0,0 +1,48 @@
+package edu.eci.arsw.parallelism.monitoring;
+
+import edu.eci.arsw.parallelism.core.ModPow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ModPowBenchmark class.
+ */
+class ModPowBenchmarkTest {
+
+    private ModPowBenchmark benchmark;
+
+    @BeforeEach
+    void setUp() {
+        benchmark = new ModPowBenchmark();
+    }
+
+    @Test
+    @DisplayName("Legacy loop should agree with the Barrett kernel")
+    void testLegacyMatchesKernel() {
+        for (long m = 1; m < 2_000; m += 7) {
+            assertEquals(ModPow.pow16(m + 3, m), ModPowBenchmark.legacyHexExponentModulo(m + 3, m));
+        }
+    }
+
+    @Test
+    @DisplayName("Should run both kernels and return non-negative times")
+    void testRunKernels() {
+        assertTrue(benchmark.runLegacy(1_000) >= 0);
+        assertTrue(benchmark.runKernel(1_000) >= 0);
+    }
+
+    @Test
+    @DisplayName("Should compute a positive speedup")
+    void testRunComparison() {
+        assertTrue(benchmark.runComparison(1_000) > 0);
+    }
+
+    @Test
+    @DisplayName("Main method should execute without exceptions")
+    void testMainMethod() {
+        assertDoesNotThrow(() -> ModPowBenchmark.main(new String[]{}));
+    }
+}
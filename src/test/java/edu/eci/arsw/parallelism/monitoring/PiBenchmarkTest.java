@@ -67,6 +67,20 @@ class PiBenchmarkTest {
         assertTrue(executionTime >= 0, "Execution time should be non-negative");
     }
 
+    @Test
+    @DisplayName("Should run guided and pool strategies")
+    void testRunSingleTestGuidedAndPool() {
+        assertTrue(benchmark.runSingleTest("guided", 0, 100, 4) >= 0, "Execution time should be non-negative");
+        assertTrue(benchmark.runSingleTest("pool", 0, 100, 4) >= 0, "Execution time should be non-negative");
+        assertTrue(benchmark.runSingleTest("forkjoin", 0, 100, 4) >= 0, "Execution time should be non-negative");
+    }
+
+    @Test
+    @DisplayName("Should run the deep-offset benchmark without exceptions")
+    void testRunDeepOffsetBenchmark() {
+        assertDoesNotThrow(() -> benchmark.runDeepOffsetBenchmark(100_000, 300));
+    }
+
     @Test
     @DisplayName("Should handle different start positions")
     void testRunSingleTestWithDifferentStartPosition() {